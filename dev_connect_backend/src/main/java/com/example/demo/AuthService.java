@@ -1,24 +1,46 @@
 package com.example.demo;
 
 import com.example.demo.dto.login.LoginRequest;
+import com.example.demo.model.UserPrincipal;
 import com.example.demo.repository.UserRepository;
 import com.example.demo.security.JwtUtil;
+import com.example.demo.security.PasswordHashingExecutor;
+import com.example.demo.security.TokenRevocationService;
+import com.example.demo.security.TokenVersionRegistry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class AuthService {
 
     private final AuthenticationManager authenticationManager;
     private final JwtUtil jwtUtil;
+    private final TokenVersionRegistry tokenVersions;
+    private final TokenRevocationService revocations;
+    private final PasswordHashingExecutor hashingExecutor;
 
     @Autowired
-    public AuthService(AuthenticationManager authenticationManager, JwtUtil jwtUtil) {
+    public AuthService(AuthenticationManager authenticationManager, JwtUtil jwtUtil,
+                       TokenVersionRegistry tokenVersions, TokenRevocationService revocations,
+                       PasswordHashingExecutor hashingExecutor) {
         this.authenticationManager = authenticationManager;
         this.jwtUtil = jwtUtil;
+        this.tokenVersions = tokenVersions;
+        this.revocations = revocations;
+        this.hashingExecutor = hashingExecutor;
+    }
+
+    // the password check runs on the bounded hashing pool, not the request thread
+    public CompletableFuture<String> verifyAsync(LoginRequest loginRequest) {
+        return hashingExecutor.submit(() -> verify(loginRequest));
     }
 
     public String verify(LoginRequest loginRequest) {
@@ -27,6 +49,27 @@ public class AuthService {
                         loginRequest.username(),
                         loginRequest.password()
                 ));
+        if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return jwtUtil.generateToken(principal);
+        }
         return jwtUtil.generateToken(authentication.getName());
     }
+
+    // signs the user out everywhere: every token issued so far fails the version check
+    public void revokeSessions(UUID userId) {
+        tokenVersions.bump(userId);
+    }
+
+    // revokes the presented token until it would have expired anyway
+    public void logout(String token) {
+        if (token == null || token.isBlank()) {
+            return;
+        }
+        try {
+            Claims claims = jwtUtil.parseVerified(token);
+            revocations.revoke(JwtUtil.extractTokenId(claims), claims.getExpiration());
+        } catch (JwtException | IllegalArgumentException ex) {
+            // invalid or expired tokens cannot be used anyway
+        }
+    }
 }
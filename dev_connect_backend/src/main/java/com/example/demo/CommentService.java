@@ -1,21 +1,34 @@
 package com.example.demo;
 
+import com.example.demo.datasource.PrimaryReads;
 import com.example.demo.dto.comment.CommentResponse;
+import com.example.demo.dto.sync.DeltaResponse;
 import com.example.demo.entity.Comment;
 import com.example.demo.entity.Post;
 import com.example.demo.entity.User;
-import com.example.demo.enums.PostVisibility;
+import com.example.demo.enums.ChangeKind;
+import com.example.demo.enums.ChangeTarget;
+import com.example.demo.enums.DomainEventType;
+import com.example.demo.enums.ReactionType;
+import com.example.demo.events.DomainEventPublisher;
 import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.repository.CommentRepository;
+import com.example.demo.responsecache.DataVersions;
 import com.example.demo.security.AuthUtil;
 import com.example.demo.post.PostService;
 import com.example.demo.reaction.ReactionService;
+import com.example.demo.reaction.ViewerReactionResolver;
+import com.example.demo.sync.ChangeLog;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 public class CommentService {
@@ -24,58 +37,122 @@ public class CommentService {
     private final CommentRepository commentRepo;
     private final AuthUtil authUtil;
     private final ReactionService reactionService;
+    private final ViewerReactionResolver viewerReactions;
+    private final DataVersions dataVersions;
+    private final ChangeLog changeLog;
+    private final DomainEventPublisher domainEvents;
+    private final TransactionTemplate transactions;
+    private final PrimaryReads primaryReads;
 
     @Autowired
     public CommentService(UserService userService,
                           PostService postService,
                           CommentRepository commentRepo,
                           AuthUtil authUtil,
-                          ReactionService reactionService) {
+                          ReactionService reactionService,
+                          ViewerReactionResolver viewerReactions,
+                          DataVersions dataVersions,
+                          ChangeLog changeLog,
+                          DomainEventPublisher domainEvents,
+                          TransactionTemplate transactions,
+                          PrimaryReads primaryReads) {
 
         this.userService = userService;
         this.postService = postService;
         this.commentRepo = commentRepo;
         this.authUtil = authUtil;
         this.reactionService = reactionService;
+        this.viewerReactions = viewerReactions;
+        this.dataVersions = dataVersions;
+        this.changeLog = changeLog;
+        this.domainEvents = domainEvents;
+        this.transactions = transactions;
+        this.primaryReads = primaryReads;
     }
 
-    private CommentResponse toResponse(Comment comment) {
+    private CommentResponse toResponse(Comment comment, long reactionCount, ReactionType myReaction) {
         return new CommentResponse(
                 comment.getId(),
                 comment.getContent(),
                 comment.getUser().getUsername(),
-                reactionService.getCountByCommentId(comment.getId())
+                reactionCount,
+                myReaction
         );
     }
 
      public CommentResponse addComment(UUID postId, String content, String username) {
          User user = userService.getByUsername(username);
-         Post post = postService.getById(postId);
-
-         if(post.getVisibility()!= PostVisibility.PUBLIC){
-             throw new AccessDeniedException("Access Denied");
-         }
+         // visibility comes from the access index, the post itself is never loaded
+         postService.checkPrivatePost(postId);
+         Post post = postService.getReference(postId);
 
         Comment c = new Comment();
         c.setContent(content);
         c.setPost(post);
         c.setUser(user);
 
-        Comment saved = commentRepo.save(c);
-        return toResponse(saved);
+        Comment saved = transactions.execute(status -> {
+            Comment created = commentRepo.save(c);
+            changeLog.record(ChangeTarget.COMMENT, created.getId(), postId, ChangeKind.UPSERT);
+            domainEvents.publish(DomainEventType.COMMENT_ADDED, created.getId(), postId);
+            return created;
+        });
+        dataVersions.bump(DataVersions.Domain.COMMENTS);
+        dataVersions.bumpPost(postId);
+        // a comment that was just created has no reactions yet
+        return toResponse(saved, 0, null);
      }
 
      public void deleteComment(UUID commentId) {
          Comment c = getById(commentId);
          authUtil.verifyUserAccess(c.getUser().getUsername());
-         commentRepo.delete(c);
+         UUID postId = c.getPost().getId();
+         transactions.executeWithoutResult(status -> {
+             commentRepo.delete(c);
+             changeLog.record(ChangeTarget.COMMENT, commentId, postId, ChangeKind.DELETE);
+             domainEvents.publish(DomainEventType.COMMENT_DELETED, commentId, postId);
+         });
+         dataVersions.bump(DataVersions.Domain.COMMENTS);
+         dataVersions.bumpPost(postId);
      }
 
+     @Transactional(readOnly = true)
      public List<CommentResponse> getCommentByPostId(UUID postId) {
-        postService.getById(postId);
+        // checkPrivatePost throws when the post does not exist or is private
+        postService.checkPrivatePost(postId);
+        return toResponses(commentRepo.findAllByPostId(postId));
+     }
+
+     // comment thread changes after the cursor, deleted comments as tombstones; read from the
+     // primary, a lagging replica would let the cursor move past rows it cannot see yet
+     public DeltaResponse<CommentResponse> getCommentChanges(UUID postId, String since, Integer size) {
         postService.checkPrivatePost(postId);
-        List<Comment> comments = commentRepo.findAllByPostId(postId);
-        return comments.stream().map(this::toResponse).toList();
+        return primaryReads.execute(() -> readCommentChanges(postId, since, size));
+     }
+
+     private DeltaResponse<CommentResponse> readCommentChanges(UUID postId, String since, Integer size) {
+        ChangeLog.Batch batch = changeLog.commentChanges(postId, since, size);
+        List<UUID> upserted = batch.changes().entrySet().stream()
+                .filter(e -> e.getValue() == ChangeKind.UPSERT)
+                .map(Map.Entry::getKey)
+                .toList();
+        List<Comment> present = upserted.isEmpty() ? List.of() : commentRepo.findAllById(upserted);
+        Set<UUID> presentIds = present.stream().map(Comment::getId).collect(Collectors.toSet());
+        List<UUID> deleted = batch.changes().keySet().stream()
+                .filter(id -> !presentIds.contains(id))
+                .toList();
+        return new DeltaResponse<>(toResponses(present), deleted, batch.since(), batch.hasMore(), batch.resync());
+     }
+
+     // reaction counts and viewer reactions are looked up once for the whole thread
+     private List<CommentResponse> toResponses(List<Comment> comments) {
+        List<UUID> ids = comments.stream().map(Comment::getId).toList();
+        Map<UUID, Long> counts = reactionService.getCountsByCommentIds(ids);
+        Map<UUID, ReactionType> myReactions = viewerReactions.forComments(ids);
+        return comments.stream()
+                .map(comment -> toResponse(comment, counts.getOrDefault(comment.getId(), 0L),
+                        myReactions.get(comment.getId())))
+                .toList();
      }
 
      public long getCountByPostId(UUID postId) {
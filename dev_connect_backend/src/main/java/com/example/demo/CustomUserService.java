@@ -2,21 +2,25 @@ package com.example.demo;
 
 import com.example.demo.entity.User;
 import com.example.demo.model.UserPrincipal;
+import com.example.demo.repository.UserCredentialRepository;
 import com.example.demo.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
-public class CustomUserService implements UserDetailsService {
+public class CustomUserService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepo;
+    private final UserCredentialRepository credentialRepo;
 
     @Autowired
-    public CustomUserService(UserRepository userRepo) {
+    public CustomUserService(UserRepository userRepo, UserCredentialRepository credentialRepo) {
         this.userRepo = userRepo;
+        this.credentialRepo = credentialRepo;
     }
 
     @Override
@@ -24,6 +28,18 @@ public class CustomUserService implements UserDetailsService {
         User user = userRepo
                 .findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException(username));
+        // the user may come from the second-level cache, the hash always comes from the database
+        user.setPassword(credentialRepo.findPasswordByUserId(user.getId()).orElse(null));
         return new UserPrincipal(user);
     }
+
+    // called after a successful login when the stored hash uses outdated parameters
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        credentialRepo.updatePassword(user.getUsername(), newPassword);
+        if (user instanceof UserPrincipal principal) {
+            principal.user().setPassword(newPassword);
+        }
+        return user;
+    }
 }
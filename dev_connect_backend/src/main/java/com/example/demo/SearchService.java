@@ -2,14 +2,23 @@ package com.example.demo;
 
 import com.example.demo.dto.post.PostResponse;
 import com.example.demo.entity.Post;
+import com.example.demo.entity.PostFeedView;
+import com.example.demo.enums.ReactionType;
+import com.example.demo.feedview.PostFeedProjector;
+import com.example.demo.repository.PostFeedViewRepository;
 import com.example.demo.repository.PostRepository;
 import com.example.demo.reaction.ReactionService;
+import com.example.demo.reaction.ViewerReactionResolver;
 import com.example.demo.utils.PostMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.UUID;
 
 @Service
 public class SearchService {
@@ -18,33 +27,50 @@ public class SearchService {
     private final PostMapper postMapper;
     private final CommentService commentService;
     private final ReactionService reactionService;
+    private final ViewerReactionResolver viewerReactions;
+    private final PostFeedViewRepository feedViewRepo;
+    private final PostFeedProjector feedView;
 
     @Autowired
     public SearchService(
             PostRepository postRepo,
             PostMapper postMapper,
             CommentService commentService,
-            ReactionService reactionService
+            ReactionService reactionService,
+            ViewerReactionResolver viewerReactions,
+            PostFeedViewRepository feedViewRepo,
+            PostFeedProjector feedView
     ) {
         this.postRepo = postRepo;
         this.postMapper = postMapper;
         this.commentService = commentService;
         this.reactionService = reactionService;
+        this.viewerReactions = viewerReactions;
+        this.feedViewRepo = feedViewRepo;
+        this.feedView = feedView;
     }
 
-    private PostResponse toResponse(Post post) {
+    private PostResponse toResponse(Post post, ReactionType myReaction) {
         long commentCount = commentService.getCountByPostId(post.getId());
         long reactionCount = reactionService.getCountByPostId(post.getId());
-        return postMapper.toResponse(post, commentCount, reactionCount);
+        return postMapper.toResponse(post, commentCount, reactionCount, myReaction);
     }
 
+    @Transactional(readOnly = true)
     public Page<PostResponse> searchPosts(String keyword, Integer page, Integer size) {
         Pageable pageable = PageRequest.of(
                 page == null ? 0 : page,
                 size == null ? 10 : size
         );
 
+        // one LIKE over the view instead of a DISTINCT join with the tags table
+        if (feedView.isReady()) {
+            Page<PostFeedView> rows = feedViewRepo.searchPublic(keyword, pageable);
+            Map<UUID, ReactionType> myReactions = viewerReactions.forPosts(rows.map(PostFeedView::getId).getContent());
+            return rows.map(row -> postMapper.toResponse(row, myReactions.get(row.getId())));
+        }
         Page<Post> posts = postRepo.searchPublicPosts(keyword, pageable);
-        return  posts.map(this::toResponse);
+        Map<UUID, ReactionType> myReactions = viewerReactions.forPosts(posts.map(Post::getId).getContent());
+        return  posts.map(post -> toResponse(post, myReactions.get(post.getId())));
     }
 }
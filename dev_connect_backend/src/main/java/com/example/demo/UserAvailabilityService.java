@@ -0,0 +1,152 @@
+package com.example.demo;
+
+import com.example.demo.cluster.ClusterInvalidator;
+import com.example.demo.datasource.PrimaryReads;
+import com.example.demo.dto.profile.UserIdentity;
+import com.example.demo.enums.InvalidationTopic;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.utils.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Answers "is this username / email taken" from per-node Bloom filters over
+ * existing users. A filter miss means the value is free without a query;
+ * only possible positives are confirmed with an indexed exists lookup. The
+ * unique constraints stay the final word for registrations racing each other.
+ *
+ * A filter negative is only as good as the filter, so registrations on other
+ * nodes arrive through the cluster channel, and the filters are reloaded
+ * from the primary when that channel had a gap.
+ */
+@Service
+public class UserAvailabilityService {
+
+    private final UserRepository userRepo;
+    private final PrimaryReads primaryReads;
+    private final ClusterInvalidator invalidator;
+    private final long minExpectedUsers;
+    private final double falsePositiveRate;
+    private final Counter filterNegatives;
+    private final Counter exactLookups;
+
+    // null until the startup load finishes, every check goes to the database until then
+    private volatile BloomFilter usernames;
+    private volatile BloomFilter emails;
+
+    // registrations that happen while the filters are being loaded
+    private final Set<String> takenDuringLoad = ConcurrentHashMap.newKeySet();
+    private volatile boolean loading;
+
+    @Autowired
+    public UserAvailabilityService(UserRepository userRepo,
+                                   PrimaryReads primaryReads,
+                                   ClusterInvalidator invalidator,
+                                   @Value("${users.availability.expected-users:100000}") long minExpectedUsers,
+                                   @Value("${users.availability.false-positive-rate:0.01}") double falsePositiveRate,
+                                   MeterRegistry meterRegistry) {
+        this.userRepo = userRepo;
+        this.primaryReads = primaryReads;
+        this.invalidator = invalidator;
+        this.minExpectedUsers = minExpectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filterNegatives = meterRegistry.counter("user.availability.filter.negatives");
+        this.exactLookups = meterRegistry.counter("user.availability.exact.lookups");
+    }
+
+    // from the primary: a user missing on a replica would read as free;
+    // startup and a cluster reconnect may both trigger it
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        loading = true;
+        long expected = Math.max(minExpectedUsers, primaryReads.execute(userRepo::count) * 2);
+        BloomFilter loadedUsernames = new BloomFilter(expected, falsePositiveRate);
+        BloomFilter loadedEmails = new BloomFilter(expected, falsePositiveRate);
+        primaryReads.execute(() -> {
+            try (Stream<UserIdentity> identities = userRepo.streamIdentities()) {
+                identities.forEach(identity -> {
+                    if (identity.username() != null) {
+                        loadedUsernames.put(identity.username());
+                    }
+                    if (identity.email() != null) {
+                        loadedEmails.put(identity.email());
+                    }
+                });
+            }
+            return null;
+        });
+        usernames = loadedUsernames;
+        emails = loadedEmails;
+        loading = false;
+        for (String key : takenDuringLoad) {
+            addKey(key);
+        }
+        takenDuringLoad.clear();
+    }
+
+    public boolean isUsernameTaken(String username) {
+        return isTaken(usernames, username, userRepo::existsByUsername);
+    }
+
+    public boolean isEmailTaken(String email) {
+        return isTaken(emails, email, userRepo::existsByEmail);
+    }
+
+    // called after a user row is saved; the other nodes load the identity by id
+    public void markTaken(UUID userId, String username, String email) {
+        markTaken(username, email);
+        invalidator.invalidate(InvalidationTopic.NEW_USER, userId);
+    }
+
+    /** A user registered on another node. */
+    public void markTaken(UUID userId) {
+        userRepo.findIdentityById(userId).ifPresent(identity -> markTaken(identity.username(), identity.email()));
+    }
+
+    // the channel is down and registrations elsewhere go unseen, every check goes to the database
+    public void suspend() {
+        usernames = null;
+        emails = null;
+    }
+
+    private void markTaken(String username, String email) {
+        String usernameKey = "u:" + username;
+        String emailKey = "e:" + email;
+        if (loading) {
+            takenDuringLoad.add(usernameKey);
+            takenDuringLoad.add(emailKey);
+        }
+        addKey(usernameKey);
+        addKey(emailKey);
+    }
+
+    private void addKey(String key) {
+        BloomFilter filter = key.startsWith("u:") ? usernames : emails;
+        if (filter != null) {
+            filter.put(key.substring(2));
+        }
+    }
+
+    private boolean isTaken(BloomFilter filter, String value, Predicate<String> exists) {
+        if (value == null || value.isBlank()) {
+            return false;
+        }
+        if (filter != null && !filter.mightContain(value)) {
+            filterNegatives.increment();
+            return false;
+        }
+        exactLookups.increment();
+        return exists.test(value);
+    }
+}
@@ -1,67 +1,134 @@
 package com.example.demo;
 
+import com.example.demo.dto.profile.AvailabilityResponse;
 import com.example.demo.dto.profile.PublicUserProfileResponse;
 import com.example.demo.dto.profile.UpdateProfileRequest;
 import com.example.demo.dto.profile.UserProfileRequest;
 import com.example.demo.dto.profile.UserProfileResponse;
 import com.example.demo.entity.User;
+import com.example.demo.entity.UserCredential;
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.exception.ConflictException;
 import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.repository.UserCredentialRepository;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.responsecache.DataVersions;
+import com.example.demo.security.PasswordHashingExecutor;
+import com.example.demo.security.PrincipalCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class UserService {
 
     private final UserRepository userRepo;
+    private final UserCredentialRepository credentialRepo;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
+    private final PasswordHashingExecutor hashingExecutor;
+    private final UserAvailabilityService availability;
+    private final DataVersions dataVersions;
+    private final TransactionTemplate transactions;
 
     @Autowired
-    public UserService(UserRepository userRepo, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepo, UserCredentialRepository credentialRepo,
+                       PasswordEncoder passwordEncoder, PrincipalCache principalCache,
+                       PasswordHashingExecutor hashingExecutor, UserAvailabilityService availability,
+                       DataVersions dataVersions, TransactionTemplate transactions) {
         this.userRepo = userRepo;
+        this.credentialRepo = credentialRepo;
         this.passwordEncoder = passwordEncoder;
+        this.principalCache = principalCache;
+        this.hashingExecutor = hashingExecutor;
+        this.availability = availability;
+        this.dataVersions = dataVersions;
+        this.transactions = transactions;
+    }
+
+    // hashing the new password runs on the bounded hashing pool, not the request thread
+    public CompletableFuture<UserProfileResponse> registerAsync(UserProfileRequest req) {
+        // taken names are rejected before they occupy a hashing slot
+        ensureAvailable(req);
+        return hashingExecutor.submit(() -> createUser(req));
     }
 
     public UserProfileResponse register(UserProfileRequest req) {
+        ensureAvailable(req);
+        return createUser(req);
+    }
+
+    public AvailabilityResponse checkAvailability(String username, String email) {
+        if ((username == null || username.isBlank()) && (email == null || email.isBlank())) {
+            throw new BadRequestException("username or email is required");
+        }
+        return new AvailabilityResponse(
+                username == null ? null : !availability.isUsernameTaken(username),
+                email == null ? null : !availability.isEmailTaken(email)
+        );
+    }
+
+    private void ensureAvailable(UserProfileRequest req) {
+        if (availability.isUsernameTaken(req.username())) {
+            throw new ConflictException("Username already exists");
+        }
+        if (availability.isEmailTaken(req.email())) {
+            throw new ConflictException("Email already exists");
+        }
+    }
+
+    private UserProfileResponse createUser(UserProfileRequest req) {
         User user  = new User();
         user.setUsername(req.username());
         user.setBio(req.bio());
         user.setEmail(req.email());
         user.setSkills(req.skills());
-        user.setPassword(passwordEncoder.encode(req.password()));
-        userRepo.save(user);
+        String hash = passwordEncoder.encode(req.password());
+        transactions.execute(status -> {
+            userRepo.save(user);
+            return credentialRepo.save(new UserCredential(user, hash));
+        });
+        availability.markTaken(user.getId(), user.getUsername(), user.getEmail());
         return new UserProfileResponse(user);
     }
 
+    @Transactional(readOnly = true)
     public UserProfileResponse getProfileByUsernameForOwner(String username) {
         User user = getByUsername(username);
         return new UserProfileResponse(user);
     }
 
+    @Transactional(readOnly = true)
     public PublicUserProfileResponse getPublicProfileByUsername(String username) {
         User user = getByUsername(username);
         return new PublicUserProfileResponse(user);
     }
 
     public UserProfileResponse updateProfile(UpdateProfileRequest req, UUID userId) {
-        User user = getById(userId);
-
-        // Only allow updating skills, bio, and showEmailPublicly; ignore username and email
-        if (req.skills() != null) {
-            user.setSkills(req.skills());
-        }
-        if (req.bio() != null) {
-            user.setBio(req.bio());
-        }
-        if (req.showEmailPublicly() != null) {
-            user.setShowEmailPublicly(req.showEmailPublicly());
-        }
+        // read and write share one transaction; the caches are dropped only after it commits
+        User user = transactions.execute(status -> {
+            User loaded = getById(userId);
 
-        userRepo.save(user);
+            // Only allow updating skills, bio, and showEmailPublicly; ignore username and email
+            if (req.skills() != null) {
+                loaded.setSkills(req.skills());
+            }
+            if (req.bio() != null) {
+                loaded.setBio(req.bio());
+            }
+            if (req.showEmailPublicly() != null) {
+                loaded.setShowEmailPublicly(req.showEmailPublicly());
+            }
+            return userRepo.save(loaded);
+        });
+        principalCache.invalidate(user.getUsername());
+        dataVersions.bump(DataVersions.Domain.USERS);
         return new UserProfileResponse(user);
     }
 
@@ -0,0 +1,195 @@
+package com.example.demo.cluster;
+
+import com.example.demo.UserAvailabilityService;
+import com.example.demo.datasource.ReadYourWritesTracker;
+import com.example.demo.entity.Post;
+import com.example.demo.entity.User;
+import com.example.demo.enums.InvalidationTopic;
+import com.example.demo.events.DomainEvent;
+import com.example.demo.events.DomainEventBus;
+import com.example.demo.hotkey.HotPostCache;
+import com.example.demo.post.FeedHeadRing;
+import com.example.demo.post.PostAccessIndex;
+import com.example.demo.realtime.FeedEventGateway;
+import com.example.demo.responsecache.DataVersions;
+import com.example.demo.security.PrincipalCache;
+import com.example.demo.security.TokenVersionRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Connects the node-local caches to the cluster channel: committed domain
+ * events raised on this node are forwarded to the other nodes, and
+ * invalidations arriving from them are applied to each cache here. User
+ * changes are not domain events and are sent by UserChangeListener and
+ * TokenVersionRegistry directly, registrations by UserAvailabilityService,
+ * recent writers by ReadYourWritesTracker.
+ */
+@Component
+public class CacheInvalidationBindings {
+
+    private static final String POST_TAGS = Post.class.getName() + ".tags";
+
+    private final ClusterInvalidator invalidator;
+    private final PostAccessIndex accessIndex;
+    private final FeedHeadRing feedHead;
+    private final HotPostCache hotPosts;
+    private final DataVersions dataVersions;
+    private final FeedEventGateway feedEvents;
+    private final PrincipalCache principalCache;
+    private final TokenVersionRegistry tokenVersions;
+    private final Cache secondLevel;
+
+    public CacheInvalidationBindings(ClusterInvalidator invalidator,
+                                     DomainEventBus domainEvents,
+                                     PostAccessIndex accessIndex,
+                                     FeedHeadRing feedHead,
+                                     HotPostCache hotPosts,
+                                     DataVersions dataVersions,
+                                     FeedEventGateway feedEvents,
+                                     PrincipalCache principalCache,
+                                     TokenVersionRegistry tokenVersions,
+                                     UserAvailabilityService availability,
+                                     ReadYourWritesTracker readYourWrites,
+                                     EntityManagerFactory entityManagerFactory) {
+        this.invalidator = invalidator;
+        this.accessIndex = accessIndex;
+        this.feedHead = feedHead;
+        this.hotPosts = hotPosts;
+        this.dataVersions = dataVersions;
+        this.feedEvents = feedEvents;
+        this.principalCache = principalCache;
+        this.tokenVersions = tokenVersions;
+        this.secondLevel = entityManagerFactory.getCache().unwrap(Cache.class);
+
+        invalidator.register(InvalidationTopic.POST, new PostHandler());
+        invalidator.register(InvalidationTopic.COMMENTS, new CountsHandler(DataVersions.Domain.COMMENTS));
+        invalidator.register(InvalidationTopic.REACTIONS, new CountsHandler(DataVersions.Domain.REACTIONS));
+        invalidator.register(InvalidationTopic.USER, new UserHandler());
+        invalidator.register(InvalidationTopic.NEW_USER, new ClusterInvalidator.Handler() {
+            @Override
+            public void invalidate(UUID userId) {
+                availability.markTaken(userId);
+            }
+
+            @Override
+            public void invalidateAll() {
+                availability.load();
+            }
+
+            // a filter that misses registrations would answer "free" for taken names
+            @Override
+            public void suspend() {
+                availability.suspend();
+            }
+        });
+        invalidator.register(InvalidationTopic.RECENT_WRITER, new ClusterInvalidator.Handler() {
+            @Override
+            public void invalidate(UUID userId) {
+                readYourWrites.pin(userId);
+            }
+
+            @Override
+            public void invalidateAll() {
+                readYourWrites.pinAll();
+            }
+        });
+        domainEvents.subscribe("cluster-invalidation", false, this::onDomainEvents);
+    }
+
+    // the invalidator dedupes keys until its next flush, so repeated events for one post cost nothing
+    void onDomainEvents(List<DomainEvent> batch) {
+        for (DomainEvent event : batch) {
+            switch (event.type()) {
+                case POST_CREATED, POST_UPDATED, POST_DELETED ->
+                        invalidator.invalidate(InvalidationTopic.POST, event.postId());
+                case COMMENT_ADDED, COMMENT_DELETED ->
+                        invalidator.invalidate(InvalidationTopic.COMMENTS, event.postId());
+                case POST_REACTION_CHANGED, COMMENT_REACTION_CHANGED ->
+                        invalidator.invalidate(InvalidationTopic.REACTIONS, event.postId());
+            }
+        }
+    }
+
+    private class PostHandler implements ClusterInvalidator.Handler {
+
+        @Override
+        public void invalidate(UUID postId) {
+            accessIndex.remove(postId);
+            feedHead.invalidate();
+            hotPosts.evict(postId);
+            secondLevel.evictEntityData(Post.class, postId);
+            secondLevel.evictCollectionData(POST_TAGS, postId);
+            dataVersions.bump(DataVersions.Domain.POSTS);
+            dataVersions.bumpPost(postId);
+            // the writing node announced it to its own subscribers, ours learn of it here
+            feedEvents.postChanged(postId);
+        }
+
+        @Override
+        public void invalidateAll() {
+            accessIndex.rebuild();
+            feedHead.invalidate();
+            hotPosts.clear();
+            secondLevel.evictEntityData(Post.class);
+            secondLevel.evictCollectionData(POST_TAGS);
+            dataVersions.bumpAll();
+            feedEvents.resyncAll();
+        }
+
+        // the index answers 404s on its own, so it must not run on stale data
+        @Override
+        public void suspend() {
+            accessIndex.disable();
+            feedHead.invalidate();
+        }
+    }
+
+    private class CountsHandler implements ClusterInvalidator.Handler {
+
+        private final DataVersions.Domain domain;
+
+        CountsHandler(DataVersions.Domain domain) {
+            this.domain = domain;
+        }
+
+        @Override
+        public void invalidate(UUID postId) {
+            dataVersions.bump(domain);
+            dataVersions.bumpPost(postId);
+            // local stream subscribers see counts changed by writes on other nodes too
+            feedEvents.countsChanged(postId);
+        }
+
+        @Override
+        public void invalidateAll() {
+            dataVersions.bumpAll();
+        }
+    }
+
+    private class UserHandler implements ClusterInvalidator.Handler {
+
+        @Override
+        public void invalidate(UUID userId) {
+            principalCache.invalidateUser(userId);
+            tokenVersions.invalidate(userId);
+            // the username lookup cache is keyed by name, so it goes as a whole
+            secondLevel.evictEntityData(User.class, userId);
+            secondLevel.evictNaturalIdData(User.class);
+            dataVersions.bump(DataVersions.Domain.USERS);
+        }
+
+        @Override
+        public void invalidateAll() {
+            principalCache.clear();
+            tokenVersions.clear();
+            secondLevel.evictEntityData(User.class);
+            secondLevel.evictNaturalIdData(User.class);
+            dataVersions.bump(DataVersions.Domain.USERS);
+        }
+    }
+}
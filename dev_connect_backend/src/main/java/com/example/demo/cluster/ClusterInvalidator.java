@@ -0,0 +1,334 @@
+package com.example.demo.cluster;
+
+import com.example.demo.enums.InvalidationTopic;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+
+/**
+ * Cross-node invalidation of in-process caches over Postgres LISTEN/NOTIFY.
+ *
+ * Keys are collected per topic and sent every flush interval, so a burst of
+ * writes to one post costs one key in one notification. A topic with too
+ * many pending keys is sent as "flush the whole topic" instead. Payloads
+ * are {@code node;seq;sentAt;Pkey,Ckey,P*}. Every node numbers its own
+ * notifications, so a receiver that sees a gap in a sender's sequence knows
+ * it missed something.
+ *
+ * Each node keeps one listener connection. Whenever notifications may have
+ * been lost, every registered handler is flushed completely: on each
+ * (re)connect, and on a sequence gap. While disconnected, handlers are
+ * suspended.
+ */
+@Component
+public class ClusterInvalidator {
+
+    static final String CHANNEL = "cache_invalidation";
+    // NOTIFY payloads are capped at 8000 bytes
+    static final int MAX_PAYLOAD = 7500;
+    static final char FLUSH_ALL = '*';
+
+    /** Local reaction to a topic, registered by whoever owns the cache. */
+    public interface Handler {
+        void invalidate(UUID key);
+
+        void invalidateAll();
+
+        // the channel is down; caches that cannot tolerate staleness stop answering
+        default void suspend() {
+        }
+    }
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<InvalidationTopic, Set<UUID>> pending = new EnumMap<>(InvalidationTopic.class);
+    private final Set<InvalidationTopic> pendingFlushAll = ConcurrentHashMap.newKeySet();
+    private final Map<InvalidationTopic, List<Handler>> handlers = new EnumMap<>(InvalidationTopic.class);
+    // last sequence seen per sending node
+    private final Map<String, Long> lastSeen = new ConcurrentHashMap<>();
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int maxKeysPerTopic;
+    private final int pollTimeoutMillis;
+    private final long reconnectDelayMillis;
+    private final LongSupplier clock;
+    private final Timer lag;
+    private final Counter sent;
+    private final Counter received;
+    private final Counter fullFlushes;
+    private long sequence;
+    private volatile boolean connected;
+    private volatile boolean running;
+
+    @Autowired
+    public ClusterInvalidator(DataSource dataSource,
+                              JdbcTemplate jdbcTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${cluster.invalidation.enabled:true}") boolean enabled,
+                              @Value("${cluster.invalidation.max-keys-per-topic:500}") int maxKeysPerTopic,
+                              @Value("${cluster.invalidation.poll-timeout-ms:500}") int pollTimeoutMillis,
+                              @Value("${cluster.invalidation.reconnect-delay-ms:2000}") long reconnectDelayMillis) {
+        this(dataSource, jdbcTemplate, meterRegistry, enabled, maxKeysPerTopic, pollTimeoutMillis,
+                reconnectDelayMillis, System::currentTimeMillis);
+    }
+
+    ClusterInvalidator(DataSource dataSource, JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                       boolean enabled, int maxKeysPerTopic, int pollTimeoutMillis, long reconnectDelayMillis,
+                       LongSupplier clock) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.maxKeysPerTopic = maxKeysPerTopic;
+        this.pollTimeoutMillis = pollTimeoutMillis;
+        this.reconnectDelayMillis = reconnectDelayMillis;
+        this.clock = clock;
+        for (InvalidationTopic topic : InvalidationTopic.values()) {
+            pending.put(topic, ConcurrentHashMap.newKeySet());
+            handlers.put(topic, new CopyOnWriteArrayList<>());
+        }
+        // sender and receiver clocks both feed this, so it includes their skew
+        this.lag = Timer.builder("cluster.invalidation.lag")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.sent = meterRegistry.counter("cluster.invalidation.sent");
+        this.received = meterRegistry.counter("cluster.invalidation.received");
+        this.fullFlushes = meterRegistry.counter("cluster.invalidation.full-flushes");
+        Gauge.builder("cluster.invalidation.connected", this, c -> c.connected ? 1 : 0).register(meterRegistry);
+    }
+
+    public void register(InvalidationTopic topic, Handler handler) {
+        handlers.get(topic).add(handler);
+    }
+
+    /** Tells the other nodes to drop the key; inside a transaction it is sent only after commit. */
+    public void invalidate(InvalidationTopic topic, UUID key) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> pending.get(topic).add(key));
+    }
+
+    public void invalidateAll(InvalidationTopic topic) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> pendingFlushAll.add(topic));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${cluster.invalidation.flush-ms:50}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        Map<InvalidationTopic, Set<UUID>> keys = new EnumMap<>(InvalidationTopic.class);
+        Set<InvalidationTopic> all = EnumSet.noneOf(InvalidationTopic.class);
+        for (InvalidationTopic topic : InvalidationTopic.values()) {
+            if (pendingFlushAll.remove(topic)) {
+                all.add(topic);
+            }
+            Set<UUID> drained = new HashSet<>();
+            for (UUID key : pending.get(topic)) {
+                if (pending.get(topic).remove(key)) {
+                    drained.add(key);
+                }
+            }
+            if (drained.size() > maxKeysPerTopic) {
+                all.add(topic);
+            } else if (!drained.isEmpty() && !all.contains(topic)) {
+                keys.put(topic, drained);
+            }
+        }
+        if (keys.isEmpty() && all.isEmpty()) {
+            return;
+        }
+        for (String entries : encode(keys, all)) {
+            long seq = sequence + 1;
+            String payload = nodeId + ';' + seq + ';' + clock.getAsLong() + ';' + entries;
+            try {
+                jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL, payload);
+                sequence = seq;
+                sent.increment();
+            } catch (RuntimeException ex) {
+                // the keys are gone with this payload, so next time flush what it covered
+                keys.keySet().forEach(pendingFlushAll::add);
+                pendingFlushAll.addAll(all);
+                return;
+            }
+        }
+    }
+
+    // splits the entries into comma-separated chunks that fit a NOTIFY payload
+    static List<String> encode(Map<InvalidationTopic, Set<UUID>> keys, Set<InvalidationTopic> all) {
+        List<String> chunks = new ArrayList<>();
+        StringBuilder chunk = new StringBuilder();
+        List<String> entries = new ArrayList<>();
+        all.forEach(topic -> entries.add("" + topic.getCode() + FLUSH_ALL));
+        keys.forEach((topic, ids) -> ids.forEach(id -> entries.add(topic.getCode() + id.toString())));
+        for (String entry : entries) {
+            if (chunk.length() + entry.length() + 1 > MAX_PAYLOAD - 100) {
+                chunks.add(chunk.toString());
+                chunk.setLength(0);
+            }
+            if (chunk.length() > 0) {
+                chunk.append(',');
+            }
+            chunk.append(entry);
+        }
+        if (chunk.length() > 0) {
+            chunks.add(chunk.toString());
+        }
+        return chunks;
+    }
+
+    void handle(String payload) {
+        String[] parts = payload.split(";", 4);
+        if (parts.length < 4 || parts[0].equals(nodeId)) {
+            return;
+        }
+        long seq;
+        long sentAt;
+        try {
+            seq = Long.parseLong(parts[1]);
+            sentAt = Long.parseLong(parts[2]);
+        } catch (NumberFormatException ex) {
+            // not ours, ignore
+            return;
+        }
+        received.increment();
+        lag.record(Duration.ofMillis(Math.max(0, clock.getAsLong() - sentAt)));
+
+        Long previous = lastSeen.put(parts[0], seq);
+        if (previous != null && seq != previous + 1) {
+            // a notification from that node never arrived
+            flushAll();
+            return;
+        }
+        for (String entry : parts[3].split(",")) {
+            if (entry.length() < 2) {
+                continue;
+            }
+            InvalidationTopic topic = InvalidationTopic.ofCode(entry.charAt(0));
+            if (topic == null) {
+                continue;
+            }
+            if (entry.charAt(1) == FLUSH_ALL) {
+                handlers.get(topic).forEach(Handler::invalidateAll);
+                continue;
+            }
+            try {
+                UUID key = UUID.fromString(entry.substring(1));
+                handlers.get(topic).forEach(h -> h.invalidate(key));
+            } catch (IllegalArgumentException ex) {
+                // malformed entry, skip it
+            }
+        }
+    }
+
+    void flushAll() {
+        fullFlushes.increment();
+        handlers.values().forEach(list -> list.forEach(Handler::invalidateAll));
+    }
+
+    String getNodeId() {
+        return nodeId;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        Thread listener = new Thread(this::listen, "cluster-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+    }
+
+    private void listen() {
+        while (running) {
+            // holds one pooled connection for as long as the node is up
+            try (Connection connection = dataSource.getConnection()) {
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                connected = true;
+                // anything sent before LISTEN took effect was missed
+                lastSeen.clear();
+                flushAll();
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(pollTimeoutMillis);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        handle(notification.getParameter());
+                    }
+                }
+            } catch (SQLException | RuntimeException ex) {
+                connected = false;
+                handlers.values().forEach(list -> list.forEach(Handler::suspend));
+                sleepBeforeReconnect();
+            }
+        }
+        connected = false;
+        handlers.values().forEach(list -> list.forEach(Handler::suspend));
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(reconnectDelayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
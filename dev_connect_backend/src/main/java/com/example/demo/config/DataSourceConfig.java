@@ -0,0 +1,89 @@
+package com.example.demo.config;
+
+import com.example.demo.datasource.ConnectionHoldTracker;
+import com.example.demo.datasource.ReadYourWritesTracker;
+import com.example.demo.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Primary pool from spring.datasource.*, plus one pool per replica listed in
+ * datasource.replica.urls. With no replicas configured every connection
+ * comes from the primary, as before.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(
+            DataSourceProperties properties,
+            Environment environment,
+            ReadYourWritesTracker readYourWrites,
+            MeterRegistry meterRegistry,
+            @Value("${datasource.replica.urls:}") String replicaUrls,
+            @Value("${datasource.replica.username:${spring.datasource.username:}}") String replicaUsername,
+            @Value("${datasource.replica.password:${spring.datasource.password:}}") String replicaPassword,
+            @Value("${datasource.replica.pool-size:10}") int replicaPoolSize,
+            @Value("${datasource.replica.connection-timeout-ms:2000}") long replicaConnectionTimeout,
+            @Value("${datasource.replica.max-lag-ms:2000}") long maxLagMillis,
+            @Value("${datasource.replica.check-timeout-seconds:2}") int checkTimeoutSeconds,
+            @Value("${spring.jpa.open-in-view:true}") boolean openInView) {
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        primary.setMetricRegistry(meterRegistry);
+
+        List<ReplicaRoutingDataSource.Replica> replicas = new ArrayList<>();
+        List<String> urls = Arrays.stream(replicaUrls.split(",")).map(String::trim).filter(u -> !u.isEmpty()).toList();
+        // an open-in-view EntityManager keeps its first connection for the whole request,
+        // so a replica picked for an early read would also receive the request's writes
+        if (!urls.isEmpty() && openInView) {
+            throw new IllegalStateException("datasource.replica.urls requires spring.jpa.open-in-view=false");
+        }
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setJdbcUrl(urls.get(i));
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setConnectionTimeout(replicaConnectionTimeout);
+            replica.setReadOnly(true);
+            // a replica that is down at startup is only marked unhealthy
+            replica.setInitializationFailTimeout(-1);
+            replica.setMetricRegistry(meterRegistry);
+            replicas.add(new ReplicaRoutingDataSource.Replica(replica.getPoolName(), replica));
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, readYourWrites, maxLagMillis, checkTimeoutSeconds,
+                meterRegistry);
+    }
+
+    // fetches the physical connection at the first statement, once the transaction's read-only flag is set;
+    // the hold tracker sits below the proxy, so only physical checkouts are timed
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource, ConnectionHoldTracker holdTracker) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy();
+        proxy.setTargetDataSource(holdTracker.wrap(routingDataSource));
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        proxy.afterPropertiesSet();
+        return proxy;
+    }
+}
@@ -1,7 +1,15 @@
 package com.example.demo.config;
 
+import com.example.demo.ratelimit.RateLimitFilter;
+import com.example.demo.responsecache.ETagFilter;
+import com.example.demo.responsecache.ResponseCacheFilter;
+import com.example.demo.security.BCryptCostCalibrator;
+import com.example.demo.security.CalibratedBCryptPasswordEncoder;
 import com.example.demo.security.JwtFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -13,8 +21,10 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -23,18 +33,35 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
+import java.util.Map;
 
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    private static final String BCRYPT_ID = "bcrypt";
+    // neither calibration on a fast machine nor configuration goes below this
+    private static final int BCRYPT_COST_FLOOR = 12;
+
     @Autowired
     private JwtFilter jwtFilter;
 
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    @Autowired
+    private ResponseCacheFilter responseCacheFilter;
+
+    @Autowired
+    private ETagFilter eTagFilter;
+
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private UserDetailsPasswordService userDetailsPasswordService;
+
     @Autowired
     JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
 
@@ -48,23 +75,33 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                     .requestMatchers(HttpMethod.GET,"/api/users/my-profile").authenticated()
                     .requestMatchers(HttpMethod.GET, "/api/users").permitAll()
+                    .requestMatchers(HttpMethod.GET, "/api/users/availability").permitAll()
                     .requestMatchers(HttpMethod.GET, "/api/posts").permitAll()
                     .requestMatchers(HttpMethod.GET, "/api/posts/*/comments").permitAll()
                     .requestMatchers(HttpMethod.GET, "/api/posts/*/reactions").permitAll()
+                    .requestMatchers(HttpMethod.GET, "/api/posts/*/reactions/*").permitAll()
+                    .requestMatchers(HttpMethod.GET, "/api/reactions/summary").permitAll()
                     .requestMatchers(
                             "/api/users/register",
                             "/auth/login",
                             "/auth/logout",
                             "/api/posts/public",
+                            "/api/stream/feed",
                             "/api/search",
                             "/swagger-ui/**",
                             "/v3/api-docs/**")
                     .permitAll()
+                    .requestMatchers("/actuator/hotkeys").hasRole("ADMIN")
                     .anyRequest().authenticated()
             )
             .httpBasic(Customizer.withDefaults())
             .sessionManagement(sec->sec.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-            .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
+            // throttle before any token work or database access happens
+            .addFilterBefore(rateLimitFilter, JwtFilter.class)
+            // both need the resolved viewer; a 304 is decided before the cache is consulted
+            .addFilterAfter(eTagFilter, JwtFilter.class)
+            .addFilterAfter(responseCacheFilter, ETagFilter.class);
 
         return http.build();
     }
@@ -84,15 +121,34 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder(){
-        return new BCryptPasswordEncoder(12);
+    public PasswordEncoder passwordEncoder(@Value("${security.password.bcrypt-cost:0}") int fixedCost,
+                                           @Value("${security.password.target-hash-ms:250}") long targetHashMillis,
+                                           @Value("${security.password.min-cost:12}") int minCost,
+                                           @Value("${security.password.max-cost:16}") int maxCost,
+                                           MeterRegistry meterRegistry) {
+        int floor = Math.max(minCost, BCRYPT_COST_FLOOR);
+        // 0 means benchmark this machine at startup and pick the cost that meets the target latency
+        int cost = fixedCost > 0
+                ? Math.max(fixedCost, floor)
+                : new BCryptCostCalibrator(targetHashMillis, floor, Math.max(maxCost, floor)).calibrate();
+        Gauge.builder("password.hashing.cost", () -> cost).register(meterRegistry);
+
+        // hashes are stored as {bcrypt}$2a$NN$..., so algorithm and cost can change later
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(BCRYPT_ID,
+                Map.of(BCRYPT_ID, new CalibratedBCryptPasswordEncoder(cost)));
+        // hashes written before the prefix was introduced are plain bcrypt
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return encoder;
     }
 
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
-        provider.setPasswordEncoder(new BCryptPasswordEncoder(12));
+        // same encoder bean that hashes passwords on registration
+        provider.setPasswordEncoder(passwordEncoder);
         provider.setUserDetailsService(userDetailsService);
+        // outdated hashes are rewritten with the current cost after a successful login
+        provider.setUserDetailsPasswordService(userDetailsPasswordService);
         return provider;
     }
 
@@ -3,13 +3,19 @@ package com.example.demo.controller;
 import com.example.demo.dto.login.LoginRequest;
 import com.example.demo.dto.login.LoginResponse;
 import com.example.demo.AuthService;
+import com.example.demo.model.UserPrincipal;
+import com.example.demo.security.JwtFilter;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/auth")
 public class AuthController {
@@ -18,25 +24,38 @@ public class AuthController {
     private AuthService authService;
 
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@RequestBody LoginRequest loginRequest,
-                                               HttpServletResponse response) {
-        String token = authService.verify(loginRequest);
+    public CompletableFuture<ResponseEntity<LoginResponse>> login(@RequestBody LoginRequest loginRequest) {
+        // completes on the hashing pool; the request thread is released while the password is checked
+        return authService.verifyAsync(loginRequest).thenApply(token -> {
+            ResponseCookie cookie = ResponseCookie.from("DEVCONNECT_JWT", token)
+                    .httpOnly(true)
+                    .secure(false) // TODO: true behind HTTPS
+                    .sameSite("Lax")
+                    .path("/")
+                    .build();
 
-        ResponseCookie cookie = ResponseCookie.from("DEVCONNECT_JWT", token)
-                .httpOnly(true)
-                .secure(false) // TODO: true behind HTTPS
-                .sameSite("Lax")
-                .path("/")
-                .build();
+            // Return success message instead of token
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.SET_COOKIE, cookie.toString())
+                    .body(new LoginResponse("Login successful"));
+        });
+    }
 
-        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(HttpServletRequest request, HttpServletResponse response) {
+        // the same token JwtFilter authenticates with: the cookie, else the bearer header
+        authService.logout(JwtFilter.resolveToken(request));
+        return clearCookie(response);
+    }
 
-        // Return success message instead of token
-        return ResponseEntity.ok(new LoginResponse("Login successful"));
+    @PostMapping("/revoke-sessions")
+    public ResponseEntity<Void> revokeSessions(@AuthenticationPrincipal UserPrincipal p,
+                                               HttpServletResponse response) {
+        authService.revokeSessions(p.getId());
+        return clearCookie(response);
     }
 
-    @PostMapping("/logout")
-    public ResponseEntity<Void> logout(HttpServletResponse response) {
+    private ResponseEntity<Void> clearCookie(HttpServletResponse response) {
         ResponseCookie cookie = ResponseCookie.from("DEVCONNECT_JWT", "")
                 .httpOnly(true)
                 .secure(false)
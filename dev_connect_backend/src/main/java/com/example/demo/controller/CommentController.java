@@ -2,6 +2,7 @@ package com.example.demo.controller;
 
 import com.example.demo.dto.comment.CommentRequest;
 import com.example.demo.dto.comment.CommentResponse;
+import com.example.demo.dto.sync.DeltaResponse;
 import com.example.demo.CommentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -35,4 +36,12 @@ public class CommentController {
        List<CommentResponse> response = commentService.getCommentByPostId(id);
        return ResponseEntity.ok(response);
     }
+
+    // delta sync: only comments added or removed after the cursor
+    @GetMapping(value = "/posts/{id}/comments", params = "since")
+    public ResponseEntity<DeltaResponse<CommentResponse>> getCommentChanges(@PathVariable UUID id,
+                                                                          @RequestParam(required = false) String since,
+                                                                          @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(commentService.getCommentChanges(id, since, size));
+    }
 }
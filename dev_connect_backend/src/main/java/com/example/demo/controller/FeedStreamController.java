@@ -0,0 +1,23 @@
+package com.example.demo.controller;
+
+import com.example.demo.realtime.FeedEventGateway;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("api/stream")
+public class FeedStreamController {
+
+    @Autowired
+    private FeedEventGateway feedEvents;
+
+    // public posts plus coalesced count updates; a "resync" event means reload the feed
+    @GetMapping(value = "/feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamFeed() {
+        return feedEvents.subscribe();
+    }
+}
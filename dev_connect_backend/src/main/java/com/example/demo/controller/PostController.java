@@ -2,6 +2,7 @@ package com.example.demo.controller;
 
 import com.example.demo.dto.post.PostRequest;
 import com.example.demo.dto.post.PostResponse;
+import com.example.demo.dto.sync.DeltaResponse;
 import com.example.demo.model.UserPrincipal;
 import com.example.demo.post.PostService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -45,6 +46,13 @@ public class PostController {
         return ResponseEntity.ok(posts);
     }
 
+    // delta sync: only posts created, changed or removed after the cursor
+    @GetMapping(value = "/public", params = "since")
+    public ResponseEntity<DeltaResponse<PostResponse>> getPublicPostChanges(@RequestParam(required = false) String since,
+                                                                            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(postService.getPublicPostChanges(since, size));
+    }
+
     @PutMapping("/{postId}")
     public ResponseEntity<PostResponse> updatePost(@RequestBody PostRequest req, @PathVariable UUID postId, @AuthenticationPrincipal UserPrincipal p) {
         PostResponse post = postService.updatePost(req, p.getUsername(), postId);
@@ -1,8 +1,11 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.reaction.ReactionBatchResponse;
 import com.example.demo.dto.reaction.ReactionRequest;
 import com.example.demo.dto.reaction.ReactionResponse;
 import com.example.demo.dto.reaction.ReactionSummary;
+import com.example.demo.dto.reaction.ReactorPage;
+import com.example.demo.enums.ReactionType;
 import com.example.demo.model.UserPrincipal;
 import com.example.demo.reaction.ReactionService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -44,4 +47,26 @@ public class ReactionController {
         List<ReactionSummary> reaction = reactionService.getReactionsByCommentId(commentId);
         return ResponseEntity.ok(reaction);
     }
+
+    @GetMapping("/posts/{postId}/reactions/{type}")
+    public ResponseEntity<ReactorPage> getPostReactors(@PathVariable UUID postId,
+                                                       @PathVariable ReactionType type,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(reactionService.getPostReactors(postId, type, cursor, size));
+    }
+
+    @GetMapping("/comments/{commentId}/reactions/{type}")
+    public ResponseEntity<ReactorPage> getCommentReactors(@PathVariable UUID commentId,
+                                                          @PathVariable ReactionType type,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(reactionService.getCommentReactors(commentId, type, cursor, size));
+    }
+
+    @GetMapping("/reactions/summary")
+    public ResponseEntity<ReactionBatchResponse> getReactionCounts(@RequestParam(required = false) List<UUID> postIds,
+                                                                   @RequestParam(required = false) List<UUID> commentIds) {
+        return ResponseEntity.ok(reactionService.getReactionCounts(postIds, commentIds));
+    }
 }
@@ -1,13 +1,14 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.profile.AvailabilityResponse;
 import com.example.demo.dto.profile.PublicUserProfileResponse;
 import com.example.demo.dto.profile.UpdateProfileRequest;
 import com.example.demo.dto.profile.UserProfileRequest;
 import com.example.demo.dto.profile.UserProfileResponse;
+import com.example.demo.entity.User;
 import com.example.demo.model.UserPrincipal;
 import com.example.demo.security.JwtUtil;
 import com.example.demo.UserService;
-import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
@@ -18,6 +19,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.security.Principal;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/users")
@@ -30,21 +32,28 @@ public class UserController {
     private JwtUtil jwtUtil;
 
     @PostMapping("/register")
-    public ResponseEntity<UserProfileResponse> register(@Valid @RequestBody UserProfileRequest user,
-                                                        HttpServletResponse response) {
-        UserProfileResponse created = userService.register(user);
+    public CompletableFuture<ResponseEntity<UserProfileResponse>> register(@Valid @RequestBody UserProfileRequest user) {
+        return userService.registerAsync(user).thenApply(created -> {
+            // Auto-login: issue JWT cookie based on created username
+            String token = jwtUtil.generateToken(created.username(), created.id(), User.INITIAL_TOKEN_VERSION);
+            ResponseCookie cookie = ResponseCookie.from("DEVCONNECT_JWT", token)
+                    .httpOnly(true)
+                    .secure(false)
+                    .sameSite("Lax")
+                    .path("/")
+                    .build();
 
-        // Auto-login: issue JWT cookie based on created username
-        String token = jwtUtil.generateToken(created.username());
-        ResponseCookie cookie = ResponseCookie.from("DEVCONNECT_JWT", token)
-                .httpOnly(true)
-                .secure(false)
-                .sameSite("Lax")
-                .path("/")
-                .build();
-        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .header(HttpHeaders.SET_COOKIE, cookie.toString())
+                    .body(created);
+        });
+    }
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    // live "username taken" feedback for the sign-up form
+    @GetMapping("/availability")
+    public ResponseEntity<AvailabilityResponse> checkAvailability(@RequestParam(required = false) String username,
+                                                                  @RequestParam(required = false) String email) {
+        return ResponseEntity.ok(userService.checkAvailability(username, email));
     }
 
     @GetMapping("/my-profile")
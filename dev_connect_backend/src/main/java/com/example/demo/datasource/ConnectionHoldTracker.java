@@ -0,0 +1,152 @@
+package com.example.demo.datasource;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * How long each request keeps physical JDBC connections checked out,
+ * published as db.connection.hold per route, next to
+ * db.connections.per-request. Connections are timed from getConnection to
+ * close on the request thread; one still open when the request ends counts
+ * up to that point.
+ *
+ * With open-session-in-view off this is the time spent inside service
+ * transactions, so it should stay far below the request duration.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ConnectionHoldTracker extends OncePerRequestFilter {
+
+    private static final ThreadLocal<Usage> CURRENT = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier nanoClock;
+
+    public ConnectionHoldTracker(MeterRegistry meterRegistry) {
+        this(meterRegistry, System::nanoTime);
+    }
+
+    ConnectionHoldTracker(MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.meterRegistry = meterRegistry;
+        this.nanoClock = nanoClock;
+    }
+
+    /** Wraps the pool so connections taken during a request are timed. */
+    public DataSource wrap(DataSource target) {
+        return new DelegatingDataSource(target) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return track(super.getConnection());
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return track(super.getConnection(username, password));
+            }
+        };
+    }
+
+    private Connection track(Connection connection) {
+        Usage usage = CURRENT.get();
+        if (usage == null) {
+            // scheduler and listener threads are not part of any request
+            return connection;
+        }
+        long acquired = nanoClock.getAsLong();
+        usage.opened(acquired);
+        boolean[] closed = new boolean[1];
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && !closed[0]) {
+                        closed[0] = true;
+                        usage.closed(acquired, nanoClock.getAsLong());
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getCause();
+                    }
+                });
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        Usage usage = new Usage();
+        CURRENT.set(usage);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            CURRENT.remove();
+            record(request, usage);
+        }
+    }
+
+    private void record(HttpServletRequest request, Usage usage) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "none" : pattern.toString();
+        DistributionSummary.builder("db.connections.per-request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(usage.count);
+        if (usage.count == 0) {
+            // answered from memory, the hold time would only dilute the percentiles
+            return;
+        }
+        Timer.builder("db.connection.hold")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry)
+                .record(usage.heldNanos(nanoClock.getAsLong()), TimeUnit.NANOSECONDS);
+    }
+
+    // touched by the request thread only
+    private static final class Usage {
+        private int count;
+        private int open;
+        private long heldNanos;
+        private long openSince;
+
+        void opened(long at) {
+            count++;
+            open++;
+            openSince += at;
+        }
+
+        void closed(long acquiredAt, long at) {
+            open--;
+            openSince -= acquiredAt;
+            heldNanos += at - acquiredAt;
+        }
+
+        // still-open connections count until now
+        long heldNanos(long now) {
+            return heldNanos + open * now - openSince;
+        }
+    }
+}
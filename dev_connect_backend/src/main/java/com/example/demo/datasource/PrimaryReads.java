@@ -0,0 +1,46 @@
+package com.example.demo.datasource;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Read-only work that must see the primary, not a replica that may lag.
+ * Used for reads whose result is shared node-wide (access index, feed ring)
+ * or moves a client cursor past rows for good (change-log deltas).
+ *
+ * The work runs in its own transaction: a caller's read-only transaction may
+ * already hold a replica connection.
+ */
+@Component
+public class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private final TransactionTemplate transactions;
+
+    public PrimaryReads(PlatformTransactionManager transactionManager) {
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.transactions.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactions.setReadOnly(true);
+    }
+
+    public <T> T execute(Supplier<T> work) {
+        Boolean outer = ACTIVE.get();
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return transactions.execute(status -> work.get());
+        } finally {
+            if (outer == null) {
+                ACTIVE.remove();
+            }
+        }
+    }
+
+    static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.demo.datasource;
+
+import com.example.demo.cluster.ClusterInvalidator;
+import com.example.demo.enums.InvalidationTopic;
+import com.example.demo.security.AuthUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Read-your-writes for replica routing. A user who just wrote reads from
+ * the primary for a short window, so replication lag never hides their own
+ * change. The window is shared with the other nodes over the cluster
+ * invalidation channel, so the next request may land anywhere.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private final Map<UUID, Long> pinnedUntil = new ConcurrentHashMap<>();
+    private final ClusterInvalidator clusterInvalidator;
+    private final Supplier<Optional<UUID>> currentUser;
+    private final long windowMillis;
+    private final LongSupplier clock;
+    // set when notifications may have been missed: everyone reads from the primary for a window
+    private volatile long allPinnedUntil;
+
+    @Autowired
+    public ReadYourWritesTracker(@Lazy ClusterInvalidator clusterInvalidator,
+                                 @Value("${datasource.read-your-writes-ms:5000}") long windowMillis) {
+        this(clusterInvalidator, AuthUtil::currentUserId, windowMillis, System::currentTimeMillis);
+    }
+
+    ReadYourWritesTracker(ClusterInvalidator clusterInvalidator, Supplier<Optional<UUID>> currentUser,
+                          long windowMillis, LongSupplier clock) {
+        this.clusterInvalidator = clusterInvalidator;
+        this.currentUser = currentUser;
+        this.windowMillis = windowMillis;
+        this.clock = clock;
+    }
+
+    /** The current request is about to write; its user reads from the primary for a while. */
+    public void recordWrite() {
+        Optional<UUID> userId = currentUser.get();
+        if (userId.isEmpty()) {
+            return;
+        }
+        long now = clock.getAsLong();
+        Long until = pinnedUntil.put(userId.get(), now + windowMillis);
+        // a request writing several times only tells the cluster once per half window
+        if (until == null || until - now < windowMillis / 2) {
+            clusterInvalidator.invalidate(InvalidationTopic.RECENT_WRITER, userId.get());
+        }
+    }
+
+    public boolean isPinned() {
+        long now = clock.getAsLong();
+        if (allPinnedUntil > now) {
+            return true;
+        }
+        Optional<UUID> userId = currentUser.get();
+        if (userId.isEmpty()) {
+            return false;
+        }
+        Long until = pinnedUntil.get(userId.get());
+        return until != null && until > now;
+    }
+
+    // a write made by this user on another node
+    public void pin(UUID userId) {
+        pinnedUntil.merge(userId, clock.getAsLong() + windowMillis, Math::max);
+    }
+
+    public void pinAll() {
+        allPinnedUntil = clock.getAsLong() + windowMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.read-your-writes-ms:5000}")
+    public void purge() {
+        long now = clock.getAsLong();
+        pinnedUntil.values().removeIf(until -> until <= now);
+    }
+}
@@ -1,10 +1,14 @@
 package com.example.demo.dto.comment;
 
+import com.example.demo.enums.ReactionType;
+
 import java.util.UUID;
 
 public record CommentResponse(
         UUID id,
         String content,
         String username,
-        long reactionsCount
+        long reactionsCount,
+        // reaction of the logged-in viewer, null for anonymous requests
+        ReactionType myReaction
 ) {}
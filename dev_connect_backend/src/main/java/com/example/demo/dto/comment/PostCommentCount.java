@@ -0,0 +1,8 @@
+package com.example.demo.dto.comment;
+
+import java.util.UUID;
+
+public record PostCommentCount(
+        UUID postId,
+        Long count
+) {}
@@ -0,0 +1,11 @@
+package com.example.demo.dto.post;
+
+import com.example.demo.enums.PostVisibility;
+
+import java.util.UUID;
+
+public record PostAccessRow(
+        UUID postId,
+        PostVisibility visibility,
+        UUID ownerId
+) {}
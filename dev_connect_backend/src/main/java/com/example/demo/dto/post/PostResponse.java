@@ -1,5 +1,7 @@
 package com.example.demo.dto.post;
 
+import com.example.demo.enums.ReactionType;
+
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
@@ -14,7 +16,9 @@ public record PostResponse(
          LocalDateTime createdAt,
          LocalDateTime updatedAt,
          long commentCount,
-         long reactionCount
+         long reactionCount,
+         // reaction of the logged-in viewer, null for anonymous requests
+         ReactionType myReaction
 ) {}
 
 
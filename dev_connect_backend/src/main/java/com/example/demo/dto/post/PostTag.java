@@ -0,0 +1,8 @@
+package com.example.demo.dto.post;
+
+import java.util.UUID;
+
+public record PostTag(
+        UUID postId,
+        String tag
+) {}
@@ -0,0 +1,7 @@
+package com.example.demo.dto.profile;
+
+// null when the value was not part of the request
+public record AvailabilityResponse(
+        Boolean usernameAvailable,
+        Boolean emailAvailable
+) {}
@@ -0,0 +1,6 @@
+package com.example.demo.dto.profile;
+
+public record UserIdentity(
+        String username,
+        String email
+) {}
@@ -0,0 +1,12 @@
+package com.example.demo.dto.reaction;
+
+import com.example.demo.enums.ReactionType;
+
+import java.util.Map;
+import java.util.UUID;
+
+// per-type counts keyed by target id, ids that are missing or not visible are left out
+public record ReactionBatchResponse(
+        Map<UUID, Map<ReactionType, Long>> posts,
+        Map<UUID, Map<ReactionType, Long>> comments
+) {}
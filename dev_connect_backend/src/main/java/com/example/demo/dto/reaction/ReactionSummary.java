@@ -4,7 +4,8 @@ import java.util.List;
 
 public record ReactionSummary(
          String type,
-         int count,
+         long count,
+         // only the most recent few, the full list is paged from /reactions/{type}
          List<String> usernames
 ) {}
 
@@ -0,0 +1,8 @@
+package com.example.demo.dto.reaction;
+
+import com.example.demo.enums.ReactionType;
+
+public record ReactionTypeCount(
+        ReactionType type,
+        Long count
+) {}
@@ -0,0 +1,9 @@
+package com.example.demo.dto.reaction;
+
+import java.util.List;
+
+public record ReactorPage(
+        List<ReactorResponse> reactors,
+        // pass back as ?cursor= to get the next page, null on the last page
+        String nextCursor
+) {}
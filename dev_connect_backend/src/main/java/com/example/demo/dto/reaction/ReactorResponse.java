@@ -0,0 +1,8 @@
+package com.example.demo.dto.reaction;
+
+import java.time.LocalDateTime;
+
+public record ReactorResponse(
+        String username,
+        LocalDateTime reactedAt
+) {}
@@ -0,0 +1,11 @@
+package com.example.demo.dto.reaction;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// one row of the "who reacted" keyset scan, reactionId is only used for the cursor
+public record ReactorRow(
+        UUID reactionId,
+        String username,
+        LocalDateTime reactedAt
+) {}
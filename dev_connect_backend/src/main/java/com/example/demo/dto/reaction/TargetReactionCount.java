@@ -0,0 +1,11 @@
+package com.example.demo.dto.reaction;
+
+import com.example.demo.enums.ReactionType;
+
+import java.util.UUID;
+
+public record TargetReactionCount(
+        UUID targetId,
+        ReactionType type,
+        Long count
+) {}
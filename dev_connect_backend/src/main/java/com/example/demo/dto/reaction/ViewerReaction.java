@@ -0,0 +1,10 @@
+package com.example.demo.dto.reaction;
+
+import com.example.demo.enums.ReactionType;
+
+import java.util.UUID;
+
+public record ViewerReaction(
+        UUID targetId,
+        ReactionType type
+) {}
@@ -0,0 +1,9 @@
+package com.example.demo.dto.realtime;
+
+import java.util.UUID;
+
+public record PostCountsEvent(
+        UUID postId,
+        long commentCount,
+        long reactionCount
+) {}
@@ -0,0 +1,6 @@
+package com.example.demo.dto.realtime;
+
+import java.util.UUID;
+
+// the post was deleted or is no longer public
+public record PostRemovedEvent(UUID postId) {}
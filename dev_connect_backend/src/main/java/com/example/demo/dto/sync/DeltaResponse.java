@@ -0,0 +1,17 @@
+package com.example.demo.dto.sync;
+
+import java.util.List;
+import java.util.UUID;
+
+public record DeltaResponse<T>(
+        // created or changed since the cursor, in their current form
+        List<T> changed,
+        // tombstones: deleted, or no longer visible to the caller
+        List<UUID> deleted,
+        // pass back as ?since= on the next poll
+        String since,
+        // more changes are waiting, poll again right away
+        boolean hasMore,
+        // the cursor is too old, reload the full list first
+        boolean resync
+) {}
@@ -0,0 +1,78 @@
+package com.example.demo.entity;
+
+import com.example.demo.enums.ChangeKind;
+import com.example.demo.enums.ChangeTarget;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One row per post or comment write, in commit-ish order by seq. Delta sync
+ * reads it forward from a client's cursor instead of rescanning the lists.
+ */
+@Entity
+@Table(name = "content_changes")
+public class ContentChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "target_type", nullable = false, length = 16)
+    private ChangeTarget targetType;
+
+    @Column(name = "target_id", nullable = false)
+    private UUID targetId;
+
+    // the post itself for POST rows, the parent post for COMMENT rows
+    @Column(name = "post_id", nullable = false)
+    private UUID postId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ChangeKind kind;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    public ContentChange() {
+    }
+
+    public ContentChange(ChangeTarget targetType, UUID targetId, UUID postId, ChangeKind kind) {
+        this.targetType = targetType;
+        this.targetId = targetId;
+        this.postId = postId;
+        this.kind = kind;
+    }
+
+    @PrePersist
+    public void prePersist() {
+        changedAt = LocalDateTime.now();
+    }
+
+    public Long getSeq() {
+        return seq;
+    }
+
+    public ChangeTarget getTargetType() {
+        return targetType;
+    }
+
+    public UUID getTargetId() {
+        return targetId;
+    }
+
+    public UUID getPostId() {
+        return postId;
+    }
+
+    public ChangeKind getKind() {
+        return kind;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+}
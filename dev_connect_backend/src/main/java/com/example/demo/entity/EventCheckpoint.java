@@ -0,0 +1,84 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// outbox seq a durable subscriber on one node can resume after; each node delivers its own events live
+@Entity
+@Table(name = "event_checkpoints")
+public class EventCheckpoint {
+
+    @Embeddable
+    public static class Key implements Serializable {
+
+        @Column(length = 64)
+        private String subscriber;
+
+        @Column(length = 64)
+        private String node;
+
+        public Key() {
+        }
+
+        public Key(String subscriber, String node) {
+            this.subscriber = subscriber;
+            this.node = node;
+        }
+
+        public String getSubscriber() {
+            return subscriber;
+        }
+
+        public String getNode() {
+            return node;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && subscriber.equals(other.subscriber) && node.equals(other.node);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(subscriber, node);
+        }
+    }
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "last_seq", nullable = false)
+    private long lastSeq;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public EventCheckpoint() {
+    }
+
+    public EventCheckpoint(String subscriber, String node, long lastSeq) {
+        this.id = new Key(subscriber, node);
+        this.lastSeq = lastSeq;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void touch() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public Key getId() {
+        return id;
+    }
+
+    public long getLastSeq() {
+        return lastSeq;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
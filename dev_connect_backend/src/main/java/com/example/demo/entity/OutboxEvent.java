@@ -0,0 +1,69 @@
+package com.example.demo.entity;
+
+import com.example.demo.enums.DomainEventType;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Domain event written in the same transaction as the change it describes,
+ * so an event exists exactly when its write committed. Subscribers that
+ * fell behind or missed events in a crash replay it forward by seq.
+ */
+@Entity
+@Table(name = "domain_outbox")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private DomainEventType type;
+
+    // the post, comment or reaction target the event is about
+    @Column(name = "aggregate_id", nullable = false)
+    private UUID aggregateId;
+
+    @Column(name = "post_id", nullable = false)
+    private UUID postId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public OutboxEvent() {
+    }
+
+    public OutboxEvent(DomainEventType type, UUID aggregateId, UUID postId) {
+        this.type = type;
+        this.aggregateId = aggregateId;
+        this.postId = postId;
+    }
+
+    @PrePersist
+    public void prePersist() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public Long getSeq() {
+        return seq;
+    }
+
+    public DomainEventType getType() {
+        return type;
+    }
+
+    public UUID getAggregateId() {
+        return aggregateId;
+    }
+
+    public UUID getPostId() {
+        return postId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
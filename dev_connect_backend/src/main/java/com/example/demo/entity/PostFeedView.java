@@ -0,0 +1,191 @@
+package com.example.demo.entity;
+
+import com.example.demo.enums.PostVisibility;
+import com.example.demo.enums.ReactionType;
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Denormalized read row for one post: author, tags and counts are stored
+ * alongside the post so list endpoints read a single table. Rows are
+ * derived data, rewritten by PostFeedProjector from the source tables.
+ * Usernames never change after registration, so the author name is safe
+ * to copy.
+ */
+@Entity
+@Table(name = "post_feed_view")
+public class PostFeedView {
+
+    @Id
+    @Column(name = "post_id")
+    private UUID id;
+
+    private String title;
+
+    @Column(columnDefinition = "TEXT")
+    private String content;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    private String[] tags;
+
+    // lowercased title and tags, so keyword search is one LIKE on one column
+    @Column(name = "search_text", columnDefinition = "TEXT")
+    private String searchText;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private PostVisibility visibility;
+
+    @Column(name = "author_id", nullable = false)
+    private UUID authorId;
+
+    @Column(name = "author_username", nullable = false)
+    private String authorUsername;
+
+    @Column(name = "comment_count", nullable = false)
+    private long commentCount;
+
+    @Column(name = "like_count", nullable = false)
+    private long likeCount;
+
+    @Column(name = "support_count", nullable = false)
+    private long supportCount;
+
+    @Column(name = "funny_count", nullable = false)
+    private long funnyCount;
+
+    @Column(name = "celebrate_count", nullable = false)
+    private long celebrateCount;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // when the projector last changed the row
+    @Column(name = "refreshed_at", nullable = false)
+    private LocalDateTime refreshedAt;
+
+    protected PostFeedView() {
+    }
+
+    public PostFeedView(Post post, List<String> tags, long commentCount, Map<ReactionType, Long> reactionCounts) {
+        this.id = post.getId();
+        this.title = post.getTitle();
+        this.content = post.getContent();
+        this.tags = tags.toArray(String[]::new);
+        this.searchText = searchText(post.getTitle(), tags);
+        this.visibility = post.getVisibility();
+        this.authorId = post.getUser().getId();
+        this.authorUsername = post.getUser().getUsername();
+        this.commentCount = commentCount;
+        this.likeCount = reactionCounts.getOrDefault(ReactionType.LIKE, 0L);
+        this.supportCount = reactionCounts.getOrDefault(ReactionType.SUPPORT, 0L);
+        this.funnyCount = reactionCounts.getOrDefault(ReactionType.FUNNY, 0L);
+        this.celebrateCount = reactionCounts.getOrDefault(ReactionType.CELEBRATE, 0L);
+        this.createdAt = post.getCreatedAt();
+        this.updatedAt = post.getUpdatedAt();
+        this.refreshedAt = LocalDateTime.now();
+    }
+
+    private static String searchText(String title, List<String> tags) {
+        StringBuilder text = new StringBuilder(title == null ? "" : title.toLowerCase(Locale.ROOT));
+        for (String tag : tags) {
+            text.append('\n').append(tag.toLowerCase(Locale.ROOT));
+        }
+        return text.toString();
+    }
+
+    /** Copies the source's derived state; false when the row already matched it. */
+    public boolean refreshFrom(PostFeedView source) {
+        if (Objects.equals(title, source.title)
+                && Objects.equals(content, source.content)
+                && Arrays.equals(tags, source.tags)
+                && visibility == source.visibility
+                && Objects.equals(authorId, source.authorId)
+                && Objects.equals(authorUsername, source.authorUsername)
+                && commentCount == source.commentCount
+                && likeCount == source.likeCount
+                && supportCount == source.supportCount
+                && funnyCount == source.funnyCount
+                && celebrateCount == source.celebrateCount
+                && Objects.equals(createdAt, source.createdAt)
+                && Objects.equals(updatedAt, source.updatedAt)) {
+            return false;
+        }
+        title = source.title;
+        content = source.content;
+        tags = source.tags;
+        searchText = source.searchText;
+        visibility = source.visibility;
+        authorId = source.authorId;
+        authorUsername = source.authorUsername;
+        commentCount = source.commentCount;
+        likeCount = source.likeCount;
+        supportCount = source.supportCount;
+        funnyCount = source.funnyCount;
+        celebrateCount = source.celebrateCount;
+        createdAt = source.createdAt;
+        updatedAt = source.updatedAt;
+        refreshedAt = LocalDateTime.now();
+        return true;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public List<String> getTags() {
+        return tags == null ? List.of() : List.of(tags);
+    }
+
+    public PostVisibility getVisibility() {
+        return visibility;
+    }
+
+    public UUID getAuthorId() {
+        return authorId;
+    }
+
+    public String getAuthorUsername() {
+        return authorUsername;
+    }
+
+    public long getCommentCount() {
+        return commentCount;
+    }
+
+    public long getReactionCount() {
+        return likeCount + supportCount + funnyCount + celebrateCount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public LocalDateTime getRefreshedAt() {
+        return refreshedAt;
+    }
+}
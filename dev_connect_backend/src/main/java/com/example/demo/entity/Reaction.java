@@ -9,7 +9,6 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "reactions")
-
 public class Reaction {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -31,9 +30,13 @@ public class Reaction {
     @JoinColumn(name = "user_id")
     private User user;
 
+    // default backfills rows that existed before the column was added
+    @Column(name = "created_at", nullable = false, columnDefinition = "TIMESTAMP DEFAULT CURRENT_TIMESTAMP")
+    private LocalDateTime createdAt;
+
     @PrePersist
     public void prePersist() {
-        LocalDateTime createdAt = LocalDateTime.now();
+        createdAt = LocalDateTime.now();
     }
 
     public UUID getId() {
@@ -75,4 +78,12 @@ public class Reaction {
     public void setUser(User user) {
         this.user = user;
     }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
 }
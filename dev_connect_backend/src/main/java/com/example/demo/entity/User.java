@@ -1,7 +1,12 @@
 package com.example.demo.entity;
 
+import com.example.demo.security.UserChangeListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -11,13 +16,22 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserChangeListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@NaturalIdCache(region = "users-by-username")
 public class User {
+    public static final long INITIAL_TOKEN_VERSION = 0;
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
+    // stored in user_credentials, only filled in for authentication
+    @Transient
     private String password;
     private List<String> skills;
     private String bio;
+    @NaturalId
     @Column(unique = true)
     private String username;
     @Column(unique = true)
@@ -26,6 +40,10 @@ public class User {
     @Column(nullable = false)
     private boolean showEmailPublicly = false;
 
+    // embedded in issued JWTs, bumping it rejects every token issued before
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private long tokenVersion = INITIAL_TOKEN_VERSION;
+
     public String getPassword() {
         return password;
     }
@@ -81,4 +99,12 @@ public class User {
     public void setShowEmailPublicly(boolean showEmailPublicly) {
         this.showEmailPublicly = showEmailPublicly;
     }
+
+    public long getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public void setTokenVersion(long tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
 }
@@ -0,0 +1,38 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+
+import java.util.UUID;
+
+// password hash in its own uncached table, so the second-level cache never holds credentials
+@Entity
+@Table(name = "user_credentials")
+public class UserCredential {
+
+    @Id
+    private UUID userId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    @Column(nullable = false)
+    private String password;
+
+    public UserCredential() {
+    }
+
+    public UserCredential(User user, String password) {
+        this.user = user;
+        this.password = password;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.demo.enums;
+
+public enum DomainEventType {
+    POST_CREATED,
+    POST_UPDATED,
+    POST_DELETED,
+    COMMENT_ADDED,
+    COMMENT_DELETED,
+    POST_REACTION_CHANGED,
+    COMMENT_REACTION_CHANGED
+}
@@ -0,0 +1,32 @@
+package com.example.demo.enums;
+
+// what a cluster invalidation key refers to; the code is its one-character wire form
+public enum InvalidationTopic {
+    POST('P'),
+    COMMENTS('C'),
+    REACTIONS('R'),
+    USER('U'),
+    // user id that just registered, for the availability filters
+    NEW_USER('N'),
+    // user id that just wrote, for read-your-writes routing
+    RECENT_WRITER('W');
+
+    private final char code;
+
+    InvalidationTopic(char code) {
+        this.code = code;
+    }
+
+    public char getCode() {
+        return code;
+    }
+
+    public static InvalidationTopic ofCode(char code) {
+        for (InvalidationTopic topic : values()) {
+            if (topic.code == code) {
+                return topic;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.demo.events;
+
+import com.example.demo.entity.OutboxEvent;
+import com.example.demo.enums.DomainEventType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record DomainEvent(
+        long seq,
+        DomainEventType type,
+        UUID aggregateId,
+        UUID postId,
+        LocalDateTime occurredAt
+) {
+    static DomainEvent of(OutboxEvent row) {
+        return new DomainEvent(row.getSeq(), row.getType(), row.getAggregateId(), row.getPostId(), row.getCreatedAt());
+    }
+}
@@ -0,0 +1,328 @@
+package com.example.demo.events;
+
+import com.example.demo.entity.EventCheckpoint;
+import com.example.demo.entity.OutboxEvent;
+import com.example.demo.repository.EventCheckpointRepository;
+import com.example.demo.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * In-process fan-out of committed domain events. Every subscriber gets its
+ * own bounded queue and consumer thread and receives events in batches, so
+ * a slow subscriber only delays itself.
+ *
+ * Delivery is at-least-once. When a subscriber's queue overflows or its
+ * handler throws, the live queue is dropped and the subscriber catches up
+ * from the outbox. Durable subscribers persist their position per node and
+ * resume from it after a restart, so derived data catches up on what was
+ * missed instead of being rebuilt. Handlers must therefore tolerate seeing
+ * an event twice.
+ *
+ * Seq values are handed out before commit, so an event can become visible
+ * after a higher one. Like ChangeLog, outbox reads stop at rows older than
+ * the settle delay, and the resume position never passes a seq that could
+ * still be followed by a late commit below it.
+ */
+@Component
+public class DomainEventBus {
+
+    private final Map<String, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong head = new AtomicLong();
+    private final OutboxEventRepository outboxRepo;
+    private final EventCheckpointRepository checkpointRepo;
+    private final MeterRegistry meterRegistry;
+    private final int queueCapacity;
+    private final int maxBatch;
+    private final Duration retention;
+    private final Duration settleDelay;
+    private final String nodeId;
+
+    @Autowired
+    public DomainEventBus(OutboxEventRepository outboxRepo,
+                          EventCheckpointRepository checkpointRepo,
+                          MeterRegistry meterRegistry,
+                          @Value("${events.queue-capacity:10000}") int queueCapacity,
+                          @Value("${events.max-batch:256}") int maxBatch,
+                          @Value("${events.outbox.retention-days:7}") long retentionDays,
+                          @Value("${events.settle-ms:2000}") long settleMillis,
+                          // must survive a restart, or the node starts over without its checkpoints
+                          @Value("${events.node-id:${HOSTNAME:local}}") String nodeId) {
+        this.outboxRepo = outboxRepo;
+        this.checkpointRepo = checkpointRepo;
+        this.meterRegistry = meterRegistry;
+        this.queueCapacity = queueCapacity;
+        this.maxBatch = maxBatch;
+        this.retention = Duration.ofDays(retentionDays);
+        this.settleDelay = Duration.ofMillis(settleMillis);
+        this.nodeId = nodeId;
+    }
+
+    /**
+     * Registers a handler under a unique name. A durable subscriber resumes
+     * after its stored checkpoint; others start at the current head and only
+     * see events committed from now on.
+     */
+    public void subscribe(String name, boolean durable, Consumer<List<DomainEvent>> handler) {
+        Subscriber subscriber = new Subscriber(name, durable, handler);
+        if (subscribers.putIfAbsent(name, subscriber) != null) {
+            throw new IllegalStateException("Duplicate event subscriber " + name);
+        }
+        subscriber.start();
+    }
+
+    void offer(DomainEvent event) {
+        head.accumulateAndGet(event.seq(), Math::max);
+        for (Subscriber subscriber : subscribers.values()) {
+            subscriber.offer(event);
+        }
+    }
+
+    /** Redelivers everything after the given seq, e.g. for a derived structure being rebuilt. */
+    public void replay(String name, long afterSeq) {
+        Subscriber subscriber = subscribers.get(name);
+        if (subscriber == null) {
+            throw new IllegalArgumentException("Unknown event subscriber " + name);
+        }
+        subscriber.requestReplay(afterSeq);
+    }
+
+    public long lag(String name) {
+        Subscriber subscriber = subscribers.get(name);
+        return subscriber == null ? 0 : subscriber.lag();
+    }
+
+    @Scheduled(fixedDelayString = "${events.checkpoint-interval-ms:5000}")
+    public void checkpoint() {
+        for (Subscriber subscriber : subscribers.values()) {
+            subscriber.checkpoint();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${events.outbox.prune-interval-ms:3600000}")
+    public void prune() {
+        outboxRepo.deleteOlderThan(LocalDateTime.now().minus(retention));
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (Subscriber subscriber : subscribers.values()) {
+            subscriber.stop();
+            subscriber.checkpoint();
+        }
+    }
+
+    private final class Subscriber implements Runnable {
+
+        private static final long NO_REPLAY = -1;
+
+        private final String name;
+        private final boolean durable;
+        private final Consumer<List<DomainEvent>> handler;
+        private final BlockingQueue<DomainEvent> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicLong replayFrom = new AtomicLong(NO_REPLAY);
+        private final AtomicBoolean behind = new AtomicBoolean();
+        private final Counter handled;
+        private final Counter dropped;
+        private final Counter failures;
+        private final Thread thread;
+        private volatile long lastSeq;
+        // every event offered before this time has been handled; null until init succeeds
+        private volatile LocalDateTime caughtUpAt;
+        private volatile long checkpointed = -1;
+        private volatile boolean running = true;
+
+        Subscriber(String name, boolean durable, Consumer<List<DomainEvent>> handler) {
+            this.name = name;
+            this.durable = durable;
+            this.handler = handler;
+            this.handled = meterRegistry.counter("events.subscriber.handled", "subscriber", name);
+            this.dropped = meterRegistry.counter("events.subscriber.dropped", "subscriber", name);
+            this.failures = meterRegistry.counter("events.subscriber.failures", "subscriber", name);
+            Gauge.builder("events.subscriber.lag", this, Subscriber::lag)
+                    .tag("subscriber", name).register(meterRegistry);
+            Gauge.builder("events.subscriber.queue", queue, BlockingQueue::size)
+                    .tag("subscriber", name).register(meterRegistry);
+            this.thread = new Thread(this, "events-" + name);
+            this.thread.setDaemon(true);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        void stop() {
+            running = false;
+            thread.interrupt();
+        }
+
+        long lag() {
+            return Math.max(0, head.get() - lastSeq);
+        }
+
+        void offer(DomainEvent event) {
+            if (!queue.offer(event)) {
+                // the outbox has the dropped events, catch up from there once the handler is free
+                dropped.increment();
+                behind.set(true);
+            }
+        }
+
+        void requestReplay(long afterSeq) {
+            replayFrom.accumulateAndGet(afterSeq, (current, next) -> current == NO_REPLAY ? next : Math.min(current, next));
+        }
+
+        void checkpoint() {
+            if (!durable || caughtUpAt == null) {
+                return;
+            }
+            long seq = resumeSeq();
+            if (seq != checkpointed) {
+                checkpointRepo.save(new EventCheckpoint(name, nodeId, seq));
+                checkpointed = seq;
+            }
+        }
+
+        // lastSeq may run ahead of a lower seq that commits late, so cap it at what
+        // had settled by the last time everything offered here was handled
+        private long resumeSeq() {
+            return Math.min(lastSeq, outboxRepo.findSettledHead(caughtUpAt.minus(settleDelay)));
+        }
+
+        @Override
+        public void run() {
+            while (running && !init()) {
+                backOff();
+            }
+            List<DomainEvent> batch = new ArrayList<>(maxBatch);
+            while (running) {
+                try {
+                    long from = replayFrom.getAndSet(NO_REPLAY);
+                    boolean wasBehind = behind.getAndSet(false);
+                    if (from != NO_REPLAY || wasBehind) {
+                        long resume = resumeSeq();
+                        catchUp(from != NO_REPLAY ? Math.min(from, resume) : resume);
+                        continue;
+                    }
+                    LocalDateTime polledAt = LocalDateTime.now();
+                    DomainEvent first = queue.poll(1, TimeUnit.SECONDS);
+                    if (first == null) {
+                        markCaughtUp(polledAt);
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, maxBatch - 1);
+                    deliver(batch);
+                    // a short batch emptied the queue, so it held everything offered before the poll
+                    if (batch.size() < maxBatch) {
+                        markCaughtUp(polledAt);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (RuntimeException ex) {
+                    failures.increment();
+                    behind.set(true);
+                    backOff();
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+
+        // false when the database is not reachable yet
+        private boolean init() {
+            try {
+                LocalDateTime startedAt = LocalDateTime.now();
+                long current = outboxRepo.findHead();
+                head.accumulateAndGet(current, Math::max);
+                lastSeq = current;
+                if (durable) {
+                    checkpointRepo.findById(new EventCheckpoint.Key(name, nodeId)).ifPresent(c -> {
+                        lastSeq = c.getLastSeq();
+                        checkpointed = c.getLastSeq();
+                        if (c.getLastSeq() < current) {
+                            requestReplay(c.getLastSeq());
+                        }
+                    });
+                }
+                caughtUpAt = startedAt;
+                return true;
+            } catch (RuntimeException ex) {
+                failures.increment();
+                return false;
+            }
+        }
+
+        // the queued events are also in the outbox, so replaying supersedes them
+        private void catchUp(long from) throws InterruptedException {
+            queue.clear();
+            LocalDateTime startedAt = LocalDateTime.now();
+            long after = from;
+            while (running) {
+                LocalDateTime settledBefore = LocalDateTime.now().minus(settleDelay);
+                List<OutboxEvent> page = outboxRepo.findAfter(after, settledBefore, PageRequest.of(0, maxBatch));
+                if (!page.isEmpty()) {
+                    deliver(page.stream().map(DomainEvent::of).toList());
+                    after = page.get(page.size() - 1).getSeq();
+                }
+                if (page.size() == maxBatch) {
+                    continue;
+                }
+                // done once everything written before the catch-up began has settled and been read
+                if (!settledBefore.isBefore(startedAt)) {
+                    caughtUpAt = startedAt;
+                    return;
+                }
+                Thread.sleep(Duration.between(settledBefore, startedAt).toMillis() + 1);
+            }
+        }
+
+        // a drop after the poll leaves the subscriber behind, the catch-up moves it on instead
+        private void markCaughtUp(LocalDateTime polledAt) {
+            if (!behind.get()) {
+                caughtUpAt = polledAt;
+            }
+        }
+
+        private void deliver(List<DomainEvent> batch) {
+            handler.accept(batch);
+            long max = lastSeq;
+            for (DomainEvent event : batch) {
+                max = Math.max(max, event.seq());
+            }
+            lastSeq = max;
+            handled.increment(batch.size());
+        }
+
+        // a failing handler retries from the outbox, but not in a tight loop
+        private void backOff() {
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.demo.events;
+
+import com.example.demo.entity.OutboxEvent;
+import com.example.demo.enums.DomainEventType;
+import com.example.demo.repository.OutboxEventRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+/**
+ * Appends an event to the outbox inside the caller's transaction and hands
+ * it to the bus once that transaction commits. A rollback discards both the
+ * write and its event; a crash after commit leaves the row for replay.
+ */
+@Component
+public class DomainEventPublisher {
+
+    private final OutboxEventRepository outboxRepo;
+    private final DomainEventBus bus;
+
+    public DomainEventPublisher(OutboxEventRepository outboxRepo, DomainEventBus bus) {
+        this.outboxRepo = outboxRepo;
+        this.bus = bus;
+    }
+
+    // MANDATORY: an event published outside the write's transaction would not be atomic with it
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(DomainEventType type, UUID aggregateId, UUID postId) {
+        DomainEvent event = DomainEvent.of(outboxRepo.save(new OutboxEvent(type, aggregateId, postId)));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bus.offer(event);
+            }
+        });
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.demo.feedview;
+
+import com.example.demo.repository.PostFeedViewRepository;
+import com.example.demo.repository.PostRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Finds and repairs post_feed_view rows that drifted from the source
+ * tables, e.g. because an event was lost or two nodes raced on one row.
+ * Posts and view rows are walked together in id order, one page per run,
+ * and every page is rebuilt through the projector. Rows that needed a
+ * write are counted as drift.
+ *
+ * At startup a backfill thread sweeps the whole table once. The view is
+ * only marked ready after that sweep, so it is never read while rows for
+ * existing posts may still be missing.
+ */
+@Component
+public class FeedViewReconciler {
+
+    // Postgres orders uuids bytewise, so the all-zero uuid sorts first
+    static final UUID START = new UUID(0, 0);
+
+    private final PostRepository postRepo;
+    private final PostFeedViewRepository viewRepo;
+    private final PostFeedProjector projector;
+    private final int pageSize;
+    private final long retryDelayMillis;
+    private final Counter repaired;
+    private UUID cursor = START;
+    private volatile boolean running;
+
+    public FeedViewReconciler(PostRepository postRepo,
+                              PostFeedViewRepository viewRepo,
+                              PostFeedProjector projector,
+                              MeterRegistry meterRegistry,
+                              @Value("${feed-view.reconcile.page-size:500}") int pageSize,
+                              @Value("${feed-view.reconcile.retry-delay-ms:5000}") long retryDelayMillis) {
+        this.postRepo = postRepo;
+        this.viewRepo = viewRepo;
+        this.projector = projector;
+        this.pageSize = pageSize;
+        this.retryDelayMillis = retryDelayMillis;
+        this.repaired = meterRegistry.counter("feedview.drift.repaired");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!projector.isEnabled()) {
+            return;
+        }
+        running = true;
+        Thread backfill = new Thread(this::backfill, "feed-view-backfill");
+        backfill.setDaemon(true);
+        backfill.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+    }
+
+    @Scheduled(fixedDelayString = "${feed-view.reconcile.interval-ms:10000}")
+    public void reconcile() {
+        // the backfill owns the cursor until it is done
+        if (!projector.isReady()) {
+            return;
+        }
+        UUID next = reconcilePage(cursor);
+        cursor = next == null ? START : next;
+    }
+
+    void backfill() {
+        UUID after = START;
+        while (running) {
+            try {
+                after = reconcilePage(after);
+                if (after == null) {
+                    projector.markReady();
+                    return;
+                }
+            } catch (RuntimeException ex) {
+                // database not reachable yet; resume from the same page
+                sleepBeforeRetry();
+            }
+        }
+    }
+
+    /** Rebuilds one page of ids; returns the cursor for the next page, or null after the last. */
+    UUID reconcilePage(UUID after) {
+        List<UUID> postIds = postRepo.findIdsAfter(after, PageRequest.of(0, pageSize));
+        Set<UUID> ids = new LinkedHashSet<>(postIds);
+        UUID next;
+        if (postIds.size() == pageSize) {
+            // orphaned view rows inside the same id range go with this page
+            next = postIds.get(postIds.size() - 1);
+            ids.addAll(viewRepo.findIdsBetween(after, next));
+        } else {
+            List<UUID> rest = viewRepo.findIdsAfter(after, PageRequest.of(0, pageSize));
+            ids.addAll(rest);
+            next = rest.size() == pageSize ? rest.get(rest.size() - 1) : null;
+        }
+        int written = projector.refresh(ids);
+        // during the backfill every missing row would count, which is not drift
+        if (written > 0 && projector.isReady()) {
+            repaired.increment(written);
+        }
+        return next;
+    }
+
+    private void sleepBeforeRetry() {
+        try {
+            Thread.sleep(retryDelayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
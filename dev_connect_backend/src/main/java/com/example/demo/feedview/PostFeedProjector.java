@@ -0,0 +1,171 @@
+package com.example.demo.feedview;
+
+import com.example.demo.dto.comment.PostCommentCount;
+import com.example.demo.dto.post.PostTag;
+import com.example.demo.dto.reaction.TargetReactionCount;
+import com.example.demo.entity.Post;
+import com.example.demo.entity.PostFeedView;
+import com.example.demo.enums.ReactionType;
+import com.example.demo.events.DomainEvent;
+import com.example.demo.events.DomainEventBus;
+import com.example.demo.repository.CommentRepository;
+import com.example.demo.repository.PostFeedViewRepository;
+import com.example.demo.repository.PostRepository;
+import com.example.demo.repository.ReactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps post_feed_view in step with the write side. A durable event bus
+ * subscriber collects the posts touched by each batch of committed events
+ * and rebuilds their rows from the source tables. That is a fixed handful
+ * of grouped queries per batch, however many events it holds. Rows are
+ * recomputed rather than patched with +1/-1 deltas, so replayed or
+ * duplicated events cannot skew the counts.
+ *
+ * Readers only use the view once it is ready, meaning FeedViewReconciler
+ * has finished a full pass on this node. Until then they keep using the
+ * normalized queries.
+ */
+@Component
+public class PostFeedProjector {
+
+    static final String SUBSCRIBER = "post-feed-view";
+
+    private final PostRepository postRepo;
+    private final CommentRepository commentRepo;
+    private final ReactionRepository reactionRepo;
+    private final PostFeedViewRepository viewRepo;
+    private final TransactionTemplate transactions;
+    private final boolean enabled;
+    private final Counter rowsWritten;
+    private volatile boolean ready;
+
+    public PostFeedProjector(PostRepository postRepo,
+                             CommentRepository commentRepo,
+                             ReactionRepository reactionRepo,
+                             PostFeedViewRepository viewRepo,
+                             DomainEventBus domainEvents,
+                             TransactionTemplate transactions,
+                             MeterRegistry meterRegistry,
+                             @Value("${feed-view.enabled:true}") boolean enabled) {
+        this.postRepo = postRepo;
+        this.commentRepo = commentRepo;
+        this.reactionRepo = reactionRepo;
+        this.viewRepo = viewRepo;
+        this.transactions = transactions;
+        this.enabled = enabled;
+        this.rowsWritten = meterRegistry.counter("feedview.rows.written");
+        Gauge.builder("feedview.ready", this, p -> p.ready ? 1 : 0).register(meterRegistry);
+        if (enabled) {
+            domainEvents.subscribe(SUBSCRIBER, true, this::onDomainEvents);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    void markReady() {
+        ready = true;
+    }
+
+    void onDomainEvents(List<DomainEvent> batch) {
+        // every event type carries the post whose row it affects
+        Set<UUID> postIds = new LinkedHashSet<>();
+        for (DomainEvent event : batch) {
+            if (event.postId() != null) {
+                postIds.add(event.postId());
+            }
+        }
+        refresh(postIds);
+    }
+
+    /**
+     * Rebuilds the rows of the given posts: inserts missing ones, rewrites
+     * changed ones and deletes rows whose post is gone. Returns how many rows
+     * were actually written.
+     */
+    int refresh(Collection<UUID> postIds) {
+        if (postIds.isEmpty()) {
+            return 0;
+        }
+        Integer written = transactions.execute(status -> {
+            Map<UUID, PostFeedView> expected = build(postIds);
+            Map<UUID, PostFeedView> current = viewRepo.findAllById(postIds).stream()
+                    .collect(Collectors.toMap(PostFeedView::getId, Function.identity()));
+            int changed = 0;
+            List<PostFeedView> inserts = new ArrayList<>();
+            List<PostFeedView> deletes = new ArrayList<>();
+            for (UUID postId : postIds) {
+                PostFeedView source = expected.get(postId);
+                PostFeedView row = current.get(postId);
+                if (source == null) {
+                    if (row != null) {
+                        deletes.add(row);
+                    }
+                } else if (row == null) {
+                    inserts.add(source);
+                } else if (row.refreshFrom(source)) {
+                    // managed row, flushed on commit
+                    changed++;
+                }
+            }
+            viewRepo.saveAll(inserts);
+            viewRepo.deleteAllInBatch(deletes);
+            return changed + inserts.size() + deletes.size();
+        });
+        int count = written == null ? 0 : written;
+        rowsWritten.increment(count);
+        return count;
+    }
+
+    private Map<UUID, PostFeedView> build(Collection<UUID> postIds) {
+        List<Post> posts = postRepo.findWithUserByIdIn(postIds);
+        if (posts.isEmpty()) {
+            return Map.of();
+        }
+        List<UUID> existing = posts.stream().map(Post::getId).toList();
+        Map<UUID, List<String>> tags = new HashMap<>();
+        for (PostTag tag : postRepo.findTagsByPostIds(existing)) {
+            tags.computeIfAbsent(tag.postId(), id -> new ArrayList<>()).add(tag.tag());
+        }
+        Map<UUID, Long> comments = new HashMap<>();
+        for (PostCommentCount count : commentRepo.countByPostIds(existing)) {
+            comments.put(count.postId(), count.count());
+        }
+        Map<UUID, Map<ReactionType, Long>> reactions = new HashMap<>();
+        for (TargetReactionCount count : reactionRepo.countByTypeForPosts(existing)) {
+            reactions.computeIfAbsent(count.targetId(), id -> new EnumMap<>(ReactionType.class))
+                    .put(count.type(), count.count());
+        }
+        Map<UUID, PostFeedView> rows = new HashMap<>();
+        for (Post post : posts) {
+            rows.put(post.getId(), new PostFeedView(post,
+                    tags.getOrDefault(post.getId(), List.of()),
+                    comments.getOrDefault(post.getId(), 0L),
+                    reactions.getOrDefault(post.getId(), Map.of())));
+        }
+        return rows;
+    }
+}
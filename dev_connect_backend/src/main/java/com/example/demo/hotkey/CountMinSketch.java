@@ -0,0 +1,65 @@
+package com.example.demo.hotkey;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size frequency sketch over UUID keys. Estimates never undercount;
+ * collisions can only make a key look more frequent than it is.
+ */
+public class CountMinSketch {
+
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+    };
+
+    private final int depth;
+    private final int mask;
+    private final AtomicLongArray table;
+
+    // width is rounded up to a power of two so a row index is a single mask
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || depth > SEEDS.length) {
+            throw new IllegalArgumentException("depth must be between 1 and " + SEEDS.length);
+        }
+        int size = Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+        this.depth = depth;
+        this.mask = size - 1;
+        this.table = new AtomicLongArray(depth * size);
+    }
+
+    public long add(UUID key) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, table.incrementAndGet(slot(key, row)));
+        }
+        return min;
+    }
+
+    public long estimate(UUID key) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, table.get(slot(key, row)));
+        }
+        return min;
+    }
+
+    // halves every counter so old traffic fades out
+    public void decay() {
+        for (int i = 0; i < table.length(); i++) {
+            table.getAndUpdate(i, v -> v >>> 1);
+        }
+    }
+
+    private int slot(UUID key, int row) {
+        long h = key.getMostSignificantBits() ^ Long.rotateLeft(key.getLeastSignificantBits(), 31);
+        h = mix(h + SEEDS[row]);
+        return row * (mask + 1) + (int) (h & mask);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.demo.hotkey;
+
+import java.util.UUID;
+
+public record HotKey(
+        UUID postId,
+        long estimatedHits
+) {}
@@ -0,0 +1,129 @@
+package com.example.demo.hotkey;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Finds viral posts from the stream of post accesses. Every access bumps a
+ * count-min sketch; keys whose estimate crosses the threshold compete for a
+ * slot in a bounded top-K heap. Both are halved on every decay tick, so a post
+ * stops being hot shortly after its traffic dies down.
+ */
+@Component
+public class HotKeyDetector {
+
+    private static final class Candidate {
+        private final UUID postId;
+        private long hits;
+
+        private Candidate(UUID postId, long hits) {
+            this.postId = postId;
+            this.hits = hits;
+        }
+    }
+
+    private final CountMinSketch sketch = new CountMinSketch(4, 4096);
+    private final int topK;
+    private final long threshold;
+
+    // guarded by this
+    private final PriorityQueue<Candidate> heap = new PriorityQueue<>(Comparator.comparingLong(c -> c.hits));
+    private final Map<UUID, Candidate> candidates = new HashMap<>();
+
+    // read on every access without locking
+    private volatile Set<UUID> hotKeys = Set.of();
+
+    public HotKeyDetector(@Value("${hotkeys.top-k:32}") int topK,
+                          @Value("${hotkeys.threshold:200}") long threshold,
+                          MeterRegistry meterRegistry) {
+        this.topK = topK;
+        this.threshold = threshold;
+        Gauge.builder("hotkeys.active", this, d -> d.hotKeys.size())
+                .description("Posts currently flagged as hot")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Counts one access to the post and reports whether it is currently hot.
+     */
+    public boolean record(UUID postId) {
+        long estimate = sketch.add(postId);
+        // cold keys never take the lock
+        if (estimate >= threshold) {
+            offer(postId, estimate);
+        }
+        return hotKeys.contains(postId);
+    }
+
+    public boolean isHot(UUID postId) {
+        return hotKeys.contains(postId);
+    }
+
+    public synchronized List<HotKey> snapshot() {
+        List<HotKey> result = new ArrayList<>();
+        for (Candidate c : candidates.values()) {
+            if (c.hits >= threshold) {
+                result.add(new HotKey(c.postId, c.hits));
+            }
+        }
+        result.sort(Comparator.comparingLong(HotKey::estimatedHits).reversed());
+        return result;
+    }
+
+    @Scheduled(fixedRateString = "${hotkeys.decay-interval-ms:10000}")
+    public synchronized void decay() {
+        sketch.decay();
+        List<Candidate> survivors = new ArrayList<>(candidates.size());
+        for (Candidate c : candidates.values()) {
+            c.hits >>>= 1;
+            if (c.hits >= threshold) {
+                survivors.add(c);
+            }
+        }
+        heap.clear();
+        candidates.clear();
+        for (Candidate c : survivors) {
+            heap.add(c);
+            candidates.put(c.postId, c);
+        }
+        publish();
+    }
+
+    private synchronized void offer(UUID postId, long estimate) {
+        Candidate existing = candidates.get(postId);
+        if (existing != null) {
+            if (estimate > existing.hits) {
+                heap.remove(existing);
+                existing.hits = estimate;
+                heap.add(existing);
+            }
+            return;
+        }
+        if (heap.size() >= topK) {
+            if (heap.peek().hits >= estimate) {
+                return;
+            }
+            candidates.remove(heap.poll().postId);
+        }
+        Candidate added = new Candidate(postId, estimate);
+        heap.add(added);
+        candidates.put(postId, added);
+        publish();
+    }
+
+    private void publish() {
+        hotKeys = Set.copyOf(candidates.keySet());
+    }
+}
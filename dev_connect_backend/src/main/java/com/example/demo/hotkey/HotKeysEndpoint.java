@@ -0,0 +1,24 @@
+package com.example.demo.hotkey;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// GET /actuator/hotkeys, restricted to security.admin-usernames in SecurityConfig
+@Component
+@Endpoint(id = "hotkeys")
+public class HotKeysEndpoint {
+
+    private final HotKeyDetector detector;
+
+    public HotKeysEndpoint(HotKeyDetector detector) {
+        this.detector = detector;
+    }
+
+    @ReadOperation
+    public List<HotKey> hotKeys() {
+        return detector.snapshot();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.demo.hotkey;
+
+import com.example.demo.dto.post.PostAccessRow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived near-cache that only ever holds posts the detector flagged as hot,
+ * so it is bounded by the top-K size. The TTL bounds staleness on other nodes.
+ * Entries are immutable access rows, never entities: one instance is handed to
+ * every request on the node.
+ */
+@Component
+public class HotPostCache {
+
+    private record Entry(PostAccessRow row, long expiresAt) {}
+
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final HotKeyDetector detector;
+    private final long ttlMillis;
+    private final Counter hits;
+    private final Counter misses;
+
+    public HotPostCache(HotKeyDetector detector,
+                        @Value("${hotkeys.near-cache-ttl-ms:2000}") long ttlMillis,
+                        MeterRegistry meterRegistry) {
+        this.detector = detector;
+        this.ttlMillis = ttlMillis;
+        this.hits = meterRegistry.counter("hotkeys.nearcache.hits");
+        this.misses = meterRegistry.counter("hotkeys.nearcache.misses");
+        Gauge.builder("hotkeys.nearcache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    public PostAccessRow get(UUID postId, Supplier<PostAccessRow> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(postId);
+        if (entry != null && entry.expiresAt() > now) {
+            hits.increment();
+            return entry.row();
+        }
+        misses.increment();
+        PostAccessRow row = loader.get();
+        entries.put(postId, new Entry(row, now + ttlMillis));
+        return row;
+    }
+
+    public void evict(UUID postId) {
+        entries.remove(postId);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    @Scheduled(fixedRateString = "${hotkeys.decay-interval-ms:10000}")
+    public void purge() {
+        long now = System.currentTimeMillis();
+        entries.entrySet().removeIf(e -> e.getValue().expiresAt() <= now || !detector.isHot(e.getKey()));
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.demo.hotkey;
+
+import com.example.demo.enums.ReactionType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind buffer for reactions on hot posts. Toggles are coalesced per
+ * (user, post) in memory and written by a periodic flush, so a burst of
+ * reactions on one viral post becomes a single batch instead of many
+ * contending transactions.
+ */
+@Component
+public class HotReactionBuffer {
+
+    // type == null means the reaction should be removed
+    public record PendingReaction(UUID userId, UUID postId, ReactionType type) {}
+
+    private record Key(UUID userId, UUID postId) {}
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Map<Key, PendingReaction> pending = new ConcurrentHashMap<>();
+    // drained but not yet committed, still the source of truth for new toggles
+    private volatile Map<Key, PendingReaction> inflight = Map.of();
+    private final Counter flushed;
+
+    public HotReactionBuffer(MeterRegistry meterRegistry) {
+        this.flushed = meterRegistry.counter("hotkeys.reactions.flushed");
+        Gauge.builder("hotkeys.reactions.pending", this, b -> b.pending.size())
+                .description("Buffered reactions waiting to be written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Applies the same undo/redo rules as a direct write and returns the
+     * user's reaction type after the toggle, null when it was removed.
+     */
+    public ReactionType toggle(UUID userId, UUID postId, ReactionType requested, Supplier<ReactionType> persisted) {
+        Key key = new Key(userId, postId);
+        lock.readLock().lock();
+        try {
+            // resolve the baseline outside compute() so no query runs under the map lock
+            ReactionType baseline = pending.containsKey(key) ? null : baseline(key, persisted);
+            PendingReaction next = pending.compute(key, (k, staged) -> {
+                ReactionType current = staged != null ? staged.type() : baseline;
+                return new PendingReaction(userId, postId, current == requested ? null : requested);
+            });
+            return next.type();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<PendingReaction> drain() {
+        lock.writeLock().lock();
+        try {
+            if (pending.isEmpty()) {
+                return List.of();
+            }
+            inflight = pending;
+            pending = new ConcurrentHashMap<>();
+            return List.copyOf(inflight.values());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void completeFlush(int written) {
+        inflight = Map.of();
+        flushed.increment(written);
+    }
+
+    /**
+     * Puts a drained batch that failed to commit back into the buffer so the
+     * next flush retries it. Toggles staged since the drain were resolved
+     * against the in-flight entries and already supersede them.
+     */
+    public void requeueFlush() {
+        lock.writeLock().lock();
+        try {
+            inflight.forEach(pending::putIfAbsent);
+            inflight = Map.of();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private ReactionType baseline(Key key, Supplier<ReactionType> persisted) {
+        PendingReaction unflushed = inflight.get(key);
+        return unflushed != null ? unflushed.type() : persisted.get();
+    }
+}
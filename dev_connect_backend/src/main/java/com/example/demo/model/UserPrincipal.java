@@ -10,6 +10,14 @@ import java.util.UUID;
 
 public record UserPrincipal(User user) implements UserDetails {
 
+    // principal without credentials, built from verified token claims or cached identity
+    public static UserPrincipal of(UUID id, String username) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        return new UserPrincipal(user);
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of();
@@ -28,4 +36,8 @@ public record UserPrincipal(User user) implements UserDetails {
     public UUID getId() {
         return user.getId();
     }
+
+    public long getTokenVersion() {
+        return user.getTokenVersion();
+    }
 }
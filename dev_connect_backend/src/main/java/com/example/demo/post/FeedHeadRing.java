@@ -0,0 +1,309 @@
+package com.example.demo.post;
+
+import com.example.demo.dto.comment.PostCommentCount;
+import com.example.demo.dto.post.PostResponse;
+import com.example.demo.dto.reaction.TargetReactionCount;
+import com.example.demo.repository.CommentRepository;
+import com.example.demo.repository.ReactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The newest public posts, already mapped to responses, in a fixed-size ring
+ * ordered like the public feed (createdAt desc, id desc). The first feed pages
+ * are cut from it without a query; anything past the ring goes to the database.
+ *
+ * The ring always holds an exact prefix of the feed: a removed post just
+ * shortens it, and a post older than the last entry is only inserted when the
+ * ring already holds the whole feed. Entries never carry a viewer reaction.
+ */
+@Component
+public class FeedHeadRing {
+
+    // same order as the feed query; uuids compare unsigned like Postgres does
+    static final Comparator<PostResponse> FEED_ORDER = Comparator
+            .comparing(PostResponse::createdAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(PostResponse::id, (a, b) -> {
+                int hi = Long.compareUnsigned(b.getMostSignificantBits(), a.getMostSignificantBits());
+                return hi != 0 ? hi : Long.compareUnsigned(b.getLeastSignificantBits(), a.getLeastSignificantBits());
+            });
+
+    private final CommentRepository commentRepo;
+    private final ReactionRepository reactionRepo;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final PostResponse[] slots;
+    private final Counter hits;
+    private final Counter misses;
+
+    private int head;
+    private int size;
+    private long publicCount;
+    private boolean loaded;
+    // bumped on every change so a reload that raced a write is discarded
+    private long version;
+
+    public FeedHeadRing(CommentRepository commentRepo,
+                        ReactionRepository reactionRepo,
+                        @Value("${posts.feed-head.capacity:100}") int capacity,
+                        MeterRegistry meterRegistry) {
+        this.commentRepo = commentRepo;
+        this.reactionRepo = reactionRepo;
+        this.slots = new PostResponse[capacity];
+        this.hits = meterRegistry.counter("feed.head.hits");
+        this.misses = meterRegistry.counter("feed.head.misses");
+        Gauge.builder("feed.head.size", this, FeedHeadRing::size).register(meterRegistry);
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * Returns the requested feed slice, or null when the ring is not loaded or
+     * does not reach that far.
+     */
+    public List<PostResponse> slice(int offset, int length) {
+        lock.readLock().lock();
+        try {
+            boolean covered = offset + length <= size || size == publicCount;
+            if (!loaded || !covered) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            List<PostResponse> page = new ArrayList<>(Math.max(0, Math.min(length, size - offset)));
+            for (int i = offset; i < Math.min(size, offset + length); i++) {
+                page.add(at(i));
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long publicCount() {
+        lock.readLock().lock();
+        try {
+            return publicCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isLoaded() {
+        lock.readLock().lock();
+        try {
+            return loaded;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // take before querying, hand back to reset so a concurrent write wins
+    public long loadVersion() {
+        lock.readLock().lock();
+        try {
+            return version;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void reset(List<PostResponse> newest, long totalPublic, long expectedVersion) {
+        lock.writeLock().lock();
+        try {
+            if (version != expectedVersion) {
+                return;
+            }
+            clearSlots();
+            for (PostResponse post : newest.subList(0, Math.min(newest.size(), slots.length))) {
+                slots[(head + size++) % slots.length] = withoutViewer(post);
+            }
+            publicCount = totalPublic;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** A post was created or updated and is public now. */
+    public void upsert(PostResponse post, boolean wasPublic) {
+        PostResponse entry = withoutViewer(post);
+        lock.writeLock().lock();
+        try {
+            version++;
+            if (!loaded) {
+                return;
+            }
+            if (!wasPublic) {
+                publicCount++;
+            }
+            int existing = indexOf(entry.id());
+            if (existing >= 0) {
+                removeAt(existing);
+            }
+            // past the tail is only known when the ring holds the whole feed
+            int position = insertionPoint(entry);
+            if (position < size || size + 1 == publicCount) {
+                insertAt(position, entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** A post was deleted or made private. */
+    public void remove(UUID postId, boolean wasPublic) {
+        lock.writeLock().lock();
+        try {
+            version++;
+            if (!loaded) {
+                return;
+            }
+            if (wasPublic) {
+                publicCount = Math.max(0, publicCount - 1);
+            }
+            int existing = indexOf(postId);
+            if (existing >= 0) {
+                removeAt(existing);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // another node changed posts; reloaded on the next read
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            version++;
+            loaded = false;
+            clearSlots();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Comment and reaction counts move far more often than posts do, so they
+     * are refreshed in two grouped queries for the whole ring.
+     */
+    @Scheduled(fixedDelayString = "${posts.feed-head.count-refresh-ms:5000}")
+    public void refreshCounts() {
+        List<UUID> ids = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < size; i++) {
+                ids.add(at(i).id());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        Map<UUID, Long> comments = new HashMap<>();
+        for (PostCommentCount row : commentRepo.countByPostIds(ids)) {
+            comments.put(row.postId(), row.count());
+        }
+        Map<UUID, Long> reactions = new HashMap<>();
+        for (TargetReactionCount row : reactionRepo.countByTypeForPosts(ids)) {
+            reactions.merge(row.targetId(), row.count(), Long::sum);
+        }
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < size; i++) {
+                PostResponse p = at(i);
+                long commentCount = comments.getOrDefault(p.id(), 0L);
+                long reactionCount = reactions.getOrDefault(p.id(), 0L);
+                if (p.commentCount() != commentCount || p.reactionCount() != reactionCount) {
+                    slots[(head + i) % slots.length] = new PostResponse(p.id(), p.title(), p.content(), p.tags(),
+                            p.visibility(), p.username(), p.createdAt(), p.updatedAt(),
+                            commentCount, reactionCount, null);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private PostResponse at(int i) {
+        return slots[(head + i) % slots.length];
+    }
+
+    private int indexOf(UUID postId) {
+        for (int i = 0; i < size; i++) {
+            if (at(i).id().equals(postId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int insertionPoint(PostResponse entry) {
+        int i = 0;
+        while (i < size && FEED_ORDER.compare(at(i), entry) < 0) {
+            i++;
+        }
+        return i;
+    }
+
+    // a full ring drops its oldest entry
+    private void insertAt(int position, PostResponse entry) {
+        if (size == slots.length) {
+            if (position == size) {
+                return;
+            }
+            size--;
+        }
+        if (position == 0) {
+            head = (head - 1 + slots.length) % slots.length;
+        } else {
+            for (int i = size; i > position; i--) {
+                slots[(head + i) % slots.length] = at(i - 1);
+            }
+        }
+        slots[(head + position) % slots.length] = entry;
+        size++;
+    }
+
+    private void removeAt(int position) {
+        for (int i = position; i < size - 1; i++) {
+            slots[(head + i) % slots.length] = at(i + 1);
+        }
+        slots[(head + size - 1) % slots.length] = null;
+        size--;
+    }
+
+    private void clearSlots() {
+        Arrays.fill(slots, null);
+        head = 0;
+        size = 0;
+    }
+
+    private static PostResponse withoutViewer(PostResponse p) {
+        if (p.myReaction() == null) {
+            return p;
+        }
+        return new PostResponse(p.id(), p.title(), p.content(), p.tags(), p.visibility(), p.username(),
+                p.createdAt(), p.updatedAt(), p.commentCount(), p.reactionCount(), null);
+    }
+}
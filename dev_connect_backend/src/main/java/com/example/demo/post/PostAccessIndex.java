@@ -0,0 +1,193 @@
+package com.example.demo.post;
+
+import com.example.demo.datasource.PrimaryReads;
+import com.example.demo.dto.post.PostAccessRow;
+import com.example.demo.enums.PostVisibility;
+import com.example.demo.repository.PostRepository;
+import com.example.demo.utils.UuidIntMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.stream.Stream;
+
+/**
+ * Post id -> (visibility bit, owner ordinal) kept in primitive open-addressing
+ * tables so access checks do not load the Post entity. Each entry is one int:
+ * ownerOrdinal << 1 | publicBit. Owners are interned to ordinals once.
+ *
+ * Readers use an optimistic StampedLock read and only fall back to a read lock
+ * when a writer raced them. A miss means "not known here", never "does not
+ * exist": callers load the post and put it back. The index is only trusted
+ * while the cluster invalidation channel is connected, so changes made on
+ * other nodes reach it.
+ */
+@Component
+public class PostAccessIndex {
+
+    public static final int UNKNOWN = UuidIntMap.MISSING;
+
+    private final PostRepository postRepo;
+    private final PrimaryReads primaryReads;
+    private final StampedLock lock = new StampedLock();
+    private final Counter hits;
+    private final Counter misses;
+
+    private UuidIntMap posts = new UuidIntMap(1024);
+    private final UuidIntMap ownerOrdinals = new UuidIntMap(1024);
+    private long[] ownerHi = new long[1024];
+    private long[] ownerLo = new long[1024];
+    private int ownerCount;
+
+    // only serve answers while cross-node invalidations are flowing
+    private volatile boolean enabled;
+
+    // posts written while a rebuild is streaming, dropped from the rebuilt table afterwards
+    private final Set<UUID> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding;
+
+    public PostAccessIndex(PostRepository postRepo, PrimaryReads primaryReads, MeterRegistry meterRegistry) {
+        this.postRepo = postRepo;
+        this.primaryReads = primaryReads;
+        this.hits = meterRegistry.counter("post.access.index.hits");
+        this.misses = meterRegistry.counter("post.access.index.misses");
+        Gauge.builder("post.access.index.size", this, PostAccessIndex::size).register(meterRegistry);
+    }
+
+    public static boolean isPublic(int access) {
+        return (access & 1) == 1;
+    }
+
+    public int find(UUID postId) {
+        if (!enabled) {
+            return UNKNOWN;
+        }
+        long hi = postId.getMostSignificantBits();
+        long lo = postId.getLeastSignificantBits();
+        long stamp = lock.tryOptimisticRead();
+        int access = posts.get(hi, lo);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                access = posts.get(hi, lo);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        if (access == UNKNOWN) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return access;
+    }
+
+    public boolean isOwnedBy(int access, UUID userId) {
+        int ordinal = access >>> 1;
+        long stamp = lock.tryOptimisticRead();
+        boolean owned = ordinal < ownerHi.length && ordinal < ownerLo.length
+                && ownerHi[ordinal] == userId.getMostSignificantBits()
+                && ownerLo[ordinal] == userId.getLeastSignificantBits();
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                owned = ownerHi[ordinal] == userId.getMostSignificantBits()
+                        && ownerLo[ordinal] == userId.getLeastSignificantBits();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return owned;
+    }
+
+    public void put(UUID postId, PostVisibility visibility, UUID ownerId) {
+        long stamp = lock.writeLock();
+        try {
+            int access = encode(visibility, ownerId);
+            if (rebuilding) {
+                changedDuringRebuild.add(postId);
+            }
+            posts.put(postId, access);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void remove(UUID postId) {
+        long stamp = lock.writeLock();
+        try {
+            if (rebuilding) {
+                changedDuringRebuild.add(postId);
+            }
+            posts.remove(postId);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // notifications may have been missed: stop answering until rebuilt
+    public void disable() {
+        enabled = false;
+    }
+
+    /**
+     * Streams every post into a fresh table and swaps it in. Writes that land
+     * while streaming are dropped from the new table and reloaded on demand.
+     * Reads the primary: this is the recovery path, a replica may be behind.
+     */
+    public void rebuild() {
+        rebuilding = true;
+        UuidIntMap rebuilt = primaryReads.execute(() -> {
+            UuidIntMap table = new UuidIntMap((int) Math.min(Integer.MAX_VALUE / 4, postRepo.count() + 1024));
+            try (Stream<PostAccessRow> rows = postRepo.streamAccessRows()) {
+                rows.forEach(row -> {
+                    long stamp = lock.writeLock();
+                    try {
+                        table.put(row.postId(), encode(row.visibility(), row.ownerId()));
+                    } finally {
+                        lock.unlockWrite(stamp);
+                    }
+                });
+            }
+            return table;
+        });
+        long stamp = lock.writeLock();
+        try {
+            for (UUID changed : changedDuringRebuild) {
+                rebuilt.remove(changed);
+            }
+            changedDuringRebuild.clear();
+            posts = rebuilt;
+            rebuilding = false;
+            enabled = true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        return posts.size();
+    }
+
+    // caller holds the write lock
+    private int encode(PostVisibility visibility, UUID ownerId) {
+        int ordinal = ownerOrdinals.get(ownerId);
+        if (ordinal == UuidIntMap.MISSING) {
+            ordinal = ownerCount++;
+            if (ordinal == ownerHi.length) {
+                ownerHi = Arrays.copyOf(ownerHi, ordinal * 2);
+                ownerLo = Arrays.copyOf(ownerLo, ordinal * 2);
+            }
+            ownerHi[ordinal] = ownerId.getMostSignificantBits();
+            ownerLo[ordinal] = ownerId.getLeastSignificantBits();
+            ownerOrdinals.put(ownerId, ordinal);
+        }
+        return ordinal << 1 | (visibility == PostVisibility.PUBLIC ? 1 : 0);
+    }
+}
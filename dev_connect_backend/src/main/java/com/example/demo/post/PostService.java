@@ -1,36 +1,78 @@
 package com.example.demo.post;
 
+import com.example.demo.datasource.PrimaryReads;
+import com.example.demo.dto.post.PostAccessRow;
 import com.example.demo.dto.post.PostRequest;
 import com.example.demo.dto.post.PostResponse;
+import com.example.demo.dto.sync.DeltaResponse;
 import com.example.demo.entity.Post;
+import com.example.demo.entity.PostFeedView;
 import com.example.demo.entity.User;
+import com.example.demo.enums.ChangeKind;
+import com.example.demo.enums.ChangeTarget;
+import com.example.demo.enums.DomainEventType;
 import com.example.demo.enums.PostVisibility;
+import com.example.demo.enums.ReactionType;
+import com.example.demo.events.DomainEventPublisher;
 import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.feedview.PostFeedProjector;
+import com.example.demo.hotkey.HotKeyDetector;
+import com.example.demo.hotkey.HotPostCache;
 import com.example.demo.repository.CommentRepository;
+import com.example.demo.repository.PostFeedViewRepository;
 import com.example.demo.repository.PostRepository;
 import com.example.demo.repository.ReactionRepository;
+import com.example.demo.responsecache.DataVersions;
+import com.example.demo.reaction.ViewerReactionResolver;
+import com.example.demo.realtime.FeedEventGateway;
 import com.example.demo.security.AuthUtil;
+import com.example.demo.sync.ChangeLog;
 import com.example.demo.UserService;
 import com.example.demo.utils.PostMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 public class
 PostService {
 
+    // newest first; the id breaks ties so pages never overlap
+    private static final Sort FEED_ORDER = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
     private final UserService userService;
     private final PostRepository postRepo;
     private final PostMapper postMapper;
     private final CommentRepository commentRepo;
     private final ReactionRepository reactionRepo;
+    private final ViewerReactionResolver viewerReactions;
+    private final HotKeyDetector hotKeys;
+    private final HotPostCache hotPosts;
+    private final PostAccessIndex accessIndex;
+    private final FeedHeadRing feedHead;
+    private final DataVersions dataVersions;
+    private final ChangeLog changeLog;
+    private final FeedEventGateway feedEvents;
+    private final DomainEventPublisher domainEvents;
+    private final TransactionTemplate transactions;
+    private final PostFeedViewRepository feedViewRepo;
+    private final PostFeedProjector feedView;
+    private final PrimaryReads primaryReads;
 
     @Autowired
     public PostService(
@@ -38,19 +80,65 @@ PostService {
             PostRepository postRepo,
             PostMapper postMapper,
             CommentRepository commentRepo,
-            ReactionRepository reactionRepo
+            ReactionRepository reactionRepo,
+            ViewerReactionResolver viewerReactions,
+            HotKeyDetector hotKeys,
+            HotPostCache hotPosts,
+            PostAccessIndex accessIndex,
+            FeedHeadRing feedHead,
+            DataVersions dataVersions,
+            ChangeLog changeLog,
+            FeedEventGateway feedEvents,
+            DomainEventPublisher domainEvents,
+            TransactionTemplate transactions,
+            PostFeedViewRepository feedViewRepo,
+            PostFeedProjector feedView,
+            PrimaryReads primaryReads
     ) {
         this.userService = userService;
         this.postRepo = postRepo;
         this.postMapper = postMapper;
         this.commentRepo = commentRepo;
         this.reactionRepo = reactionRepo;
+        this.viewerReactions = viewerReactions;
+        this.hotKeys = hotKeys;
+        this.hotPosts = hotPosts;
+        this.accessIndex = accessIndex;
+        this.feedHead = feedHead;
+        this.dataVersions = dataVersions;
+        this.changeLog = changeLog;
+        this.feedEvents = feedEvents;
+        this.domainEvents = domainEvents;
+        this.transactions = transactions;
+        this.feedViewRepo = feedViewRepo;
+        this.feedView = feedView;
+        this.primaryReads = primaryReads;
     }
 
-    private PostResponse toResponse(Post post) {
+    private PostResponse toResponse(Post post, ReactionType myReaction) {
         long commentCount = commentRepo.countByPostId(post.getId());
         long reactionCount = reactionRepo.countByPostId(post.getId());
-        return postMapper.toResponse(post, commentCount, reactionCount);
+        return postMapper.toResponse(post, commentCount, reactionCount, myReaction);
+    }
+
+    private PostResponse toResponse(Post post) {
+        return toResponse(post, viewerReactions.forPosts(List.of(post.getId())).get(post.getId()));
+    }
+
+    // one viewer-reaction lookup for the whole page instead of one per post
+    private List<PostResponse> toResponses(List<Post> posts) {
+        Map<UUID, ReactionType> myReactions = viewerReactions.forPosts(posts.stream().map(Post::getId).toList());
+        return posts.stream()
+                .map(post -> toResponse(post, myReactions.get(post.getId())))
+                .toList();
+    }
+
+    // view rows already carry author, tags and counts
+    private List<PostResponse> viewResponses(List<PostFeedView> rows) {
+        Map<UUID, ReactionType> myReactions = viewerReactions.forPosts(rows.stream().map(PostFeedView::getId).toList());
+        return rows.stream()
+                .map(row -> postMapper.toResponse(row, myReactions.get(row.getId())))
+                .toList();
     }
 
     public PostResponse createPost(PostRequest postRequest, UUID userId) {
@@ -61,8 +149,21 @@ PostService {
         post.setContent(postRequest.content());
         post.setTags(postRequest.techStack());
         post.setVisibility(postRequest.visibility());
-        Post saved = postRepo.save(post);
-        return toResponse(saved);
+        // the row, its change log entry and its event commit together
+        Post saved = transactions.execute(status -> {
+            Post created = postRepo.save(post);
+            changeLog.record(ChangeTarget.POST, created.getId(), created.getId(), ChangeKind.UPSERT);
+            domainEvents.publish(DomainEventType.POST_CREATED, created.getId(), created.getId());
+            return created;
+        });
+        accessIndex.put(saved.getId(), saved.getVisibility(), userId);
+        dataVersions.bump(DataVersions.Domain.POSTS);
+        PostResponse response = toResponse(saved, null);
+        if (saved.getVisibility() == PostVisibility.PUBLIC) {
+            feedHead.upsert(response, false);
+            feedEvents.postPublished(response);
+        }
+        return response;
     }
 
 //    public List<PostResponse> getPublicPosts() {
@@ -72,46 +173,156 @@ PostService {
 //                .toList();
 //    }
 
+    // the ring path issues no statement, so the lazy proxy never checks out a connection for it
+    @Transactional(readOnly = true)
     public Page<PostResponse> getPublicPosts(Integer page, Integer size) {
 
         Pageable pageable = PageRequest.of(
                 page == null ? 0 : page,
-                size == null ? 10 : size
+                size == null ? 10 : size,
+                FEED_ORDER
         );
 
+        // the first pages are cut from the in-memory ring
+        if (pageable.getOffset() + pageable.getPageSize() <= feedHead.capacity()) {
+            if (!feedHead.isLoaded()) {
+                loadFeedHead();
+            }
+            List<PostResponse> head = feedHead.slice((int) pageable.getOffset(), pageable.getPageSize());
+            if (head != null) {
+                return new PageImpl<>(withViewerReactions(head), pageable, feedHead.publicCount());
+            }
+        }
+
+        if (feedView.isReady()) {
+            Page<PostFeedView> rows = feedViewRepo.findByVisibility(PostVisibility.PUBLIC, pageable);
+            return new PageImpl<>(viewResponses(rows.getContent()), pageable, rows.getTotalElements());
+        }
         Page<Post> posts = postRepo.findByVisibility(PostVisibility.PUBLIC, pageable);
-        return posts.map(this::toResponse);
+        Map<UUID, ReactionType> myReactions = viewerReactions.forPosts(posts.map(Post::getId).getContent());
+        return posts.map(post -> toResponse(post, myReactions.get(post.getId())));
     }
 
+    /**
+     * Public feed changes after the cursor. Posts that were deleted or made
+     * private come back as tombstones. Read from the primary: a lagging
+     * replica would let the cursor move past rows it cannot see yet.
+     */
+    public DeltaResponse<PostResponse> getPublicPostChanges(String since, Integer size) {
+        return primaryReads.execute(() -> readPublicPostChanges(since, size));
+    }
+
+    private DeltaResponse<PostResponse> readPublicPostChanges(String since, Integer size) {
+        ChangeLog.Batch batch = changeLog.postChanges(since, size);
+        List<UUID> upserted = batch.changes().entrySet().stream()
+                .filter(e -> e.getValue() == ChangeKind.UPSERT)
+                .map(Map.Entry::getKey)
+                .toList();
+        List<Post> visible = upserted.isEmpty() ? List.of() : postRepo.findAllById(upserted).stream()
+                .filter(post -> post.getVisibility() == PostVisibility.PUBLIC)
+                .toList();
+        Set<UUID> visibleIds = visible.stream().map(Post::getId).collect(Collectors.toSet());
+        List<UUID> deleted = batch.changes().keySet().stream()
+                .filter(id -> !visibleIds.contains(id))
+                .toList();
+        return new DeltaResponse<>(toResponses(visible), deleted, batch.since(), batch.hasMore(), batch.resync());
+    }
+
+    // the ring is served to every user, so it is loaded from the primary like the access index
+    private void loadFeedHead() {
+        long version = feedHead.loadVersion();
+        primaryReads.execute(() -> {
+            List<Post> newest = postRepo.findByVisibility(PostVisibility.PUBLIC,
+                    PageRequest.of(0, feedHead.capacity(), FEED_ORDER)).getContent();
+            long total = postRepo.countByVisibility(PostVisibility.PUBLIC);
+            feedHead.reset(newest.stream().map(post -> toResponse(post, null)).toList(), total, version);
+            return null;
+        });
+    }
 
+    private List<PostResponse> withViewerReactions(List<PostResponse> posts) {
+        Map<UUID, ReactionType> myReactions = viewerReactions.forPosts(posts.stream().map(PostResponse::id).toList());
+        if (myReactions.isEmpty()) {
+            return posts;
+        }
+        return posts.stream()
+                .map(p -> new PostResponse(p.id(), p.title(), p.content(), p.tags(), p.visibility(), p.username(),
+                        p.createdAt(), p.updatedAt(), p.commentCount(), p.reactionCount(), myReactions.get(p.id())))
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
     public List<PostResponse> getPostsByUsername(String username) {
+        if (feedView.isReady()) {
+            List<PostFeedView> rows = AuthUtil.isAuthenticated(username)
+                    ? feedViewRepo.findAllByAuthorUsername(username)
+                    : feedViewRepo.findAllByAuthorUsernameAndVisibility(username, PostVisibility.PUBLIC);
+            return viewResponses(rows);
+        }
         PostFetchStrategy strategy =
                 AuthUtil.isAuthenticated(username)
                         ? new LoggedInPostFetchStrategy(postRepo)
                         : new PublicPostFetchStrategy(postRepo);
 
-        return strategy.fetchPosts(username)
-                .stream()
-                .map(this::toResponse)
-                .toList();
+        return toResponses(strategy.fetchPosts(username));
     }
 
     public PostResponse updatePost(PostRequest req, String username, UUID postId) {
         Post post = getOwnedPost(username, postId);
+        boolean wasPublic = post.getVisibility() == PostVisibility.PUBLIC;
         if(req.title() != null) post.setTitle(req.title());
         if(req.content() != null) post.setContent(req.content());
         if(req.techStack() != null) post.setTags(req.techStack());
         if(req.visibility() != null) post.setVisibility(req.visibility());
-        Post updatedPost = postRepo.save(post);
-        return toResponse(updatedPost);
+        // mapped before commit, while the merged post's tags can still be loaded
+        PostResponse response = transactions.execute(status -> {
+            Post updated = postRepo.save(post);
+            changeLog.record(ChangeTarget.POST, postId, postId, ChangeKind.UPSERT);
+            domainEvents.publish(DomainEventType.POST_UPDATED, postId, postId);
+            return toResponse(updated);
+        });
+        hotPosts.evict(postId);
+        accessIndex.put(postId, post.getVisibility(), post.getUser().getId());
+        dataVersions.bump(DataVersions.Domain.POSTS);
+        dataVersions.bumpPost(postId);
+        if (post.getVisibility() == PostVisibility.PUBLIC) {
+            feedHead.upsert(response, wasPublic);
+            feedEvents.postPublished(response);
+        } else {
+            feedHead.remove(postId, wasPublic);
+            if (wasPublic) {
+                feedEvents.postRemoved(postId);
+            }
+        }
+        return response;
     }
 
     public void deletePost(UUID postId, String username) {
         Post post = getOwnedPost(username, postId);
-        postRepo.delete(post);
+        boolean wasPublic = post.getVisibility() == PostVisibility.PUBLIC;
+        transactions.executeWithoutResult(status -> {
+            postRepo.delete(post);
+            changeLog.record(ChangeTarget.POST, postId, postId, ChangeKind.DELETE);
+            domainEvents.publish(DomainEventType.POST_DELETED, postId, postId);
+        });
+        hotPosts.evict(postId);
+        accessIndex.remove(postId);
+        dataVersions.bump(DataVersions.Domain.POSTS);
+        dataVersions.bumpPost(postId);
+        feedHead.remove(postId, wasPublic);
+        if (wasPublic) {
+            feedEvents.postRemoved(postId);
+        }
     }
 
     private Post getOwnedPost(String username, UUID postId) {
+        // someone else's post is rejected from the index before anything is loaded
+        int access = accessIndex.find(postId);
+        Optional<UUID> viewerId = AuthUtil.currentUserId();
+        if (access != PostAccessIndex.UNKNOWN && viewerId.isPresent()
+                && !accessIndex.isOwnedBy(access, viewerId.get())) {
+            throw new AccessDeniedException("Access Denied");
+        }
         return postRepo.findByIdAndUser_Username(postId, username)
                 .orElseThrow(() -> new AccessDeniedException("Access Denied"));
     }
@@ -121,11 +332,45 @@ PostService {
                 .orElseThrow(() -> new ResourceNotFoundException("Post not found"));
     }
 
+    // bulk form of checkPrivatePost: keeps only ids that exist and are public
+    public List<UUID> filterPublicPostIds(Collection<UUID> postIds) {
+        if (postIds.isEmpty()) return List.of();
+        return postRepo.findIdsByIdInAndVisibility(postIds, PostVisibility.PUBLIC);
+    }
+
+    public List<UUID> filterExistingPostIds(Collection<UUID> postIds) {
+        if (postIds.isEmpty()) return List.of();
+        return postRepo.findExistingIds(postIds);
+    }
+
     public void checkPrivatePost(UUID postId) {
-        Post post = getById(postId);
-        if (post.getVisibility() == PostVisibility.PRIVATE) {
+        if (!isPublic(postId)) {
             throw new AccessDeniedException("Access Denied");
         }
     }
 
+    // uninitialized proxy for linking comments and reactions, no select is issued
+    public Post getReference(UUID postId) {
+        return postRepo.getReferenceById(postId);
+    }
+
+    // answered from the in-memory index; the post is only loaded when this node has not seen it
+    private boolean isPublic(UUID postId) {
+        boolean hot = hotKeys.record(postId);
+        int access = accessIndex.find(postId);
+        if (access != PostAccessIndex.UNKNOWN) {
+            return PostAccessIndex.isPublic(access);
+        }
+        // while the index is suspended, viral posts come from the near-cache instead of hammering one row
+        PostAccessRow row = hot ? hotPosts.get(postId, () -> loadAccessRow(postId)) : loadAccessRow(postId);
+        accessIndex.put(postId, row.visibility(), row.ownerId());
+        return row.visibility() == PostVisibility.PUBLIC;
+    }
+
+    // the entry answers every request on this node, so it must not come from a lagging replica
+    private PostAccessRow loadAccessRow(UUID postId) {
+        return primaryReads.execute(() -> postRepo.findAccessRow(postId))
+                .orElseThrow(() -> new ResourceNotFoundException("Post not found"));
+    }
+
 }
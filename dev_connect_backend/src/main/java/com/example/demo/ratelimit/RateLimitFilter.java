@@ -0,0 +1,184 @@
+package com.example.demo.ratelimit;
+
+import com.example.demo.security.JwtFilter;
+import com.example.demo.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket throttling per route group, keyed by user id when the request
+ * carries a valid token and by client IP otherwise. Runs before JwtFilter;
+ * the token check reuses JwtUtil's verified-token cache so JwtFilter does not
+ * verify the same token twice.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private record Limit(long capacity, long refillPerMinute) {}
+
+    // buckets looked at when a new identity arrives at max-buckets
+    private static final int EVICTION_SAMPLE = 8;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Map<RouteGroup, Limit> limits = new EnumMap<>(RouteGroup.class);
+    private final Map<RouteGroup, Counter> rejections = new EnumMap<>(RouteGroup.class);
+    private final JwtUtil jwtUtil;
+    private final boolean enabled;
+    private final boolean trustForwardedFor;
+    private final int maxBuckets;
+    private final LongSupplier clock;
+
+    public RateLimitFilter(JwtUtil jwtUtil,
+                           Environment env,
+                           @Value("${security.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${security.rate-limit.trust-forwarded-for:false}") boolean trustForwardedFor,
+                           @Value("${security.rate-limit.max-buckets:100000}") int maxBuckets,
+                           MeterRegistry meterRegistry) {
+        this(jwtUtil, env, enabled, trustForwardedFor, maxBuckets, meterRegistry, System::nanoTime);
+    }
+
+    RateLimitFilter(JwtUtil jwtUtil, Environment env, boolean enabled, boolean trustForwardedFor,
+                    int maxBuckets, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.jwtUtil = jwtUtil;
+        this.enabled = enabled;
+        this.trustForwardedFor = trustForwardedFor;
+        this.maxBuckets = maxBuckets;
+        this.clock = clock;
+        for (RouteGroup group : RouteGroup.values()) {
+            String prefix = "security.rate-limit." + group.getKey();
+            limits.put(group, new Limit(
+                    env.getProperty(prefix + ".capacity", Long.class, group.getDefaultCapacity()),
+                    env.getProperty(prefix + ".refill-per-minute", Long.class, group.getDefaultRefillPerMinute())));
+            rejections.put(group, meterRegistry.counter("ratelimit.rejected", "group", group.getKey()));
+        }
+        Gauge.builder("ratelimit.buckets", buckets, Map::size).register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // CORS preflights carry no credentials and are answered by the CORS filter
+        return !enabled || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        RouteGroup group = RouteGroup.of(request);
+        Limit limit = limits.get(group);
+        long now = clock.getAsLong();
+        String key = group.getKey() + ":" + resolveIdentity(request);
+
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxBuckets) {
+                evictOne(now);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(limit.capacity(), limit.refillPerMinute(), now));
+        }
+        TokenBucket.Probe probe = bucket.tryConsume(now);
+
+        response.setHeader("X-RateLimit-Limit", String.valueOf(limit.capacity()));
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(probe.remaining()));
+        if (!probe.consumed()) {
+            rejections.get(group).increment();
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(probe.nanosToWait() + 999_999_999));
+            response.setHeader("Retry-After", String.valueOf(retryAfter));
+            response.setStatus(429);
+            response.setContentType("application/json");
+            response.getWriter().write("""
+            {
+              "error": "TOO_MANY_REQUESTS",
+              "message": "Rate limit exceeded. Please retry later.",
+              "status": 429
+            }
+            """);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    // full buckets carry no state worth keeping, a new request just recreates them
+    @Scheduled(fixedDelayString = "${security.rate-limit.sweep-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = clock.getAsLong();
+        buckets.values().removeIf(b -> b.isFull(now));
+    }
+
+    // drops the fullest of a few buckets rather than scanning them all; the
+    // fullest has been idle longest relative to its rate and forgives the least
+    private void evictOne(long now) {
+        Map.Entry<String, TokenBucket> victim = null;
+        double victimFill = -1;
+        Iterator<Map.Entry<String, TokenBucket>> it = buckets.entrySet().iterator();
+        for (int i = 0; i < EVICTION_SAMPLE && it.hasNext(); i++) {
+            Map.Entry<String, TokenBucket> entry = it.next();
+            TokenBucket bucket = entry.getValue();
+            if (bucket.isFull(now)) {
+                victim = entry;
+                break;
+            }
+            double fill = bucket.available(now) / bucket.getCapacity();
+            if (fill > victimFill) {
+                victim = entry;
+                victimFill = fill;
+            }
+        }
+        if (victim != null) {
+            buckets.remove(victim.getKey(), victim.getValue());
+        }
+    }
+
+    int bucketCount() {
+        return buckets.size();
+    }
+
+    private String resolveIdentity(HttpServletRequest request) {
+        String token = JwtFilter.resolveToken(request);
+        if (token != null) {
+            try {
+                Claims claims = jwtUtil.parseVerified(token);
+                UUID userId = JwtUtil.extractUserId(claims);
+                return "u:" + (userId != null ? userId : claims.getSubject());
+            } catch (JwtException | IllegalArgumentException ex) {
+                // unusable token, throttle by address like any anonymous caller
+            }
+        }
+        return "ip:" + clientIp(request);
+    }
+
+    private String clientIp(HttpServletRequest request) {
+        if (trustForwardedFor) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isBlank()) {
+                int comma = forwarded.indexOf(',');
+                return (comma < 0 ? forwarded : forwarded.substring(0, comma)).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Route groups with separate limits. Defaults can be overridden with
+ * security.rate-limit.{group}.capacity and .refill-per-minute.
+ */
+public enum RouteGroup {
+    // login and register run a password hash, keep bursts small
+    AUTH("auth", 10, 20),
+    SEARCH("search", 30, 120),
+    WRITES("writes", 30, 120),
+    READS("reads", 120, 600);
+
+    private final String key;
+    private final long defaultCapacity;
+    private final long defaultRefillPerMinute;
+
+    RouteGroup(String key, long defaultCapacity, long defaultRefillPerMinute) {
+        this.key = key;
+        this.defaultCapacity = defaultCapacity;
+        this.defaultRefillPerMinute = defaultRefillPerMinute;
+    }
+
+    public static RouteGroup of(HttpServletRequest request) {
+        String path = request.getServletPath();
+        if (path.startsWith("/auth/") || path.startsWith("/api/users/register")) {
+            return AUTH;
+        }
+        if (path.startsWith("/api/search")) {
+            return SEARCH;
+        }
+        String method = request.getMethod();
+        if ("GET".equals(method) || "HEAD".equals(method)) {
+            return READS;
+        }
+        return WRITES;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getDefaultCapacity() {
+        return defaultCapacity;
+    }
+
+    public long getDefaultRefillPerMinute() {
+        return defaultRefillPerMinute;
+    }
+}
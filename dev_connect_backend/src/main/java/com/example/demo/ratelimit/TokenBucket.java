@@ -0,0 +1,56 @@
+package com.example.demo.ratelimit;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free token bucket. The refill state is an immutable snapshot swapped
+ * with compare-and-set, so concurrent requests for the same key never block
+ * each other; a lost race just retries with the fresh state.
+ */
+public class TokenBucket {
+
+    public record Probe(boolean consumed, long remaining, long nanosToWait) {}
+
+    private record State(double tokens, long refilledAt) {}
+
+    private final long capacity;
+    private final double nanosPerToken;
+    private final AtomicReference<State> state;
+
+    public TokenBucket(long capacity, long refillPerMinute, long now) {
+        this.capacity = capacity;
+        this.nanosPerToken = 60_000_000_000.0 / refillPerMinute;
+        this.state = new AtomicReference<>(new State(capacity, now));
+    }
+
+    public Probe tryConsume(long now) {
+        while (true) {
+            State current = state.get();
+            double tokens = refill(current, now);
+            boolean consumed = tokens >= 1;
+            State next = new State(consumed ? tokens - 1 : tokens, Math.max(now, current.refilledAt()));
+            if (state.compareAndSet(current, next)) {
+                long wait = consumed ? 0 : (long) Math.ceil((1 - tokens) * nanosPerToken);
+                return new Probe(consumed, (long) next.tokens(), wait);
+            }
+        }
+    }
+
+    // a full bucket behaves exactly like a fresh one, so it can be dropped
+    public boolean isFull(long now) {
+        return available(now) >= capacity;
+    }
+
+    public double available(long now) {
+        return refill(state.get(), now);
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    private double refill(State s, long now) {
+        long elapsed = Math.max(0, now - s.refilledAt());
+        return Math.min(capacity, s.tokens() + elapsed / nanosPerToken);
+    }
+}
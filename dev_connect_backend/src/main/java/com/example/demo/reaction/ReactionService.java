@@ -1,34 +1,72 @@
 package com.example.demo.reaction;
 
+import com.example.demo.dto.reaction.ReactionBatchResponse;
 import com.example.demo.dto.reaction.ReactionResponse;
 import com.example.demo.dto.reaction.ReactionSummary;
+import com.example.demo.dto.reaction.ReactionTypeCount;
+import com.example.demo.dto.reaction.ReactorPage;
+import com.example.demo.dto.reaction.ReactorRow;
+import com.example.demo.dto.reaction.TargetReactionCount;
 import com.example.demo.entity.Comment;
 import com.example.demo.entity.Post;
 import com.example.demo.entity.Reaction;
 import com.example.demo.entity.User;
+import com.example.demo.enums.DomainEventType;
+import com.example.demo.enums.PostVisibility;
+import com.example.demo.enums.ReactionTargetType;
 import com.example.demo.enums.ReactionType;
+import com.example.demo.events.DomainEventPublisher;
+import com.example.demo.exception.BadRequestException;
 import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.hotkey.HotKeyDetector;
+import com.example.demo.hotkey.HotReactionBuffer;
 import com.example.demo.repository.CommentRepository;
 import com.example.demo.repository.PostRepository;
 import com.example.demo.repository.ReactionRepository;
+import com.example.demo.responsecache.DataVersions;
 import com.example.demo.UserService;
 import com.example.demo.post.PostService;
 import com.example.demo.utils.ReactionMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 public class ReactionService {
 
+    // usernames embedded in each summary entry, the rest come from the paged endpoint
+    static final int SUMMARY_PREVIEW_SIZE = 3;
+    static final int MAX_REACTORS_PAGE_SIZE = 100;
+    static final int MAX_BATCH_TARGETS = 100;
+
     private final ReactionRepository reactionRepo;
     private final ReactionMapper reactionMapper;
     private final CommentRepository commentRepo;
     private final UserService userService;
     private final PostService postService;
+    private final HotKeyDetector hotKeys;
+    private final HotReactionBuffer hotReactions;
+    private final DataVersions dataVersions;
+    private final DomainEventPublisher domainEvents;
+    private final TransactionTemplate transactions;
 
     @Autowired
     public ReactionService(
@@ -37,17 +75,56 @@ public class ReactionService {
             ReactionMapper reactionMapper,
             CommentRepository commentRepo,
             UserService userService,
-            PostService postService
+            PostService postService,
+            HotKeyDetector hotKeys,
+            HotReactionBuffer hotReactions,
+            DataVersions dataVersions,
+            DomainEventPublisher domainEvents,
+            TransactionTemplate transactions
     ) {
         this.reactionRepo = reactionRepo;
         this.reactionMapper = reactionMapper;
         this.commentRepo = commentRepo;
         this.userService = userService;
         this.postService = postService;
+        this.hotKeys = hotKeys;
+        this.hotReactions = hotReactions;
+        this.dataVersions = dataVersions;
+        this.domainEvents = domainEvents;
+        this.transactions = transactions;
     }
 
-    private List<ReactionSummary> buildResponseList(List<Reaction> reactions) {
-        return reactionMapper.toReactionMap(reactions);
+    private List<String> usernames(List<ReactorRow> rows) {
+        return rows.stream().map(ReactorRow::username).toList();
+    }
+
+    private ReactorPage buildReactorPage(List<ReactorRow> rows, int size) {
+        boolean hasMore = rows.size() > size;
+        List<ReactorRow> page = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            ReactorRow last = page.get(page.size() - 1);
+            nextCursor = new ReactionCursor(last.reactedAt(), last.reactionId()).encode();
+        }
+        return new ReactorPage(page.stream().map(reactionMapper::toReactor).toList(), nextCursor);
+    }
+
+    private Map<UUID, Map<ReactionType, Long>> groupCounts(Collection<UUID> targetIds, List<TargetReactionCount> counts) {
+        Map<UUID, Map<ReactionType, Long>> grouped = new HashMap<>();
+        // visible targets without reactions still get an (empty) entry
+        targetIds.forEach(id -> grouped.put(id, new EnumMap<>(ReactionType.class)));
+        counts.forEach(c -> grouped.get(c.targetId()).put(c.type(), c.count()));
+        return grouped;
+    }
+
+    // fetch one extra row to know whether another page exists
+    private Pageable reactorPageable(int size) {
+        return PageRequest.of(0, size + 1);
+    }
+
+    private int clampPageSize(Integer size) {
+        if (size == null || size < 1) return 20;
+        return Math.min(size, MAX_REACTORS_PAGE_SIZE);
     }
 
     private ReactionResponse buildResponse(
@@ -65,13 +142,24 @@ public class ReactionService {
         );
     }
 
-    // target - post or comment
-    private ReactionResponse react(ReactionType type, ReactionTarget target, UUID userId, Optional<Reaction> currentReaction) {
+    private void publishReactionChanged(ReactionTarget target, UUID postId) {
+        DomainEventType event = target.getType() == ReactionTargetType.POST
+                ? DomainEventType.POST_REACTION_CHANGED
+                : DomainEventType.COMMENT_REACTION_CHANGED;
+        domainEvents.publish(event, target.getTargetId(), postId);
+    }
+
+    // target - post or comment, postId - the post itself or the comment's post
+    private ReactionResponse react(ReactionType type, ReactionTarget target, UUID postId, UUID userId, Optional<Reaction> currentReaction) {
         User user = userService.getById(userId);
 
         // undo existing reaction
         if (currentReaction.isPresent() && currentReaction.get().getType() == type) {
-            reactionRepo.delete(currentReaction.get());
+            transactions.executeWithoutResult(status -> {
+                reactionRepo.delete(currentReaction.get());
+                publishReactionChanged(target, postId);
+            });
+            dataVersions.bump(DataVersions.Domain.REACTIONS);
             return buildResponse(null, userId, target);
         }
 
@@ -83,30 +171,101 @@ public class ReactionService {
             target.linkReaction(reaction);
         }
 
-        Reaction saved = reactionRepo.save(reaction);
+        Reaction saved = transactions.execute(status -> {
+            Reaction stored = reactionRepo.save(reaction);
+            publishReactionChanged(target, postId);
+            return stored;
+        });
+        dataVersions.bump(DataVersions.Domain.REACTIONS);
         return buildResponse(saved.getType(), userId, target);
     }
 
 
+    @Transactional(readOnly = true)
     public List<ReactionSummary> getReactionsByPostId(UUID postId) {
-        postService.getById(postId);
         postService.checkPrivatePost(postId);
-        List<Reaction> reactions = reactionRepo.findAllByPostId(postId);
-        return buildResponseList(reactions);
+        List<ReactionTypeCount> counts = reactionRepo.countByTypeForPost(postId);
+        Pageable preview = PageRequest.of(0, SUMMARY_PREVIEW_SIZE);
+        return reactionMapper.toSummaries(counts,
+                type -> usernames(reactionRepo.findReactorsByPost(postId, type, preview)));
     }
 
+    @Transactional(readOnly = true)
     public List<ReactionSummary> getReactionsByCommentId(UUID commentId) {
         commentRepo.findById(commentId)
-            .orElseThrow(()-> new ResourceNotFoundException("comment not found"));;
-        return buildResponseList(reactionRepo.findAllByCommentId(commentId));
+            .orElseThrow(()-> new ResourceNotFoundException("comment not found"));
+        List<ReactionTypeCount> counts = reactionRepo.countByTypeForComment(commentId);
+        Pageable preview = PageRequest.of(0, SUMMARY_PREVIEW_SIZE);
+        return reactionMapper.toSummaries(counts,
+                type -> usernames(reactionRepo.findReactorsByComment(commentId, type, preview)));
+    }
+
+    @Transactional(readOnly = true)
+    public ReactionBatchResponse getReactionCounts(Collection<UUID> postIds, Collection<UUID> commentIds) {
+        Collection<UUID> posts = postIds == null ? List.of() : new LinkedHashSet<>(postIds);
+        Collection<UUID> comments = commentIds == null ? List.of() : new LinkedHashSet<>(commentIds);
+        if (posts.size() + comments.size() > MAX_BATCH_TARGETS) {
+            throw new BadRequestException("At most " + MAX_BATCH_TARGETS + " posts and comments per request");
+        }
+
+        List<UUID> visiblePosts = postService.filterPublicPostIds(posts);
+        List<UUID> visibleComments = comments.isEmpty()
+                ? List.of()
+                : commentRepo.findIdsByIdInAndPostVisibility(comments, PostVisibility.PUBLIC);
+
+        return new ReactionBatchResponse(
+                groupCounts(visiblePosts, visiblePosts.isEmpty() ? List.of() : reactionRepo.countByTypeForPosts(visiblePosts)),
+                groupCounts(visibleComments, visibleComments.isEmpty() ? List.of() : reactionRepo.countByTypeForComments(visibleComments))
+        );
+    }
+
+    @Transactional(readOnly = true)
+    public ReactorPage getPostReactors(UUID postId, ReactionType type, String cursor, Integer size) {
+        postService.checkPrivatePost(postId);
+        int pageSize = clampPageSize(size);
+        List<ReactorRow> rows;
+        if (cursor == null) {
+            rows = reactionRepo.findReactorsByPost(postId, type, reactorPageable(pageSize));
+        } else {
+            ReactionCursor after = ReactionCursor.decode(cursor);
+            rows = reactionRepo.findReactorsByPostAfter(postId, type, after.createdAt(), after.id(), reactorPageable(pageSize));
+        }
+        return buildReactorPage(rows, pageSize);
+    }
+
+    @Transactional(readOnly = true)
+    public ReactorPage getCommentReactors(UUID commentId, ReactionType type, String cursor, Integer size) {
+        commentRepo.findById(commentId)
+                .orElseThrow(()-> new ResourceNotFoundException("comment not found"));
+        int pageSize = clampPageSize(size);
+        List<ReactorRow> rows;
+        if (cursor == null) {
+            rows = reactionRepo.findReactorsByComment(commentId, type, reactorPageable(pageSize));
+        } else {
+            ReactionCursor after = ReactionCursor.decode(cursor);
+            rows = reactionRepo.findReactorsByCommentAfter(commentId, type, after.createdAt(), after.id(), reactorPageable(pageSize));
+        }
+        return buildReactorPage(rows, pageSize);
     }
 
     public ReactionResponse reactToPost(UUID postId, ReactionType type, UUID userId) {
-        Post post = postService.getById(postId);
         postService.checkPrivatePost(postId);
+        // only the id is needed to link the reaction
+        Post post = postService.getReference(postId);
+        if (hotKeys.isHot(postId)) {
+            // buffered path, written by flushHotReactions
+            userService.getById(userId);
+            ReactionType next = hotReactions.toggle(userId, postId, type, () -> reactionRepo
+                    .findByUserIdAndPostId(userId, postId)
+                    .map(Reaction::getType)
+                    .orElse(null));
+            return buildResponse(next, userId, new PostReaction(post));
+        }
         Optional<Reaction> currentReaction = reactionRepo.findByUserIdAndPostId(userId, postId);
         ReactionTarget target = new PostReaction(post);
-        return react(type, target, userId, currentReaction);
+        ReactionResponse response = react(type, target, postId, userId, currentReaction);
+        dataVersions.bumpPost(postId);
+        return response;
     }
 
     public ReactionResponse reactToComment(UUID commentId, ReactionType type, UUID userId){
@@ -114,7 +273,62 @@ public class ReactionService {
                 .orElseThrow(()-> new ResourceNotFoundException("comment not found"));
         Optional<Reaction> currentReaction = reactionRepo.findByUserIdAndCommentId(userId, commentId);
         ReactionTarget target = new CommentReaction(comment);
-        return react(type, target, userId, currentReaction);
+        ReactionResponse response = react(type, target, comment.getPost().getId(), userId, currentReaction);
+        // comment reaction counts are part of the post's comment thread
+        dataVersions.bumpPost(comment.getPost().getId());
+        return response;
+    }
+
+    @Scheduled(fixedDelayString = "${hotkeys.reaction-flush-interval-ms:500}")
+    public void flushHotReactions() {
+        List<HotReactionBuffer.PendingReaction> batch = hotReactions.drain();
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Reaction> toSave = new ArrayList<>();
+        List<Reaction> toDelete = new ArrayList<>();
+        try {
+            // new rows only reference the post, so deleted posts are filtered here with one query
+            Set<UUID> livePosts = new HashSet<>(postService.filterExistingPostIds(
+                    batch.stream().map(HotReactionBuffer.PendingReaction::postId).collect(Collectors.toSet())));
+            for (HotReactionBuffer.PendingReaction p : batch) {
+                Optional<Reaction> existing = reactionRepo.findByUserIdAndPostId(p.userId(), p.postId());
+                if (p.type() == null) {
+                    existing.ifPresent(toDelete::add);
+                    continue;
+                }
+                if (!livePosts.contains(p.postId())) {
+                    // the post was deleted while the reaction sat in the buffer
+                    continue;
+                }
+                try {
+                    Reaction reaction = existing.orElseGet(() -> {
+                        Reaction created = new Reaction();
+                        created.setUser(userService.getById(p.userId()));
+                        created.setPost(postService.getReference(p.postId()));
+                        return created;
+                    });
+                    reaction.setType(p.type());
+                    toSave.add(reaction);
+                } catch (UsernameNotFoundException ex) {
+                    // the user was deleted while the reaction sat in the buffer
+                }
+            }
+            transactions.executeWithoutResult(status -> {
+                reactionRepo.saveAll(toSave);
+                reactionRepo.deleteAll(toDelete);
+                // buffered toggles only change the counts once they are written here
+                batch.stream().map(HotReactionBuffer.PendingReaction::postId).distinct().forEach(postId ->
+                        domainEvents.publish(DomainEventType.POST_REACTION_CHANGED, postId, postId));
+            });
+        } catch (RuntimeException ex) {
+            // nothing was written, keep the batch for the next flush
+            hotReactions.requeueFlush();
+            throw ex;
+        }
+        hotReactions.completeFlush(toSave.size() + toDelete.size());
+        dataVersions.bump(DataVersions.Domain.REACTIONS);
+        batch.forEach(p -> dataVersions.bumpPost(p.postId()));
     }
 
     public long getCountByPostId(UUID postId) {
@@ -124,4 +338,13 @@ public class ReactionService {
     public long getCountByCommentId(UUID commentId) {
         return reactionRepo.countByCommentId(commentId);
     }
+
+    // totals per comment in one grouped query; comments without reactions are absent
+    public Map<UUID, Long> getCountsByCommentIds(Collection<UUID> commentIds) {
+        if (commentIds.isEmpty()) return Map.of();
+        Map<UUID, Long> totals = new HashMap<>();
+        reactionRepo.countByTypeForComments(commentIds)
+                .forEach(c -> totals.merge(c.targetId(), c.count(), Long::sum));
+        return totals;
+    }
 }
@@ -0,0 +1,52 @@
+package com.example.demo.reaction;
+
+import com.example.demo.dto.reaction.ViewerReaction;
+import com.example.demo.enums.ReactionType;
+import com.example.demo.repository.ReactionRepository;
+import com.example.demo.security.AuthUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves the current viewer's own reaction for a page of posts or comments
+ * with a single batched query. Anonymous requests never touch the database.
+ */
+@Component
+public class ViewerReactionResolver {
+
+    private final ReactionRepository reactionRepo;
+
+    @Autowired
+    public ViewerReactionResolver(ReactionRepository reactionRepo) {
+        this.reactionRepo = reactionRepo;
+    }
+
+    public Map<UUID, ReactionType> forPosts(Collection<UUID> postIds) {
+        return resolve(postIds, reactionRepo::findViewerReactionsByPostIds);
+    }
+
+    public Map<UUID, ReactionType> forComments(Collection<UUID> commentIds) {
+        return resolve(commentIds, reactionRepo::findViewerReactionsByCommentIds);
+    }
+
+    private Map<UUID, ReactionType> resolve(
+            Collection<UUID> targetIds,
+            BiFunction<UUID, Collection<UUID>, List<ViewerReaction>> lookup
+    ) {
+        Optional<UUID> viewerId = AuthUtil.currentUserId();
+        if (viewerId.isEmpty() || targetIds.isEmpty()) {
+            return Map.of();
+        }
+        return lookup.apply(viewerId.get(), targetIds)
+                .stream()
+                .collect(Collectors.toMap(ViewerReaction::targetId, ViewerReaction::type, (a, b) -> a));
+    }
+}
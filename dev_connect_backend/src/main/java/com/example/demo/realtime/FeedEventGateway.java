@@ -0,0 +1,450 @@
+package com.example.demo.realtime;
+
+import com.example.demo.dto.comment.PostCommentCount;
+import com.example.demo.dto.post.PostResponse;
+import com.example.demo.dto.post.PostTag;
+import com.example.demo.dto.reaction.TargetReactionCount;
+import com.example.demo.dto.realtime.PostCountsEvent;
+import com.example.demo.dto.realtime.PostRemovedEvent;
+import com.example.demo.entity.Post;
+import com.example.demo.enums.PostVisibility;
+import com.example.demo.events.DomainEvent;
+import com.example.demo.events.DomainEventBus;
+import com.example.demo.exception.TooManyRequestsException;
+import com.example.demo.repository.CommentRepository;
+import com.example.demo.repository.PostRepository;
+import com.example.demo.repository.ReactionRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Pushes public feed changes to Server-Sent Events subscribers. Writers only
+ * mark a post as changed; once per tick the marks are merged into at most one
+ * event per post, counts for all of them are loaded with two grouped queries,
+ * and each event is serialized once and shared by every subscriber.
+ *
+ * Connections are async servlet requests, so an idle subscriber holds no
+ * thread. Events are written by a small sender pool, one drain task per
+ * subscriber at a time. Each subscriber has a bounded queue; when a slow
+ * client lets it fill up, the backlog is dropped and the client gets a single
+ * "resync" event telling it to reload the feed. A write blocks while the
+ * client's socket buffer is full, so a write that takes longer than the send
+ * timeout drops the subscriber and interrupts its sender, which would
+ * otherwise be lost to every other subscriber.
+ *
+ * Posts written on this node arrive rendered. Posts written on other nodes
+ * arrive as a bare mark from the cluster channel and are loaded at the next
+ * tick, which emits them as a post or a removal depending on what it finds.
+ */
+@Component
+public class FeedEventGateway {
+
+    static final String POST_EVENT = "post";
+    static final String COUNTS_EVENT = "counts";
+    static final String REMOVED_EVENT = "removed";
+    static final String RESYNC_EVENT = "resync";
+
+    private static final Set<ResponseBodyEmitter.DataWithMediaType> RESYNC =
+            SseEmitter.event().name(RESYNC_EVENT).data("{}").build();
+    private static final Set<ResponseBodyEmitter.DataWithMediaType> HEARTBEAT =
+            SseEmitter.event().comment("ping").build();
+
+    /**
+     * One coalesced update; removal wins over anything marked before it, and a
+     * reload over both, since it reads whatever the post has become.
+     */
+    record Pending(PostResponse post, boolean removed, boolean counts, boolean reload) {}
+
+    record FeedEvent(String name, UUID postId, Object data) {}
+
+    private final Map<UUID, Pending> pending = new ConcurrentHashMap<>();
+    private final Map<Long, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong subscriberIds = new AtomicLong();
+    private final PostRepository postRepo;
+    private final CommentRepository commentRepo;
+    private final ReactionRepository reactionRepo;
+    private final ObjectMapper objectMapper;
+    private final int queueCapacity;
+    private final int maxSubscribers;
+    private final Executor senders;
+    private final Supplier<SseEmitter> emitters;
+    private final long sendTimeoutNanos;
+    private final LongSupplier clock;
+    private final Counter events;
+    private final Counter resyncs;
+    private final Counter stalled;
+
+    @Autowired
+    public FeedEventGateway(PostRepository postRepo,
+                            CommentRepository commentRepo,
+                            ReactionRepository reactionRepo,
+                            ObjectMapper objectMapper,
+                            DomainEventBus domainEvents,
+                            @Value("${realtime.queue-capacity:64}") int queueCapacity,
+                            @Value("${realtime.max-subscribers:50000}") int maxSubscribers,
+                            @Value("${realtime.sender-threads:4}") int senderThreads,
+                            @Value("${realtime.emitter-timeout-ms:1800000}") long emitterTimeoutMillis,
+                            @Value("${realtime.send-timeout-ms:5000}") long sendTimeoutMillis,
+                            MeterRegistry meterRegistry) {
+        this(postRepo, commentRepo, reactionRepo, objectMapper, queueCapacity, maxSubscribers,
+                senderPool(senderThreads), () -> new SseEmitter(emitterTimeoutMillis),
+                TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis), System::nanoTime, meterRegistry);
+        // the stream is live only, a restart has nothing to catch up on
+        domainEvents.subscribe("feed-stream", false, this::onDomainEvents);
+    }
+
+    FeedEventGateway(PostRepository postRepo, CommentRepository commentRepo, ReactionRepository reactionRepo,
+                     ObjectMapper objectMapper, int queueCapacity, int maxSubscribers,
+                     Executor senders, Supplier<SseEmitter> emitters, long sendTimeoutNanos, LongSupplier clock,
+                     MeterRegistry meterRegistry) {
+        this.postRepo = postRepo;
+        this.commentRepo = commentRepo;
+        this.reactionRepo = reactionRepo;
+        this.objectMapper = objectMapper;
+        this.queueCapacity = queueCapacity;
+        this.maxSubscribers = maxSubscribers;
+        this.senders = senders;
+        this.emitters = emitters;
+        this.sendTimeoutNanos = sendTimeoutNanos;
+        this.clock = clock;
+        this.events = meterRegistry.counter("realtime.events");
+        this.resyncs = meterRegistry.counter("realtime.resyncs");
+        this.stalled = meterRegistry.counter("realtime.stalled");
+        Gauge.builder("realtime.subscribers", subscribers, Map::size).register(meterRegistry);
+    }
+
+    private static ExecutorService senderPool(int threads) {
+        AtomicInteger threadIds = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, "sse-sender-" + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new TooManyRequestsException("Too many live feed subscribers", 5);
+        }
+        SseEmitter emitter = emitters.get();
+        Subscriber subscriber = new Subscriber(subscriberIds.incrementAndGet(), emitter, queueCapacity);
+        subscribers.put(subscriber.id, subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber.id));
+        emitter.onTimeout(() -> subscribers.remove(subscriber.id));
+        emitter.onError(ex -> subscribers.remove(subscriber.id));
+        return emitter;
+    }
+
+    /** A public post was created or edited. */
+    public void postPublished(PostResponse post) {
+        // broadcast to everyone, so never carry the author's own reaction
+        PostResponse shared = new PostResponse(post.id(), post.title(), post.content(), post.tags(),
+                post.visibility(), post.username(), post.createdAt(), post.updatedAt(),
+                post.commentCount(), post.reactionCount(), null);
+        pending.merge(post.id(), new Pending(shared, false, false, false),
+                (prev, next) -> new Pending(shared, false, prev.counts(), false));
+    }
+
+    /** A post was deleted or made private. */
+    public void postRemoved(UUID postId) {
+        pending.put(postId, new Pending(null, true, false, false));
+    }
+
+    /** A post was created, edited or deleted on another node. */
+    public void postChanged(UUID postId) {
+        pending.merge(postId, new Pending(null, false, false, true),
+                (prev, next) -> new Pending(null, false, prev.counts(), true));
+    }
+
+    /** Comment or reaction counts of a post changed. */
+    public void countsChanged(UUID postId) {
+        pending.merge(postId, new Pending(null, false, true, false),
+                (prev, next) -> prev.removed() ? prev : new Pending(prev.post(), false, true, prev.reload()));
+    }
+
+    /** Changes may have been missed; every subscriber reloads the feed. */
+    public void resyncAll() {
+        for (Subscriber subscriber : subscribers.values()) {
+            subscriber.queue.clear();
+            subscriber.overflowed.set(true);
+            schedule(subscriber);
+        }
+    }
+
+    // comment and reaction writes arrive through the bus; post events carry the rendered post and come directly
+    void onDomainEvents(List<DomainEvent> batch) {
+        for (DomainEvent event : batch) {
+            switch (event.type()) {
+                case COMMENT_ADDED, COMMENT_DELETED, POST_REACTION_CHANGED -> countsChanged(event.postId());
+                default -> {
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${realtime.tick-ms:500}")
+    public void tick() {
+        List<FeedEvent> batch = coalesce();
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Set<ResponseBodyEmitter.DataWithMediaType>> frames = new ArrayList<>(batch.size());
+        for (FeedEvent event : batch) {
+            try {
+                frames.add(SseEmitter.event().name(event.name()).data(objectMapper.writeValueAsString(event.data())).build());
+            } catch (JsonProcessingException ex) {
+                // plain records, never expected; one bad event must not stall the stream
+            }
+        }
+        events.increment(frames.size());
+        for (Subscriber subscriber : subscribers.values()) {
+            subscriber.offer(frames);
+            schedule(subscriber);
+        }
+    }
+
+    // an idle connection is otherwise never written to, so a dead client would go unnoticed
+    @Scheduled(fixedDelayString = "${realtime.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers.values()) {
+            if (subscriber.queue.isEmpty()) {
+                subscriber.offer(List.of(HEARTBEAT));
+                schedule(subscriber);
+            }
+        }
+    }
+
+    // a blocked write holds a sender thread that every other subscriber needs
+    @Scheduled(fixedDelayString = "${realtime.send-check-ms:1000}")
+    public void expireStalledSends() {
+        long now = clock.getAsLong();
+        for (Subscriber subscriber : subscribers.values()) {
+            long since = subscriber.sendingSince;
+            Thread sender = subscriber.sender;
+            if (since != 0 && sender != null && now - since > sendTimeoutNanos) {
+                stalled.increment();
+                subscribers.remove(subscriber.id);
+                subscriber.stalled = true;
+                // the blocked write fails and drain() completes the emitter
+                if (subscriber.sender == sender) {
+                    sender.interrupt();
+                }
+            }
+        }
+    }
+
+    /** Drains the marks made since the last tick into at most one event per post. */
+    List<FeedEvent> coalesce() {
+        Map<UUID, Pending> drained = new HashMap<>();
+        for (UUID postId : pending.keySet()) {
+            Pending p = pending.remove(postId);
+            if (p != null) {
+                drained.put(postId, p);
+            }
+        }
+        // nobody would receive the events, skip the count queries
+        if (drained.isEmpty() || subscribers.isEmpty()) {
+            return List.of();
+        }
+        reload(drained);
+
+        Set<UUID> needCounts = new HashSet<>();
+        List<UUID> countsOnly = new ArrayList<>();
+        drained.forEach((postId, p) -> {
+            if (p.removed() || !p.counts()) {
+                return;
+            }
+            if (p.post() != null) {
+                needCounts.add(postId);
+            } else {
+                countsOnly.add(postId);
+            }
+        });
+        // reactions and comments on private posts must not leak through the public stream
+        if (!countsOnly.isEmpty()) {
+            needCounts.addAll(postRepo.findIdsByIdInAndVisibility(countsOnly, PostVisibility.PUBLIC));
+        }
+        Map<UUID, Long> comments = new HashMap<>();
+        Map<UUID, Long> reactions = new HashMap<>();
+        if (!needCounts.isEmpty()) {
+            for (PostCommentCount row : commentRepo.countByPostIds(needCounts)) {
+                comments.put(row.postId(), row.count());
+            }
+            for (TargetReactionCount row : reactionRepo.countByTypeForPosts(needCounts)) {
+                reactions.merge(row.targetId(), row.count(), Long::sum);
+            }
+        }
+
+        List<FeedEvent> batch = new ArrayList<>(drained.size());
+        drained.forEach((postId, p) -> {
+            if (p.removed()) {
+                batch.add(new FeedEvent(REMOVED_EVENT, postId, new PostRemovedEvent(postId)));
+            } else if (p.post() != null) {
+                PostResponse post = p.post();
+                if (needCounts.contains(postId)) {
+                    post = new PostResponse(post.id(), post.title(), post.content(), post.tags(),
+                            post.visibility(), post.username(), post.createdAt(), post.updatedAt(),
+                            comments.getOrDefault(postId, 0L), reactions.getOrDefault(postId, 0L), null);
+                }
+                batch.add(new FeedEvent(POST_EVENT, postId, post));
+            } else if (needCounts.contains(postId)) {
+                batch.add(new FeedEvent(COUNTS_EVENT, postId, new PostCountsEvent(postId,
+                        comments.getOrDefault(postId, 0L), reactions.getOrDefault(postId, 0L))));
+            }
+        });
+        return batch;
+    }
+
+    // runs outside any transaction, so it reads the primary, which the mark was committed to
+    private void reload(Map<UUID, Pending> drained) {
+        List<UUID> ids = new ArrayList<>();
+        drained.forEach((postId, p) -> {
+            if (p.reload()) {
+                ids.add(postId);
+            }
+        });
+        if (ids.isEmpty()) {
+            return;
+        }
+        Map<UUID, List<String>> tags = new HashMap<>();
+        for (PostTag row : postRepo.findTagsByPostIds(ids)) {
+            tags.computeIfAbsent(row.postId(), k -> new ArrayList<>()).add(row.tag());
+        }
+        Set<UUID> found = new HashSet<>();
+        for (Post post : postRepo.findWithUserByIdIn(ids)) {
+            if (post.getVisibility() != PostVisibility.PUBLIC) {
+                continue;
+            }
+            found.add(post.getId());
+            PostResponse response = new PostResponse(post.getId(), post.getTitle(), post.getContent(),
+                    tags.getOrDefault(post.getId(), List.of()), post.getVisibility().name(),
+                    post.getUser().getUsername(), post.getCreatedAt(), post.getUpdatedAt(), 0, 0, null);
+            drained.put(post.getId(), new Pending(response, false, true, false));
+        }
+        // deleted or no longer public
+        for (UUID postId : ids) {
+            if (!found.contains(postId)) {
+                drained.put(postId, new Pending(null, true, false, false));
+            }
+        }
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            if (subscriber.overflowed.getAndSet(false)) {
+                resyncs.increment();
+                send(subscriber, RESYNC);
+            }
+            Set<ResponseBodyEmitter.DataWithMediaType> frame;
+            while ((frame = subscriber.queue.poll()) != null) {
+                send(subscriber, frame);
+            }
+        } catch (IOException | IllegalStateException ex) {
+            // client went away; completing fires onCompletion, which unregisters it
+            subscribers.remove(subscriber.id);
+            subscriber.emitter.completeWithError(ex);
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // frames offered after the last poll but before draining was cleared
+        if (!subscriber.queue.isEmpty() || subscriber.overflowed.get()) {
+            schedule(subscriber);
+        }
+    }
+
+    private void send(Subscriber subscriber, Set<ResponseBodyEmitter.DataWithMediaType> frame) throws IOException {
+        subscriber.sender = Thread.currentThread();
+        subscriber.sendingSince = clock.getAsLong();
+        try {
+            subscriber.emitter.send(frame);
+        } finally {
+            subscriber.sendingSince = 0;
+            subscriber.sender = null;
+            // an interrupt that arrived after the write returned must not hit the next task
+            Thread.interrupted();
+        }
+        if (subscriber.stalled) {
+            throw new IOException("Send exceeded " + TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos) + " ms");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (senders instanceof ExecutorService pool) {
+            pool.shutdownNow();
+        }
+        subscribers.values().forEach(s -> s.emitter.complete());
+        subscribers.clear();
+    }
+
+    private static final class Subscriber {
+
+        final long id;
+        final SseEmitter emitter;
+        final ArrayBlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue;
+        final AtomicBoolean overflowed = new AtomicBoolean();
+        final AtomicBoolean draining = new AtomicBoolean();
+        // set around each write, read by expireStalledSends()
+        volatile long sendingSince;
+        volatile Thread sender;
+        volatile boolean stalled;
+
+        Subscriber(long id, SseEmitter emitter, int capacity) {
+            this.id = id;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        // a backlog the client cannot keep up with is worthless, replace it with one resync
+        void offer(List<Set<ResponseBodyEmitter.DataWithMediaType>> frames) {
+            for (Set<ResponseBodyEmitter.DataWithMediaType> frame : frames) {
+                if (!queue.offer(frame)) {
+                    queue.clear();
+                    overflowed.set(true);
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -1,14 +1,34 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.comment.PostCommentCount;
 import com.example.demo.entity.Comment;
+import com.example.demo.enums.PostVisibility;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, UUID> {
+    // authors come in the same select instead of one per comment
+    @EntityGraph(attributePaths = "user")
     List<Comment> findAllByPostId(UUID postId);
     long countByPostId(UUID postId);
+
+    @Query("SELECT c.id FROM Comment c WHERE c.id IN :ids AND c.post.visibility = :visibility")
+    List<UUID> findIdsByIdInAndPostVisibility(@Param("ids") Collection<UUID> ids,
+                                              @Param("visibility") PostVisibility visibility);
+
+    @Query("""
+    SELECT new com.example.demo.dto.comment.PostCommentCount(c.post.id, COUNT(c))
+    FROM Comment c
+    WHERE c.post.id IN :postIds
+    GROUP BY c.post.id
+""")
+    List<PostCommentCount> countByPostIds(@Param("postIds") Collection<UUID> postIds);
 }
@@ -0,0 +1,48 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.ContentChange;
+import com.example.demo.enums.ChangeTarget;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ContentChangeRepository extends JpaRepository<ContentChange, Long> {
+
+    @Query("""
+    SELECT c FROM ContentChange c
+    WHERE c.targetType = :type AND c.seq > :since AND c.changedAt < :settledBefore
+    ORDER BY c.seq
+""")
+    List<ContentChange> findChanges(@Param("type") ChangeTarget type,
+                                    @Param("since") long since,
+                                    @Param("settledBefore") LocalDateTime settledBefore,
+                                    Pageable pageable);
+
+    @Query("""
+    SELECT c FROM ContentChange c
+    WHERE c.postId = :postId AND c.targetType = :type AND c.seq > :since AND c.changedAt < :settledBefore
+    ORDER BY c.seq
+""")
+    List<ContentChange> findChangesForPost(@Param("postId") UUID postId,
+                                           @Param("type") ChangeTarget type,
+                                           @Param("since") long since,
+                                           @Param("settledBefore") LocalDateTime settledBefore,
+                                           Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(c.seq), 0) FROM ContentChange c WHERE c.changedAt < :settledBefore")
+    long findSettledHead(@Param("settledBefore") LocalDateTime settledBefore);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ContentChange c WHERE c.changedAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
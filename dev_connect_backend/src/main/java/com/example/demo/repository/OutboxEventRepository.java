@@ -0,0 +1,35 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // walks the primary key forward, one page per replay step; rows still inside
+    // the settle window are left out, a lower seq may yet commit before them
+    @Query("SELECT e FROM OutboxEvent e WHERE e.seq > :after AND e.createdAt < :settledBefore ORDER BY e.seq")
+    List<OutboxEvent> findAfter(@Param("after") long after,
+                                @Param("settledBefore") LocalDateTime settledBefore,
+                                Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(e.seq), 0) FROM OutboxEvent e")
+    long findHead();
+
+    @Query("SELECT COALESCE(MAX(e.seq), 0) FROM OutboxEvent e WHERE e.createdAt < :settledBefore")
+    long findSettledHead(@Param("settledBefore") LocalDateTime settledBefore);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OutboxEvent e WHERE e.createdAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,37 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.PostFeedView;
+import com.example.demo.enums.PostVisibility;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PostFeedViewRepository extends JpaRepository<PostFeedView, UUID> {
+
+    Page<PostFeedView> findByVisibility(PostVisibility visibility, Pageable pageable);
+
+    List<PostFeedView> findAllByAuthorUsername(String username);
+
+    List<PostFeedView> findAllByAuthorUsernameAndVisibility(String username, PostVisibility visibility);
+
+    @Query("""
+    SELECT v FROM PostFeedView v
+    WHERE v.visibility = 'PUBLIC'
+    AND v.searchText LIKE CONCAT('%', LOWER(:keyword), '%')
+""")
+    Page<PostFeedView> searchPublic(@Param("keyword") String keyword, Pageable pageable);
+
+    // reconciliation walks the view and the posts table in the same id order
+    @Query("SELECT v.id FROM PostFeedView v WHERE v.id > :after ORDER BY v.id")
+    List<UUID> findIdsAfter(@Param("after") UUID after, Pageable pageable);
+
+    @Query("SELECT v.id FROM PostFeedView v WHERE v.id > :after AND v.id <= :upTo")
+    List<UUID> findIdsBetween(@Param("after") UUID after, @Param("upTo") UUID upTo);
+}
@@ -1,20 +1,26 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.post.PostAccessRow;
+import com.example.demo.dto.post.PostTag;
 import com.example.demo.entity.Post;
 import com.example.demo.enums.PostVisibility;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface PostRepository extends JpaRepository<Post, Integer> {
+public interface PostRepository extends JpaRepository<Post, UUID> {
     @Query("""
     SELECT DISTINCT p FROM Post p
     LEFT JOIN p.tags t
@@ -36,8 +42,34 @@ public interface PostRepository extends JpaRepository<Post, Integer> {
     Page<Post> searchPublicPosts(String keyword, Pageable pageable);
 
     Page<Post> findByVisibility(PostVisibility visibility, Pageable pageable);
+    long countByVisibility(PostVisibility visibility);
     Optional<Post> findByIdAndUser_Username(UUID postId, String username);
-    Optional<Post> findById(UUID id);
     List<Post> findAllByUser_Username(String username);
 
+    // must be consumed inside a transaction; feeds PostAccessIndex at startup
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT new com.example.demo.dto.post.PostAccessRow(p.id, p.visibility, p.user.id) FROM Post p")
+    Stream<PostAccessRow> streamAccessRows();
+
+    // the same row for one post, bypassing the second-level cache
+    @Query("SELECT new com.example.demo.dto.post.PostAccessRow(p.id, p.visibility, p.user.id) FROM Post p WHERE p.id = :id")
+    Optional<PostAccessRow> findAccessRow(@Param("id") UUID id);
+
+    @Query("SELECT p.id FROM Post p WHERE p.id IN :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT p.id FROM Post p WHERE p.id IN :ids AND p.visibility = :visibility")
+    List<UUID> findIdsByIdInAndVisibility(@Param("ids") Collection<UUID> ids,
+                                          @Param("visibility") PostVisibility visibility);
+
+    // source rows for post_feed_view, with the author in the same select
+    @Query("SELECT p FROM Post p JOIN FETCH p.user WHERE p.id IN :ids")
+    List<Post> findWithUserByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT new com.example.demo.dto.post.PostTag(p.id, t) FROM Post p JOIN p.tags t WHERE p.id IN :ids")
+    List<PostTag> findTagsByPostIds(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT p.id FROM Post p WHERE p.id > :after ORDER BY p.id")
+    List<UUID> findIdsAfter(@Param("after") UUID after, Pageable pageable);
+
 }
@@ -1,8 +1,18 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.reaction.ReactionTypeCount;
+import com.example.demo.dto.reaction.ReactorRow;
+import com.example.demo.dto.reaction.TargetReactionCount;
+import com.example.demo.dto.reaction.ViewerReaction;
 import com.example.demo.entity.Reaction;
+import com.example.demo.enums.ReactionType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -16,4 +26,102 @@ public interface ReactionRepository extends JpaRepository<Reaction, UUID> {
     Optional<Reaction> findByUserIdAndCommentId(UUID userId, UUID commentId);
     long countByPostId(UUID postId);
     long countByCommentId(UUID commentId);
+
+    // viewer's own reactions for a whole page of targets in one round trip
+    @Query("""
+    SELECT new com.example.demo.dto.reaction.ViewerReaction(r.post.id, r.type)
+    FROM Reaction r
+    WHERE r.user.id = :userId AND r.post.id IN :postIds
+""")
+    List<ViewerReaction> findViewerReactionsByPostIds(@Param("userId") UUID userId,
+                                                      @Param("postIds") Collection<UUID> postIds);
+
+    @Query("""
+    SELECT new com.example.demo.dto.reaction.ViewerReaction(r.comment.id, r.type)
+    FROM Reaction r
+    WHERE r.user.id = :userId AND r.comment.id IN :commentIds
+""")
+    List<ViewerReaction> findViewerReactionsByCommentIds(@Param("userId") UUID userId,
+                                                         @Param("commentIds") Collection<UUID> commentIds);
+
+    // per-type counts, the summary no longer loads every reaction row
+    @Query("""
+    SELECT new com.example.demo.dto.reaction.ReactionTypeCount(r.type, COUNT(r))
+    FROM Reaction r
+    WHERE r.post.id = :postId
+    GROUP BY r.type
+""")
+    List<ReactionTypeCount> countByTypeForPost(@Param("postId") UUID postId);
+
+    @Query("""
+    SELECT new com.example.demo.dto.reaction.ReactionTypeCount(r.type, COUNT(r))
+    FROM Reaction r
+    WHERE r.comment.id = :commentId
+    GROUP BY r.type
+""")
+    List<ReactionTypeCount> countByTypeForComment(@Param("commentId") UUID commentId);
+
+    // keyset pages over (target, type, created_at), newest first
+    @Query("""
+    SELECT new com.example.demo.dto.reaction.ReactorRow(r.id, r.user.username, r.createdAt)
+    FROM Reaction r
+    WHERE r.post.id = :postId AND r.type = :type
+    ORDER BY r.createdAt DESC, r.id DESC
+""")
+    List<ReactorRow> findReactorsByPost(@Param("postId") UUID postId,
+                                        @Param("type") ReactionType type,
+                                        Pageable pageable);
+
+    @Query("""
+    SELECT new com.example.demo.dto.reaction.ReactorRow(r.id, r.user.username, r.createdAt)
+    FROM Reaction r
+    WHERE r.post.id = :postId AND r.type = :type
+    AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id))
+    ORDER BY r.createdAt DESC, r.id DESC
+""")
+    List<ReactorRow> findReactorsByPostAfter(@Param("postId") UUID postId,
+                                             @Param("type") ReactionType type,
+                                             @Param("createdAt") LocalDateTime createdAt,
+                                             @Param("id") UUID id,
+                                             Pageable pageable);
+
+    @Query("""
+    SELECT new com.example.demo.dto.reaction.ReactorRow(r.id, r.user.username, r.createdAt)
+    FROM Reaction r
+    WHERE r.comment.id = :commentId AND r.type = :type
+    ORDER BY r.createdAt DESC, r.id DESC
+""")
+    List<ReactorRow> findReactorsByComment(@Param("commentId") UUID commentId,
+                                           @Param("type") ReactionType type,
+                                           Pageable pageable);
+
+    @Query("""
+    SELECT new com.example.demo.dto.reaction.ReactorRow(r.id, r.user.username, r.createdAt)
+    FROM Reaction r
+    WHERE r.comment.id = :commentId AND r.type = :type
+    AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id))
+    ORDER BY r.createdAt DESC, r.id DESC
+""")
+    List<ReactorRow> findReactorsByCommentAfter(@Param("commentId") UUID commentId,
+                                                @Param("type") ReactionType type,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") UUID id,
+                                                Pageable pageable);
+
+    // one aggregate per target type for the batch summary endpoint
+    @Query("""
+    SELECT new com.example.demo.dto.reaction.TargetReactionCount(r.post.id, r.type, COUNT(r))
+    FROM Reaction r
+    WHERE r.post.id IN :postIds
+    GROUP BY r.post.id, r.type
+""")
+    List<TargetReactionCount> countByTypeForPosts(@Param("postIds") Collection<UUID> postIds);
+
+    @Query("""
+    SELECT new com.example.demo.dto.reaction.TargetReactionCount(r.comment.id, r.type, COUNT(r))
+    FROM Reaction r
+    WHERE r.comment.id IN :commentIds
+    GROUP BY r.comment.id, r.type
+""")
+    List<TargetReactionCount> countByTypeForComments(@Param("commentIds") Collection<UUID> commentIds);
 }
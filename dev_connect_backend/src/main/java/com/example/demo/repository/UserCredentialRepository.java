@@ -0,0 +1,25 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.UserCredential;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface UserCredentialRepository extends JpaRepository<UserCredential, UUID> {
+
+    @Query("SELECT c.password FROM UserCredential c WHERE c.userId = :userId")
+    Optional<String> findPasswordByUserId(@Param("userId") UUID userId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserCredential c SET c.password = :password "
+            + "WHERE c.userId = (SELECT u.id FROM User u WHERE u.username = :username)")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
+}
@@ -0,0 +1,11 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.User;
+
+import java.util.Optional;
+
+public interface UserNaturalIdRepository {
+
+    // resolved through the natural-id cache instead of a derived query
+    Optional<User> findByUsername(String username);
+}
@@ -1,15 +1,41 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.profile.UserIdentity;
 import com.example.demo.entity.User;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.swing.text.html.Option;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Integer> {
-    Optional<User> findByUsername(String username);
-    Optional<User> findById(UUID id);
-}
\ No newline at end of file
+public interface UserRepository extends JpaRepository<User, UUID>, UserNaturalIdRepository {
+
+    boolean existsByUsername(String username);
+
+    boolean existsByEmail(String email);
+
+    // must be consumed inside a transaction; rows are fetched in chunks, not all at once
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT new com.example.demo.dto.profile.UserIdentity(u.username, u.email) FROM User u")
+    Stream<UserIdentity> streamIdentities();
+
+    @Query("SELECT new com.example.demo.dto.profile.UserIdentity(u.username, u.email) FROM User u WHERE u.id = :id")
+    Optional<UserIdentity> findIdentityById(@Param("id") UUID id);
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Long> findTokenVersionById(@Param("id") UUID id);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.tokenVersion = u.tokenVersion + 1 WHERE u.id = :id")
+    int incrementTokenVersion(@Param("id") UUID id);
+}
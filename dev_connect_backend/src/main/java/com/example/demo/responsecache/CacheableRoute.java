@@ -0,0 +1,44 @@
+package com.example.demo.responsecache;
+
+import com.example.demo.responsecache.DataVersions.Domain;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.regex.Pattern;
+
+/**
+ * Anonymous GET routes whose responses are identical for every visitor,
+ * with the data domains each response is built from.
+ */
+public enum CacheableRoute {
+    // feed and search items carry comment and reaction counts
+    PUBLIC_FEED(Pattern.compile("/api/posts/public"), Domain.POSTS, Domain.COMMENTS, Domain.REACTIONS),
+    SEARCH(Pattern.compile("/api/search"), Domain.POSTS, Domain.COMMENTS, Domain.REACTIONS),
+    POST_COMMENTS(Pattern.compile("/api/posts/[0-9a-fA-F-]{36}/comments"), Domain.POSTS, Domain.COMMENTS, Domain.REACTIONS),
+    POST_REACTIONS(Pattern.compile("/api/posts/[0-9a-fA-F-]{36}/reactions"), Domain.POSTS, Domain.REACTIONS);
+
+    private final Pattern path;
+    private final Domain[] domains;
+
+    CacheableRoute(Pattern path, Domain... domains) {
+        this.path = path;
+        this.domains = domains;
+    }
+
+    public static CacheableRoute of(HttpServletRequest request) {
+        // delta reads depend on the settle window, not just on data versions
+        if (!"GET".equals(request.getMethod()) || request.getParameter("since") != null) {
+            return null;
+        }
+        String servletPath = request.getServletPath();
+        for (CacheableRoute route : values()) {
+            if (route.path.matcher(servletPath).matches()) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    public Domain[] getDomains() {
+        return domains;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.demo.responsecache;
+
+/**
+ * Serialized body of one cacheable response with its precompressed variants.
+ * A variant is null when compressing did not pay off or is unavailable.
+ */
+public record CachedResponse(
+        String contentType,
+        byte[] identity,
+        byte[] gzip,
+        byte[] brotli,
+        long storedAtMillis
+) {
+    public long weight() {
+        return identity.length
+                + (gzip != null ? gzip.length : 0)
+                + (brotli != null ? brotli.length : 0);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.demo.responsecache;
+
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-domain change counters. Services bump a domain after every write that
+ * can change what anonymous readers see, and cached responses are keyed by
+ * the counters of the domains they were built from, so a write simply makes
+ * the old entries unreachable.
+ *
+ * Per-post versions cover a post together with its comments and reactions.
+ * They live in a fixed array of stripes: unrelated posts may share a stripe
+ * and get invalidated together, but a write is never missed.
+ */
+@Component
+public class DataVersions {
+
+    public enum Domain { POSTS, COMMENTS, REACTIONS, USERS }
+
+    private static final int POST_STRIPES = 4096;
+
+    private final AtomicLongArray versions = new AtomicLongArray(Domain.values().length);
+    private final AtomicLongArray postVersions = new AtomicLongArray(POST_STRIPES);
+
+    public void bump(Domain domain) {
+        versions.incrementAndGet(domain.ordinal());
+    }
+
+    public long current(Domain domain) {
+        return versions.get(domain.ordinal());
+    }
+
+    public void bumpPost(UUID postId) {
+        postVersions.incrementAndGet(stripe(postId));
+    }
+
+    public long postVersion(UUID postId) {
+        return postVersions.get(stripe(postId));
+    }
+
+    // for when changes may have been missed: every stamp changes
+    public void bumpAll() {
+        for (Domain domain : Domain.values()) {
+            bump(domain);
+        }
+        for (int i = 0; i < POST_STRIPES; i++) {
+            postVersions.incrementAndGet(i);
+        }
+    }
+
+    // compact stamp for cache keys, e.g. "12.40.7"
+    public String stamp(Domain... domains) {
+        StringBuilder sb = new StringBuilder();
+        for (Domain domain : domains) {
+            if (sb.length() > 0) {
+                sb.append('.');
+            }
+            sb.append(current(domain));
+        }
+        return sb.toString();
+    }
+
+    private static int stripe(UUID postId) {
+        long h = postId.getMostSignificantBits() ^ postId.getLeastSignificantBits();
+        h ^= h >>> 29;
+        return (int) h & (POST_STRIPES - 1);
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.demo.responsecache;
+
+import com.example.demo.security.AuthUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * Strong ETags built from DataVersions stamps instead of hashing the body.
+ * The tag is computed before the controller runs, so a matching
+ * If-None-Match is answered with 304 after a few array reads, with no
+ * query and no serialization.
+ *
+ * Tags also carry a per-boot epoch, so counters restarting at zero can
+ * never reproduce an old tag, plus a time window. The window bounds how
+ * long a write made on another node can go unnoticed. Viewer-specific
+ * responses include the viewer id.
+ */
+@Component
+public class ETagFilter extends OncePerRequestFilter {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final DataVersions versions;
+    private final boolean enabled;
+    private final long windowMillis;
+    private final LongSupplier clock;
+    private final Map<VersionedRoute, Counter> notModified = new EnumMap<>(VersionedRoute.class);
+
+    public ETagFilter(DataVersions versions,
+                      @Value("${responses.etag.enabled:true}") boolean enabled,
+                      @Value("${responses.etag.revalidate-window-ms:10000}") long windowMillis,
+                      MeterRegistry meterRegistry) {
+        this(versions, enabled, windowMillis, meterRegistry, System::currentTimeMillis);
+    }
+
+    ETagFilter(DataVersions versions, boolean enabled, long windowMillis,
+               MeterRegistry meterRegistry, LongSupplier clock) {
+        this.versions = versions;
+        this.enabled = enabled;
+        this.windowMillis = windowMillis;
+        this.clock = clock;
+        for (VersionedRoute route : VersionedRoute.values()) {
+            notModified.put(route, meterRegistry.counter("response.etag.not-modified",
+                    "route", route.name().toLowerCase()));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || VersionedRoute.of(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        VersionedRoute.Match match = VersionedRoute.of(request);
+        Optional<UUID> viewerId = AuthUtil.currentUserId();
+        String etag = etag(match, viewerId);
+        String cacheControl = viewerId.isPresent() ? "private, no-cache" : "no-cache";
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            notModified.get(match.route()).increment();
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        filterChain.doFilter(request, new TaggingResponse(response, etag, cacheControl));
+    }
+
+    String etag(VersionedRoute.Match match, Optional<UUID> viewerId) {
+        long window = windowMillis > 0 ? clock.getAsLong() / windowMillis : 0;
+        StringBuilder tag = new StringBuilder("\"")
+                .append(epoch).append('-')
+                .append(Long.toString(window, 36)).append('-')
+                .append(match.stamp(versions));
+        viewerId.ifPresent(id -> tag.append('-').append(id));
+        return tag.append('"').toString();
+    }
+
+    // If-None-Match uses the weak comparison, so a W/ prefix still matches.
+    // "*" is not honoured: the 304 is answered before the controller checks that
+    // the resource exists and that the viewer may see it
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds the ETag only once the body starts, when the status is known, so
+     * error responses never carry a tag a client could revalidate against.
+     */
+    private static class TaggingResponse extends HttpServletResponseWrapper {
+
+        private final String etag;
+        private final String cacheControl;
+        private boolean tagged;
+
+        TaggingResponse(HttpServletResponse response, String etag, String cacheControl) {
+            super(response);
+            this.etag = etag;
+            this.cacheControl = cacheControl;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            tag();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            tag();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            tag();
+            super.flushBuffer();
+        }
+
+        private void tag() {
+            if (tagged) {
+                return;
+            }
+            tagged = true;
+            if (getStatus() == HttpServletResponse.SC_OK && !isCommitted()) {
+                setHeader(HttpHeaders.ETAG, etag);
+                setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+            }
+        }
+    }
+}
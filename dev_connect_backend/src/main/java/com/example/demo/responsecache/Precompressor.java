@@ -0,0 +1,64 @@
+package com.example.demo.responsecache;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses a cached body once so every hit can be written as-is. Brotli
+ * needs the native brotli4j library; without it only gzip is produced.
+ */
+class Precompressor {
+
+    // tiny bodies grow when compressed and the headers outweigh any saving
+    static final int MIN_SIZE = 256;
+
+    private static final boolean BROTLI_AVAILABLE = brotliAvailable();
+    private static final Encoder.Parameters BROTLI_PARAMS = BROTLI_AVAILABLE
+            ? new Encoder.Parameters().setQuality(6).setMode(Encoder.Mode.TEXT)
+            : null;
+
+    private Precompressor() {
+    }
+
+    static byte[] gzip(byte[] body) {
+        if (body.length < MIN_SIZE) {
+            return null;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return smaller(out.toByteArray(), body);
+    }
+
+    static byte[] brotli(byte[] body) {
+        if (!BROTLI_AVAILABLE || body.length < MIN_SIZE) {
+            return null;
+        }
+        try {
+            return smaller(Encoder.compress(body, BROTLI_PARAMS), body);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static byte[] smaller(byte[] compressed, byte[] body) {
+        return compressed.length < body.length ? compressed : null;
+    }
+
+    private static boolean brotliAvailable() {
+        try {
+            return Brotli4jLoader.isAvailable();
+        } catch (Throwable t) {
+            // missing native library for this platform
+            return false;
+        }
+    }
+}
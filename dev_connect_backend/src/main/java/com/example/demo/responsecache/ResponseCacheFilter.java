@@ -0,0 +1,215 @@
+package com.example.demo.responsecache;
+
+import com.example.demo.security.AuthUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Serves anonymous reads of the routes in CacheableRoute from serialized
+ * bytes. A miss runs the controller once, keeps the JSON body plus gzip and
+ * brotli variants, and every later hit writes the matching variant straight
+ * to the socket. Keys include the DataVersions stamp of the route's domains,
+ * so local writes invalidate by making keys unreachable; the TTL bounds how
+ * long writes made on other nodes can go unseen.
+ *
+ * Requests with a logged-in viewer always bypass the cache, since their
+ * responses carry the viewer's own reactions.
+ */
+@Component
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    static final String CACHE_HEADER = "X-Response-Cache";
+
+    private final Map<String, CachedResponse> entries = new ConcurrentHashMap<>();
+    private final AtomicLong storedBytes = new AtomicLong();
+    private final DataVersions versions;
+    private final boolean enabled;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final LongSupplier clock;
+    private final Map<CacheableRoute, Counter> hits = new EnumMap<>(CacheableRoute.class);
+    private final Map<CacheableRoute, Counter> misses = new EnumMap<>(CacheableRoute.class);
+    private final Counter bypassed;
+
+    public ResponseCacheFilter(DataVersions versions,
+                               @Value("${responses.cache.enabled:true}") boolean enabled,
+                               @Value("${responses.cache.ttl-ms:10000}") long ttlMillis,
+                               @Value("${responses.cache.max-entries:10000}") int maxEntries,
+                               @Value("${responses.cache.max-bytes:67108864}") long maxBytes,
+                               MeterRegistry meterRegistry) {
+        this(versions, enabled, ttlMillis, maxEntries, maxBytes, meterRegistry, System::currentTimeMillis);
+    }
+
+    ResponseCacheFilter(DataVersions versions, boolean enabled, long ttlMillis, int maxEntries, long maxBytes,
+                        MeterRegistry meterRegistry, LongSupplier clock) {
+        this.versions = versions;
+        this.enabled = enabled;
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.clock = clock;
+        for (CacheableRoute route : CacheableRoute.values()) {
+            String name = route.name().toLowerCase();
+            hits.put(route, meterRegistry.counter("response.cache.hits", "route", name));
+            misses.put(route, meterRegistry.counter("response.cache.misses", "route", name));
+        }
+        this.bypassed = meterRegistry.counter("response.cache.bypassed");
+        Gauge.builder("response.cache.entries", entries, Map::size).register(meterRegistry);
+        Gauge.builder("response.cache.bytes", storedBytes, AtomicLong::get).register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || CacheableRoute.of(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        if (isViewerSpecific(request)) {
+            bypassed.increment();
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        CacheableRoute route = CacheableRoute.of(request);
+        // stamp taken before rendering: a write that lands meanwhile leaves this entry unreachable
+        String key = key(route, request);
+        long now = clock.getAsLong();
+        CachedResponse cached = entries.get(key);
+        if (cached != null && now - cached.storedAtMillis() < ttlMillis) {
+            hits.get(route).increment();
+            response.setHeader(CACHE_HEADER, "HIT");
+            write(cached, request, response);
+            return;
+        }
+        misses.get(route).increment();
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+
+        String contentType = wrapper.getContentType();
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK
+                || contentType == null || !contentType.contains("json")
+                || request.isAsyncStarted()) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        byte[] body = wrapper.getContentAsByteArray();
+        CachedResponse entry = new CachedResponse(contentType, body,
+                Precompressor.gzip(body), Precompressor.brotli(body), now);
+        store(key, entry);
+        response.setHeader(CACHE_HEADER, "MISS");
+        write(entry, request, response);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private static boolean isViewerSpecific(HttpServletRequest request) {
+        return AuthUtil.currentUserId().isPresent() || request.getHeader(HttpHeaders.AUTHORIZATION) != null;
+    }
+
+    private String key(CacheableRoute route, HttpServletRequest request) {
+        StringBuilder key = new StringBuilder(route.name())
+                .append(':').append(request.getServletPath())
+                .append('@').append(versions.stamp(route.getDomains()));
+        // parameter order must not split the cache
+        Map<String, String[]> params = new TreeMap<>(request.getParameterMap());
+        for (Map.Entry<String, String[]> param : params.entrySet()) {
+            key.append('&').append(param.getKey()).append('=').append(String.join(",", param.getValue()));
+        }
+        return key.toString();
+    }
+
+    private void store(String key, CachedResponse entry) {
+        if (entry.weight() > maxBytes / 16) {
+            return;
+        }
+        if (entries.size() >= maxEntries || storedBytes.get() + entry.weight() > maxBytes) {
+            evict(entry.weight());
+        }
+        CachedResponse previous = entries.put(key, entry);
+        storedBytes.addAndGet(entry.weight() - (previous != null ? previous.weight() : 0));
+    }
+
+    // expired entries first, then whatever the iterator yields until there is room
+    private void evict(long incoming) {
+        long now = clock.getAsLong();
+        Iterator<CachedResponse> it = entries.values().iterator();
+        while (it.hasNext()) {
+            CachedResponse e = it.next();
+            if (now - e.storedAtMillis() >= ttlMillis) {
+                it.remove();
+                storedBytes.addAndGet(-e.weight());
+            }
+        }
+        it = entries.values().iterator();
+        while ((entries.size() >= maxEntries || storedBytes.get() + incoming > maxBytes) && it.hasNext()) {
+            CachedResponse e = it.next();
+            it.remove();
+            storedBytes.addAndGet(-e.weight());
+        }
+    }
+
+    private static void write(CachedResponse entry, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        byte[] body = entry.identity();
+        if (entry.brotli() != null && accepts(acceptEncoding, "br")) {
+            body = entry.brotli();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "br");
+        } else if (entry.gzip() != null && accepts(acceptEncoding, "gzip")) {
+            body = entry.gzip();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setContentType(entry.contentType());
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    static boolean accepts(String acceptEncoding, String coding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            if (!tokens[0].trim().equalsIgnoreCase(coding)) {
+                continue;
+            }
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim().replace(" ", "");
+                if (param.startsWith("q=") && param.substring(2).matches("0(\\.0*)?")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.demo.responsecache;
+
+import com.example.demo.responsecache.DataVersions.Domain;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * GET routes that get an ETag, each with the in-memory version stamp that
+ * changes whenever its response could. Computing a stamp never touches the
+ * database.
+ */
+public enum VersionedRoute {
+    // post lists carry comment and reaction counts
+    PUBLIC_FEED("/api/posts/public", Domain.POSTS, Domain.COMMENTS, Domain.REACTIONS),
+    SEARCH("/api/search", Domain.POSTS, Domain.COMMENTS, Domain.REACTIONS),
+    USER_POSTS("/api/posts(/my-post)?", Domain.POSTS, Domain.COMMENTS, Domain.REACTIONS),
+    POST_COMMENTS("/api/posts/(" + Patterns.UUID + ")/comments"),
+    POST_REACTIONS("/api/posts/(" + Patterns.UUID + ")/reactions(/[A-Za-z]+)?"),
+    COMMENT_REACTIONS("/api/comments/" + Patterns.UUID + "/reactions(/[A-Za-z]+)?", Domain.REACTIONS),
+    PROFILE("/api/users(/my-profile)?", Domain.USERS);
+
+    private static final class Patterns {
+        static final String UUID = "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}";
+    }
+
+    /** A matched route plus the path it matched, for per-post stamps. */
+    public record Match(VersionedRoute route, Matcher matcher) {
+        public String stamp(DataVersions versions) {
+            return route.stamp(versions, matcher);
+        }
+    }
+
+    private final Pattern path;
+    private final Domain[] domains;
+
+    VersionedRoute(String path, Domain... domains) {
+        this.path = Pattern.compile(path);
+        this.domains = domains;
+    }
+
+    public static Match of(HttpServletRequest request) {
+        // delta reads depend on the settle window, not just on data versions
+        if (!"GET".equals(request.getMethod()) || request.getParameter("since") != null) {
+            return null;
+        }
+        String servletPath = request.getServletPath();
+        for (VersionedRoute route : values()) {
+            Matcher matcher = route.path.matcher(servletPath);
+            if (matcher.matches()) {
+                return new Match(route, matcher);
+            }
+        }
+        return null;
+    }
+
+    // routes without global domains are versioned by the post in their path
+    private String stamp(DataVersions versions, Matcher matcher) {
+        if (domains.length > 0) {
+            return versions.stamp(domains);
+        }
+        return "p" + versions.postVersion(UUID.fromString(matcher.group(1)));
+    }
+}
@@ -1,11 +1,15 @@
 package com.example.demo.security;
 
+import com.example.demo.model.UserPrincipal;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
+import java.util.Optional;
+import java.util.UUID;
+
 
 @Component
 public class AuthUtil {
@@ -24,4 +28,16 @@ public class AuthUtil {
                 && auth.isAuthenticated()
                 && !(auth instanceof AnonymousAuthenticationToken);
     }
+
+    // id of the logged-in viewer, empty for anonymous requests
+    public static Optional<UUID> currentUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null
+                || !auth.isAuthenticated()
+                || auth instanceof AnonymousAuthenticationToken
+                || !(auth.getPrincipal() instanceof UserPrincipal principal)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(principal.getId());
+    }
 }
@@ -0,0 +1,58 @@
+package com.example.demo.security;
+
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.util.function.IntToLongFunction;
+
+/**
+ * Picks the BCrypt work factor for this machine: the highest cost whose
+ * measured hash time stays within the target. Each cost step doubles the
+ * work, so calibration stops at the first cost that is too slow.
+ */
+public class BCryptCostCalibrator {
+
+    private static final int SAMPLES = 3;
+
+    private final long targetNanos;
+    private final int minCost;
+    private final int maxCost;
+    private final IntToLongFunction hashTimer;
+
+    public BCryptCostCalibrator(long targetMillis, int minCost, int maxCost) {
+        this(targetMillis, minCost, maxCost, BCryptCostCalibrator::timeHash);
+    }
+
+    // the timer is swappable so tests do not have to hash for real
+    BCryptCostCalibrator(long targetMillis, int minCost, int maxCost, IntToLongFunction hashTimer) {
+        if (minCost < 4 || maxCost > 31 || minCost > maxCost) {
+            throw new IllegalArgumentException("BCrypt cost range must be within 4..31");
+        }
+        this.targetNanos = targetMillis * 1_000_000;
+        this.minCost = minCost;
+        this.maxCost = maxCost;
+        this.hashTimer = hashTimer;
+    }
+
+    public int calibrate() {
+        int chosen = minCost;
+        for (int cost = minCost; cost <= maxCost; cost++) {
+            if (hashTimer.applyAsLong(cost) > targetNanos) {
+                break;
+            }
+            chosen = cost;
+        }
+        return chosen;
+    }
+
+    // best of a few runs, the first one also warms up the JIT
+    private static long timeHash(int cost) {
+        String salt = BCrypt.gensalt(cost);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw("calibration-password", salt);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
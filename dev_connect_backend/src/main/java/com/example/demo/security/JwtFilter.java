@@ -1,15 +1,17 @@
 package com.example.demo.security;
 
 import com.example.demo.model.UserPrincipal;
-import com.example.demo.repository.UserRepository;
-import com.example.demo.CustomUserService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.ApplicationContext;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -17,6 +19,9 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
 @Component
 public class JwtFilter extends OncePerRequestFilter {
@@ -25,10 +30,21 @@ public class JwtFilter extends OncePerRequestFilter {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private UserRepository userRepo;
+    private PrincipalCache principalCache;
 
     @Autowired
-    ApplicationContext context;
+    private TokenVersionRegistry tokenVersions;
+
+    @Autowired
+    private TokenRevocationService revocations;
+
+    // build the principal straight from verified claims instead of loading the user
+    @Value("${security.jwt.stateless-principal:true}")
+    private boolean statelessPrincipal = true;
+
+    // accounts granted ROLE_ADMIN, which guards the operational actuator endpoints
+    @Value("${security.admin-usernames:}")
+    private Set<String> adminUsernames = Set.of();
 
     @Override
     protected void doFilterInternal(
@@ -37,31 +53,37 @@ public class JwtFilter extends OncePerRequestFilter {
             FilterChain filterChain) throws ServletException, IOException {
 
         String token = null;
-        String usernameFromToken = null;
+        Claims claims = null;
         // Skip public endpoints
         String path = request.getServletPath();
         if (path.startsWith("/auth/login")
                 || path.startsWith("/auth/logout")
-                || path.startsWith("/api/users/register")
-                || path.startsWith("/api/posts/public")
-                || path.startsWith("/api/search")) {
+                || path.startsWith("/api/users/register")) {
             filterChain.doFilter(request, response);
             return;
         }
 
         token = resolveToken(request);
         if (token != null) {
-            usernameFromToken = jwtUtil.extractUsername(token);
+            try {
+                // signature and expiry are verified exactly once here
+                claims = jwtUtil.parseVerified(token);
+                // answered by the in-memory filter unless the jti is a possible positive
+                if (revocations.isRevoked(JwtUtil.extractTokenId(claims))) {
+                    claims = null;
+                }
+            } catch (JwtException | IllegalArgumentException ex) {
+                // feed and search are open to everyone, a stale cookie just means anonymous
+                claims = null;
+            }
         }
 
-        if (usernameFromToken != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            // userDetails from database
-            UserPrincipal userPrincipal =
-                    (UserPrincipal) context.getBean(CustomUserService.class).loadUserByUsername(usernameFromToken);
+        if (claims != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserPrincipal userPrincipal = resolvePrincipal(claims);
 
-            if(jwtUtil.IsTokenValid(token, userPrincipal)) { // username from request
+            if (userPrincipal != null) {
                 UsernamePasswordAuthenticationToken auth =
-                        new UsernamePasswordAuthenticationToken(userPrincipal, null, Collections.emptyList());
+                        new UsernamePasswordAuthenticationToken(userPrincipal, null, authoritiesOf(userPrincipal));
                 auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(auth);
             }
@@ -70,7 +92,27 @@ public class JwtFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
-    private String resolveToken(HttpServletRequest request) {
+    private List<GrantedAuthority> authoritiesOf(UserPrincipal userPrincipal) {
+        return adminUsernames.contains(userPrincipal.getUsername())
+                ? List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))
+                : Collections.emptyList();
+    }
+
+    private UserPrincipal resolvePrincipal(Claims claims) {
+        UUID userId = JwtUtil.extractUserId(claims);
+        if (statelessPrincipal && userId != null) {
+            // stale token after a security-relevant change, treat as anonymous
+            if (!tokenVersions.isCurrent(userId, JwtUtil.extractTokenVersion(claims))) {
+                return null;
+            }
+            return UserPrincipal.of(userId, claims.getSubject());
+        }
+        // older tokens only carry the username: served from the principal cache, the database is only hit on a miss
+        return principalCache.get(claims.getSubject());
+    }
+
+    // shared with RateLimitFilter, which keys buckets by the token's user
+    public static String resolveToken(HttpServletRequest request) {
         // Prefer cookie-based token for session semantics
         if (request.getCookies() != null) {
             for (jakarta.servlet.http.Cookie cookie : request.getCookies()) {
@@ -1,6 +1,9 @@
 package com.example.demo.security;
 
+import com.example.demo.entity.User;
+import com.example.demo.model.UserPrincipal;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -12,38 +15,91 @@ import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
-    @Value("${jwt.expiration}")
-    private long expiration;
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String TOKEN_VERSION_CLAIM = "ver";
 
-    public JwtUtil(@Value("${jwt.secret}") String secret) {
-        this.secret = secret;
+    private final long expiration;
+
+    // decoded and built once, both are immutable and thread-safe
+    private final SecretKey key;
+    private final JwtParser parser;
+    private final VerifiedTokenCache verifiedTokens;
+
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   @Value("${jwt.expiration}") long expiration,
+                   @Value("${jwt.verified-cache-size:10000}") int verifiedCacheSize) {
+        this.expiration = expiration;
+        this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.verifiedTokens = new VerifiedTokenCache(verifiedCacheSize);
     }
 
     public String generateToken(String username) {
+        return generateToken(username, new HashMap<>());
+    }
+
+    // self-contained token: JwtFilter can build the principal without touching the users table
+    public String generateToken(String username, UUID userId, long tokenVersion) {
         Map<String, Object> claims = new HashMap<>();
+        claims.put(USER_ID_CLAIM, userId.toString());
+        claims.put(TOKEN_VERSION_CLAIM, tokenVersion);
+        return generateToken(username, claims);
+    }
+
+    public String generateToken(UserPrincipal principal) {
+        return generateToken(principal.getUsername(), principal.getId(), principal.getTokenVersion());
+    }
+
+    private String generateToken(String username, Map<String, Object> claims) {
         return Jwts.builder()
                 .claims()
                 .add(claims)
                 .subject(username)
+                // jti lets a single token be revoked on logout
+                .id(UUID.randomUUID().toString())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration ))
                 .and()
-                .signWith(getKey())
+                .signWith(key)
                 .compact();
     }
 
+    /**
+     * Verifies signature and expiry once and returns the claims. Tokens seen
+     * before are answered from the verified-token cache until they expire.
+     * Throws a JwtException when the token is invalid or expired.
+     */
+    public Claims parseVerified(String token) {
+        Claims cached = verifiedTokens.get(token);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        verifiedTokens.put(token, claims);
+        return claims;
+    }
+
+    // null for tokens issued before user ids were embedded
+    public static UUID extractUserId(Claims claims) {
+        String userId = claims.get(USER_ID_CLAIM, String.class);
+        return userId == null ? null : UUID.fromString(userId);
+    }
 
-    private SecretKey getKey() {
-        byte[] keyByte = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyByte);
+    // null for tokens issued before ids were added; those can only expire
+    public static UUID extractTokenId(Claims claims) {
+        String jti = claims.getId();
+        return jti == null ? null : UUID.fromString(jti);
+    }
 
+    public static long extractTokenVersion(Claims claims) {
+        Number version = claims.get(TOKEN_VERSION_CLAIM, Number.class);
+        return version == null ? User.INITIAL_TOKEN_VERSION : version.longValue();
     }
 
     public String extractUsername(String token) {
@@ -52,17 +108,12 @@ public class JwtUtil {
     }
 
     private <T> T extractClaim(String token, Function<Claims, T> claimResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parseVerified(token);
         return claimResolver.apply(claims);
     }
 
     public Claims extractAllClaims(String token) {
-            return Jwts.parser()
-                    .verifyWith(getKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-
+        return parseVerified(token);
     }
 
     public boolean isExpired(String token) {
@@ -70,8 +121,9 @@ public class JwtUtil {
     }
 
     public boolean IsTokenValid(String token, UserDetails userDetails) {
-        String username = extractUsername(token);
-        return username.equals(userDetails.getUsername()) && !isExpired(token);
+        Claims claims = parseVerified(token);
+        return claims.getSubject().equals(userDetails.getUsername())
+                && !claims.getExpiration().before(new Date());
     }
 
     private Date extractExpiration(String token) {
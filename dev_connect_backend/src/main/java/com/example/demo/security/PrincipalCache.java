@@ -0,0 +1,97 @@
+package com.example.demo.security;
+
+import com.example.demo.CustomUserService;
+import com.example.demo.model.UserPrincipal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded, short-lived cache of authenticated principals keyed by username so
+ * JwtFilter does not load the user row on every request. Cached principals
+ * only carry id and username; the password hash is never kept here.
+ */
+@Component
+public class PrincipalCache {
+
+    private record Entry(UserPrincipal principal, long expiresAt) {}
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final CustomUserService customUserService;
+    private final long ttlMillis;
+    private final int maxSize;
+    private final Counter hits;
+    private final Counter misses;
+
+    public PrincipalCache(CustomUserService customUserService,
+                          @Value("${security.principal-cache.ttl-ms:60000}") long ttlMillis,
+                          @Value("${security.principal-cache.max-size:10000}") int maxSize,
+                          MeterRegistry meterRegistry) {
+        this.customUserService = customUserService;
+        this.ttlMillis = ttlMillis;
+        this.maxSize = maxSize;
+        // every hit is a users-table lookup that did not happen
+        this.hits = meterRegistry.counter("principal.cache.hits");
+        this.misses = meterRegistry.counter("principal.cache.misses");
+        Gauge.builder("principal.cache.hit.ratio", this, PrincipalCache::hitRatio).register(meterRegistry);
+        Gauge.builder("principal.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    public UserPrincipal get(String username) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(username);
+        if (entry != null && entry.expiresAt() > now) {
+            hits.increment();
+            return entry.principal();
+        }
+        misses.increment();
+        UserPrincipal loaded = (UserPrincipal) customUserService.loadUserByUsername(username);
+        UserPrincipal slim = withoutCredentials(loaded);
+        evictIfFull(now);
+        entries.put(username, new Entry(slim, now + ttlMillis));
+        return slim;
+    }
+
+    public void invalidate(String username) {
+        if (username != null) {
+            entries.remove(username);
+        }
+    }
+
+    // by id also catches an entry cached under a username that has since changed
+    public void invalidateUser(UUID userId) {
+        entries.values().removeIf(e -> e.principal().getId().equals(userId));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private UserPrincipal withoutCredentials(UserPrincipal principal) {
+        return UserPrincipal.of(principal.getId(), principal.getUsername());
+    }
+
+    private void evictIfFull(long now) {
+        if (entries.size() < maxSize) {
+            return;
+        }
+        entries.values().removeIf(e -> e.expiresAt() <= now);
+        Iterator<String> it = entries.keySet().iterator();
+        while (entries.size() >= maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.demo.security;
+
+import com.example.demo.entity.RevokedToken;
+import com.example.demo.repository.RevokedTokenRepository;
+import com.example.demo.utils.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Revoked token ids (jti) live in the revoked_tokens table, which is the
+ * source of truth, and in a per-node Bloom filter in front of it. A filter
+ * miss means "definitely not revoked" and costs no query; only possible
+ * positives are confirmed with a primary-key lookup.
+ *
+ * Local revocations go into the filter immediately, revocations from other
+ * nodes are picked up by the incremental sync. The filter is rebuilt from the
+ * table on a longer interval so pruned entries stop producing false positives.
+ */
+@Component
+public class TokenRevocationService {
+
+    // overlap between sync windows so a row committed during a sync is not missed
+    private static final long SYNC_OVERLAP_SECONDS = 5;
+
+    private final RevokedTokenRepository revokedTokenRepo;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final Counter filterNegatives;
+    private final Counter exactLookups;
+    private final Counter falsePositives;
+
+    // null until the first rebuild, every check goes to the table until then
+    private volatile BloomFilter filter;
+    private volatile LocalDateTime syncedUpTo;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepo,
+                                  @Value("${security.revocation.expected-insertions:100000}") long expectedInsertions,
+                                  @Value("${security.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+                                  MeterRegistry meterRegistry) {
+        this.revokedTokenRepo = revokedTokenRepo;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filterNegatives = meterRegistry.counter("token.revocation.filter.negatives");
+        this.exactLookups = meterRegistry.counter("token.revocation.exact.lookups");
+        this.falsePositives = meterRegistry.counter("token.revocation.false.positives");
+    }
+
+    public void revoke(UUID jti, Date expiresAt) {
+        if (jti == null || expiresAt == null || expiresAt.before(new Date())) {
+            // nothing to revoke, the token is already unusable
+            return;
+        }
+        LocalDateTime expiry = LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault());
+        revokedTokenRepo.save(new RevokedToken(jti, expiry));
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(jti.toString());
+        }
+    }
+
+    public boolean isRevoked(UUID jti) {
+        if (jti == null) {
+            return false;
+        }
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(jti.toString())) {
+            filterNegatives.increment();
+            return false;
+        }
+        exactLookups.increment();
+        boolean revoked = revokedTokenRepo.existsById(jti);
+        if (!revoked && current != null) {
+            falsePositives.increment();
+        }
+        return revoked;
+    }
+
+    @Scheduled(fixedDelayString = "${security.revocation.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<UUID> active = revokedTokenRepo.findActiveJtis(startedAt);
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedInsertions, active.size() * 2L), falsePositiveRate);
+        for (UUID jti : active) {
+            rebuilt.put(jti.toString());
+        }
+        filter = rebuilt;
+        // revocations that raced the swap are re-read by the next sync
+        syncedUpTo = startedAt;
+    }
+
+    @Scheduled(fixedDelayString = "${security.revocation.sync-interval-ms:5000}")
+    public void syncRecent() {
+        BloomFilter current = filter;
+        LocalDateTime since = syncedUpTo;
+        if (current == null || since == null) {
+            rebuild();
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (UUID jti : revokedTokenRepo.findJtisRevokedSince(since.minusSeconds(SYNC_OVERLAP_SECONDS), now)) {
+            current.put(jti.toString());
+        }
+        syncedUpTo = now;
+    }
+
+    @Scheduled(fixedDelayString = "${security.revocation.prune-interval-ms:3600000}")
+    public void pruneExpired() {
+        // expired tokens fail verification anyway; the filter forgets them on the next rebuild
+        revokedTokenRepo.deleteExpired(LocalDateTime.now());
+    }
+}
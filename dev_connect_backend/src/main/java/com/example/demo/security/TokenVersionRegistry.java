@@ -0,0 +1,84 @@
+package com.example.demo.security;
+
+import com.example.demo.cluster.ClusterInvalidator;
+import com.example.demo.enums.InvalidationTopic;
+import com.example.demo.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Current token version per user, used to reject stateless tokens issued
+ * before a security-relevant change. Versions are cached briefly so the check
+ * is a map lookup; a miss costs one single-column primary-key read.
+ */
+@Component
+public class TokenVersionRegistry {
+
+    private record Entry(long version, long expiresAt) {}
+
+    private final Map<UUID, Entry> versions = new ConcurrentHashMap<>();
+    private final UserRepository userRepo;
+    private final ClusterInvalidator clusterInvalidator;
+    private final long ttlMillis;
+    private final int maxSize;
+
+    public TokenVersionRegistry(UserRepository userRepo,
+                                ClusterInvalidator clusterInvalidator,
+                                @Value("${security.token-version.ttl-ms:30000}") long ttlMillis,
+                                @Value("${security.token-version.max-size:50000}") int maxSize) {
+        this.userRepo = userRepo;
+        this.clusterInvalidator = clusterInvalidator;
+        this.ttlMillis = ttlMillis;
+        this.maxSize = maxSize;
+    }
+
+    public boolean isCurrent(UUID userId, long tokenVersion) {
+        long now = System.currentTimeMillis();
+        Entry entry = versions.get(userId);
+        if (entry == null || entry.expiresAt() <= now) {
+            Optional<Long> current = userRepo.findTokenVersionById(userId);
+            if (current.isEmpty()) {
+                // deleted user
+                versions.remove(userId);
+                return false;
+            }
+            entry = new Entry(current.get(), now + ttlMillis);
+            evictIfFull();
+            versions.put(userId, entry);
+        }
+        return entry.version() == tokenVersion;
+    }
+
+    // invalidates every token the user holds
+    public void bump(UUID userId) {
+        userRepo.incrementTokenVersion(userId);
+        versions.remove(userId);
+        // other nodes would otherwise accept the old tokens until their entry expires
+        clusterInvalidator.invalidate(InvalidationTopic.USER, userId);
+    }
+
+    public void invalidate(UUID userId) {
+        versions.remove(userId);
+    }
+
+    public void clear() {
+        versions.clear();
+    }
+
+    private void evictIfFull() {
+        if (versions.size() < maxSize) {
+            return;
+        }
+        Iterator<UUID> it = versions.keySet().iterator();
+        while (versions.size() >= maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+}
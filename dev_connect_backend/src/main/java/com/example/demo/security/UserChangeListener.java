@@ -0,0 +1,29 @@
+package com.example.demo.security;
+
+import com.example.demo.cluster.ClusterInvalidator;
+import com.example.demo.entity.User;
+import com.example.demo.enums.InvalidationTopic;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+// drops cached principals whenever a user row changes or disappears, whatever code path did it, here and on the other nodes
+@Component
+public class UserChangeListener {
+
+    private final PrincipalCache principalCache;
+    private final ClusterInvalidator clusterInvalidator;
+
+    public UserChangeListener(@Lazy PrincipalCache principalCache, @Lazy ClusterInvalidator clusterInvalidator) {
+        this.principalCache = principalCache;
+        this.clusterInvalidator = clusterInvalidator;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(User user) {
+        principalCache.invalidate(user.getUsername());
+        clusterInvalidator.invalidate(InvalidationTopic.USER, user.getId());
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.demo.sync;
+
+import com.example.demo.entity.ContentChange;
+import com.example.demo.enums.ChangeKind;
+import com.example.demo.enums.ChangeTarget;
+import com.example.demo.repository.ContentChangeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Append-only log of post and comment writes backing the delta-sync
+ * endpoints. Reads walk the (target, seq) or (post, seq) index forward from
+ * the client's cursor.
+ *
+ * Sequence values are handed out before commit, so a row can become visible
+ * after a higher one. Reads therefore stop at rows older than the settle
+ * delay; a cursor never moves past a change that could still show up.
+ */
+@Service
+public class ChangeLog {
+
+    public static final int DEFAULT_BATCH = 100;
+    public static final int MAX_BATCH = 500;
+
+    /** Latest change per target since the cursor, oldest first. */
+    public record Batch(Map<UUID, ChangeKind> changes, String since, boolean hasMore, boolean resync) {}
+
+    private interface ChangeQuery {
+        List<ContentChange> find(long since, LocalDateTime settledBefore, Pageable pageable);
+    }
+
+    private final ContentChangeRepository changeRepo;
+    private final Duration settleDelay;
+    private final Duration retention;
+
+    @Autowired
+    public ChangeLog(ContentChangeRepository changeRepo,
+                     @Value("${sync.settle-ms:2000}") long settleMillis,
+                     @Value("${sync.retention-days:7}") long retentionDays) {
+        this.changeRepo = changeRepo;
+        this.settleDelay = Duration.ofMillis(settleMillis);
+        this.retention = Duration.ofDays(retentionDays);
+    }
+
+    public void record(ChangeTarget target, UUID targetId, UUID postId, ChangeKind kind) {
+        changeRepo.save(new ContentChange(target, targetId, postId, kind));
+    }
+
+    public Batch postChanges(String since, Integer size) {
+        return read(since, size, (seq, settledBefore, pageable) -> changeRepo.findChanges(
+                ChangeTarget.POST, seq, settledBefore, pageable));
+    }
+
+    public Batch commentChanges(UUID postId, String since, Integer size) {
+        return read(since, size, (seq, settledBefore, pageable) -> changeRepo.findChangesForPost(
+                postId, ChangeTarget.COMMENT, seq, settledBefore, pageable));
+    }
+
+    @Scheduled(fixedDelayString = "${sync.prune-interval-ms:3600000}")
+    public void prune() {
+        changeRepo.deleteOlderThan(LocalDateTime.now().minus(retention));
+    }
+
+    private Batch read(String since, Integer size, ChangeQuery query) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime settledBefore = now.minus(settleDelay);
+        // no cursor yet: hand out the current head, the client loads the full list next
+        if (since == null || since.isBlank()) {
+            return new Batch(Map.of(), new SyncCursor(changeRepo.findSettledHead(settledBefore), now).encode(), false, false);
+        }
+        SyncCursor cursor = SyncCursor.decode(since);
+        // rows after this cursor may already be pruned
+        if (cursor.issuedAt().isBefore(now.minus(retention).plus(settleDelay))) {
+            return new Batch(Map.of(), new SyncCursor(changeRepo.findSettledHead(settledBefore), now).encode(), false, true);
+        }
+
+        int limit = Math.min(size == null || size < 1 ? DEFAULT_BATCH : size, MAX_BATCH);
+        List<ContentChange> rows = query.find(cursor.seq(), settledBefore, PageRequest.of(0, limit + 1));
+        boolean hasMore = rows.size() > limit;
+        if (hasMore) {
+            rows = rows.subList(0, limit);
+        }
+        Map<UUID, ChangeKind> changes = new LinkedHashMap<>();
+        for (ContentChange row : rows) {
+            // a later change to the same target supersedes the earlier one
+            changes.remove(row.getTargetId());
+            changes.put(row.getTargetId(), row.getKind());
+        }
+        long next = rows.isEmpty() ? cursor.seq() : rows.get(rows.size() - 1).getSeq();
+        return new Batch(changes, new SyncCursor(next, now).encode(), hasMore, false);
+    }
+}
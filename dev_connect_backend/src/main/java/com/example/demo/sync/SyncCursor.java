@@ -0,0 +1,36 @@
+package com.example.demo.sync;
+
+import com.example.demo.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque delta-sync cursor: the last change sequence a client has seen and
+ * when the cursor was handed out, so cursors older than the change log's
+ * retention can be told to resync.
+ */
+public record SyncCursor(long seq, LocalDateTime issuedAt) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = seq + SEPARATOR + issuedAt;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SyncCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int split = raw.indexOf(SEPARATOR);
+            return new SyncCursor(
+                    Long.parseLong(raw.substring(0, split)),
+                    LocalDateTime.parse(raw.substring(split + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException ex) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
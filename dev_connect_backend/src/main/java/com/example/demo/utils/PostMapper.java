@@ -2,6 +2,8 @@ package com.example.demo.utils;
 
 import com.example.demo.dto.post.PostResponse;
 import com.example.demo.entity.Post;
+import com.example.demo.entity.PostFeedView;
+import com.example.demo.enums.ReactionType;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -10,7 +12,8 @@ public class PostMapper {
     public PostResponse toResponse(
             Post post,
             long commentCount,
-            long reactionCount
+            long reactionCount,
+            ReactionType myReaction
     ) {
         return new PostResponse(
                 post.getId(),
@@ -22,8 +25,24 @@ public class PostMapper {
                 post.getCreatedAt(),
                 post.getUpdatedAt(),
                 commentCount,
-                reactionCount
+                reactionCount,
+                myReaction
         );
     }
-}
 
+    public PostResponse toResponse(PostFeedView view, ReactionType myReaction) {
+        return new PostResponse(
+                view.getId(),
+                view.getTitle(),
+                view.getContent(),
+                view.getTags(),
+                view.getVisibility().name(),
+                view.getAuthorUsername(),
+                view.getCreatedAt(),
+                view.getUpdatedAt(),
+                view.getCommentCount(),
+                view.getReactionCount(),
+                myReaction
+        );
+    }
+}
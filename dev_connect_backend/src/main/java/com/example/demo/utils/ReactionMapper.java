@@ -1,31 +1,36 @@
 package com.example.demo.utils;
 
 import com.example.demo.dto.reaction.ReactionSummary;
-import com.example.demo.entity.Reaction;
+import com.example.demo.dto.reaction.ReactionTypeCount;
+import com.example.demo.dto.reaction.ReactorResponse;
+import com.example.demo.dto.reaction.ReactorRow;
+import com.example.demo.enums.ReactionType;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @Component
 public class ReactionMapper {
 
-    public List<ReactionSummary> toReactionMap(List<Reaction> reactions) {
-        if (reactions == null || reactions.isEmpty()) {
+    public List<ReactionSummary> toSummaries(
+            List<ReactionTypeCount> counts,
+            Function<ReactionType, List<String>> previewUsernames
+    ) {
+        if (counts == null || counts.isEmpty()) {
             return List.of();
         }
 
-        return reactions.stream()
-                .collect(Collectors.groupingBy(r -> r.getType().name()))
-                .values()
-                .stream()
-                .map(group -> new ReactionSummary(
-                        group.get(0).getType().name(),
-                        group.size(),
-                        group.stream()
-                                .map(r -> r.getUser().getUsername())
-                                .toList()
+        return counts.stream()
+                .map(c -> new ReactionSummary(
+                        c.type().name(),
+                        c.count(),
+                        previewUsernames.apply(c.type())
                 ))
                 .toList();
     }
+
+    public ReactorResponse toReactor(ReactorRow row) {
+        return new ReactorResponse(row.username(), row.reactedAt());
+    }
 }
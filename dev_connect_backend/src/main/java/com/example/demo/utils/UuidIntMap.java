@@ -0,0 +1,159 @@
+package com.example.demo.utils;
+
+import java.util.UUID;
+
+/**
+ * Open-addressing map from UUID to a non-negative int, stored in three
+ * primitive arrays with linear probing. No boxing and no per-entry objects:
+ * a million entries take about 20 MB. Not thread-safe; callers guard it.
+ *
+ * The nil UUID (all zero bits) marks an empty slot and cannot be stored.
+ */
+public class UuidIntMap {
+
+    public static final int MISSING = -1;
+
+    private long[] msb;
+    private long[] lsb;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    public UuidIntMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    public int get(UUID key) {
+        return get(key.getMostSignificantBits(), key.getLeastSignificantBits());
+    }
+
+    // safe to call while a writer is mutating: it may return a wrong answer but never throws or spins
+    public int get(long hi, long lo) {
+        long[] keysHi = msb;
+        long[] keysLo = lsb;
+        int[] vals = values;
+        int m = keysHi.length - 1;
+        if (keysLo.length != keysHi.length || vals.length != keysHi.length) {
+            return MISSING;
+        }
+        int i = slot(hi, lo, m);
+        for (int probes = 0; probes <= m; probes++) {
+            long h = keysHi[i];
+            long l = keysLo[i];
+            if (h == hi && l == lo) {
+                return vals[i];
+            }
+            if (h == 0 && l == 0) {
+                return MISSING;
+            }
+            i = (i + 1) & m;
+        }
+        return MISSING;
+    }
+
+    public void put(UUID key, int value) {
+        long hi = key.getMostSignificantBits();
+        long lo = key.getLeastSignificantBits();
+        if ((hi == 0 && lo == 0) || value < 0) {
+            throw new IllegalArgumentException("nil key or negative value");
+        }
+        if ((size + 1) * 2 > msb.length) {
+            resize(msb.length * 2);
+        }
+        int i = slot(hi, lo, mask);
+        while (true) {
+            if (msb[i] == hi && lsb[i] == lo) {
+                values[i] = value;
+                return;
+            }
+            if (msb[i] == 0 && lsb[i] == 0) {
+                values[i] = value;
+                lsb[i] = lo;
+                msb[i] = hi;
+                size++;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    public boolean remove(UUID key) {
+        long hi = key.getMostSignificantBits();
+        long lo = key.getLeastSignificantBits();
+        int i = slot(hi, lo, mask);
+        while (true) {
+            if (msb[i] == 0 && lsb[i] == 0) {
+                return false;
+            }
+            if (msb[i] == hi && lsb[i] == lo) {
+                break;
+            }
+            i = (i + 1) & mask;
+        }
+        // backward-shift deletion keeps probe chains intact without tombstones
+        int hole = i;
+        int j = (i + 1) & mask;
+        while (msb[j] != 0 || lsb[j] != 0) {
+            int home = slot(msb[j], lsb[j], mask);
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                msb[hole] = msb[j];
+                lsb[hole] = lsb[j];
+                values[hole] = values[j];
+                hole = j;
+            }
+            j = (j + 1) & mask;
+        }
+        msb[hole] = 0;
+        lsb[hole] = 0;
+        values[hole] = 0;
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        allocate(16);
+    }
+
+    private void resize(int capacity) {
+        long[] oldHi = msb;
+        long[] oldLo = lsb;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldHi.length; i++) {
+            if (oldHi[i] != 0 || oldLo[i] != 0) {
+                int j = slot(oldHi[i], oldLo[i], mask);
+                while (msb[j] != 0 || lsb[j] != 0) {
+                    j = (j + 1) & mask;
+                }
+                msb[j] = oldHi[i];
+                lsb[j] = oldLo[i];
+                values[j] = oldValues[i];
+                size++;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        msb = new long[capacity];
+        lsb = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(8, expectedSize * 2 - 1)) << 1;
+        return Math.max(16, capacity);
+    }
+
+    private static int slot(long hi, long lo, int mask) {
+        long h = hi ^ Long.rotateLeft(lo, 32);
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+}
@@ -0,0 +1,9 @@
+-- Checkpoints are kept per node. The live path only delivers events committed
+-- on the node itself, so a single row per subscriber was overwritten by every
+-- node with positions the others had not reached. The old shared rows keep an
+-- empty node and are no longer read.
+
+ALTER TABLE event_checkpoints ADD COLUMN node varchar(64) NOT NULL DEFAULT '';
+ALTER TABLE event_checkpoints ALTER COLUMN node DROP DEFAULT;
+ALTER TABLE event_checkpoints DROP CONSTRAINT event_checkpoints_pkey;
+ALTER TABLE event_checkpoints ADD CONSTRAINT event_checkpoints_pkey PRIMARY KEY (subscriber, node);
@@ -0,0 +1,59 @@
+-- Schema as hibernate.ddl-auto=update left it before any of the later
+-- versions. Databases created that way are baselined at this version
+-- (spring.flyway.baseline-on-migrate) and start migrating from V2. Those that
+-- ran newer builds under ddl-auto=update already have some of what V2-V7 add,
+-- so those scripts only create what is missing.
+
+CREATE TABLE users (
+    id                  uuid         NOT NULL,
+    password            varchar(255),
+    skills              varchar(255)[],
+    bio                 varchar(255),
+    username            varchar(255),
+    email               varchar(255),
+    show_email_publicly boolean      NOT NULL,
+    CONSTRAINT users_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE post (
+    id         uuid         NOT NULL,
+    title      varchar(255),
+    content    text,
+    visibility varchar(255),
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    user_id    uuid         NOT NULL,
+    CONSTRAINT post_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_post_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE post_tags (
+    post_id uuid NOT NULL,
+    tags    varchar(255),
+    CONSTRAINT fk_post_tags_post FOREIGN KEY (post_id) REFERENCES post (id)
+);
+
+CREATE TABLE comments (
+    id         uuid         NOT NULL,
+    content    text         NOT NULL,
+    user_id    uuid         NOT NULL,
+    post_id    uuid         NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    CONSTRAINT comments_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_comments_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_comments_post FOREIGN KEY (post_id) REFERENCES post (id)
+);
+
+CREATE TABLE reactions (
+    id         uuid         NOT NULL,
+    type       varchar(255),
+    post_id    uuid,
+    comment_id uuid,
+    user_id    uuid         NOT NULL,
+    CONSTRAINT reactions_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_reactions_post FOREIGN KEY (post_id) REFERENCES post (id),
+    CONSTRAINT fk_reactions_comment FOREIGN KEY (comment_id) REFERENCES comments (id),
+    CONSTRAINT fk_reactions_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
@@ -0,0 +1,12 @@
+-- Reactions get a creation time for the paginated "who reacted" lists. The
+-- default backfills existing rows; ddl-auto=update may have added the column
+-- already, without the constraint.
+
+ALTER TABLE reactions ADD COLUMN IF NOT EXISTS created_at timestamp DEFAULT CURRENT_TIMESTAMP;
+UPDATE reactions SET created_at = CURRENT_TIMESTAMP WHERE created_at IS NULL;
+ALTER TABLE reactions ALTER COLUMN created_at SET DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE reactions ALTER COLUMN created_at SET NOT NULL;
+
+-- keyset scans for the paginated "who reacted" lists
+CREATE INDEX IF NOT EXISTS idx_reactions_post_type_created ON reactions (post_id, type, created_at);
+CREATE INDEX IF NOT EXISTS idx_reactions_comment_type_created ON reactions (comment_id, type, created_at);
@@ -0,0 +1,7 @@
+-- Issued JWTs carry the user's token version; bumping it rejects every token
+-- issued before.
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_version bigint DEFAULT 0;
+UPDATE users SET token_version = 0 WHERE token_version IS NULL;
+ALTER TABLE users ALTER COLUMN token_version SET DEFAULT 0;
+ALTER TABLE users ALTER COLUMN token_version SET NOT NULL;
@@ -0,0 +1,12 @@
+-- Tokens revoked on logout, kept until they would have expired anyway.
+
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    jti        uuid         NOT NULL,
+    expires_at timestamp(6) NOT NULL,
+    revoked_at timestamp(6) NOT NULL,
+    CONSTRAINT revoked_tokens_pkey PRIMARY KEY (jti)
+);
+
+-- incremental sync reads recent revocations, pruning deletes by expiry
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_revoked_at ON revoked_tokens (revoked_at);
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
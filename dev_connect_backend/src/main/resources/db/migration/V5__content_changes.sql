@@ -0,0 +1,16 @@
+-- Change log behind the delta-sync reads of the public feed and comment threads.
+
+CREATE TABLE IF NOT EXISTS content_changes (
+    seq         bigint GENERATED BY DEFAULT AS IDENTITY,
+    target_type varchar(16)  NOT NULL,
+    target_id   uuid         NOT NULL,
+    post_id     uuid         NOT NULL,
+    kind        varchar(16)  NOT NULL,
+    changed_at  timestamp(6) NOT NULL,
+    CONSTRAINT content_changes_pkey PRIMARY KEY (seq)
+);
+
+-- feed deltas scan by target type, thread deltas by post
+CREATE INDEX IF NOT EXISTS idx_content_changes_target_seq ON content_changes (target_type, seq);
+CREATE INDEX IF NOT EXISTS idx_content_changes_post_seq ON content_changes (post_id, seq);
+CREATE INDEX IF NOT EXISTS idx_content_changes_changed_at ON content_changes (changed_at);
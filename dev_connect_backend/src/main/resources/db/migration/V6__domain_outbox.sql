@@ -0,0 +1,19 @@
+-- Transactional outbox for domain events, and how far each subscriber has read it.
+
+CREATE TABLE IF NOT EXISTS domain_outbox (
+    seq          bigint GENERATED BY DEFAULT AS IDENTITY,
+    type         varchar(32)  NOT NULL,
+    aggregate_id uuid         NOT NULL,
+    post_id      uuid         NOT NULL,
+    created_at   timestamp(6) NOT NULL,
+    CONSTRAINT domain_outbox_pkey PRIMARY KEY (seq)
+);
+
+CREATE INDEX IF NOT EXISTS idx_domain_outbox_created_at ON domain_outbox (created_at);
+
+CREATE TABLE IF NOT EXISTS event_checkpoints (
+    subscriber varchar(64)  NOT NULL,
+    last_seq   bigint       NOT NULL,
+    updated_at timestamp(6) NOT NULL,
+    CONSTRAINT event_checkpoints_pkey PRIMARY KEY (subscriber)
+);
@@ -0,0 +1,25 @@
+-- Denormalized rows behind the feed, profile and search lists.
+
+CREATE TABLE IF NOT EXISTS post_feed_view (
+    post_id         uuid         NOT NULL,
+    title           varchar(255),
+    content         text,
+    tags            varchar(255)[],
+    search_text     text,
+    visibility      varchar(16)  NOT NULL,
+    author_id       uuid         NOT NULL,
+    author_username varchar(255) NOT NULL,
+    comment_count   bigint       NOT NULL,
+    like_count      bigint       NOT NULL,
+    support_count   bigint       NOT NULL,
+    funny_count     bigint       NOT NULL,
+    celebrate_count bigint       NOT NULL,
+    created_at      timestamp(6),
+    updated_at      timestamp(6),
+    refreshed_at    timestamp(6) NOT NULL,
+    CONSTRAINT post_feed_view_pkey PRIMARY KEY (post_id)
+);
+
+-- public feed order, and the profile list
+CREATE INDEX IF NOT EXISTS idx_post_feed_view_visibility_created ON post_feed_view (visibility, created_at, post_id);
+CREATE INDEX IF NOT EXISTS idx_post_feed_view_author ON post_feed_view (author_username, created_at);
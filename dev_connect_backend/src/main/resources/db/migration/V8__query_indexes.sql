@@ -0,0 +1,47 @@
+-- Indexes for the queries the application actually runs. Every statement
+-- is CONCURRENTLY so writes continue while they build, which is why this
+-- script runs outside a transaction (see the .conf next to it). A build
+-- that fails leaves an INVALID index behind: drop it, run flyway repair
+-- and migrate again.
+
+-- public feed: WHERE visibility = 'PUBLIC' ORDER BY created_at DESC, id DESC,
+-- plus the public post count as an index-only scan
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_post_public_created
+    ON post (created_at DESC, id DESC) WHERE visibility = 'PUBLIC';
+
+-- a user's posts, newest first
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_post_user_created
+    ON post (user_id, created_at DESC);
+
+-- batch-fetched tags come straight from the index
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_post_tags_post
+    ON post_tags (post_id) INCLUDE (tags);
+
+-- comment threads, and comment counts per post as index-only scans
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comments_post_created
+    ON comments (post_id, created_at);
+
+-- reactor pages are keyset scans on (created_at, id) newest first; the same
+-- index answers the per-type and total counts without touching the table
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reactions_post_type_created_id
+    ON reactions (post_id, type, created_at DESC, id DESC) WHERE post_id IS NOT NULL;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reactions_comment_type_created_id
+    ON reactions (comment_id, type, created_at DESC, id DESC) WHERE comment_id IS NOT NULL;
+DROP INDEX CONCURRENTLY IF EXISTS idx_reactions_post_type_created;
+DROP INDEX CONCURRENTLY IF EXISTS idx_reactions_comment_type_created;
+
+-- the viewer's own reaction per post or comment, type included for the page lookups
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reactions_user_post
+    ON reactions (user_id, post_id) INCLUDE (type) WHERE post_id IS NOT NULL;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reactions_user_comment
+    ON reactions (user_id, comment_id) INCLUDE (type) WHERE comment_id IS NOT NULL;
+
+-- the view's public feed, same shape as on post
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_post_feed_view_public_created
+    ON post_feed_view (created_at DESC, post_id DESC) WHERE visibility = 'PUBLIC';
+DROP INDEX CONCURRENTLY IF EXISTS idx_post_feed_view_visibility_created;
+
+-- keyword search is LIKE '%keyword%', which only a trigram index can serve
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_post_feed_view_search
+    ON post_feed_view USING gin (search_text gin_trgm_ops) WHERE visibility = 'PUBLIC';
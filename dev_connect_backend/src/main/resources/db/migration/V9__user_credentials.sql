@@ -0,0 +1,14 @@
+-- Password hashes move out of users, whose rows are held in the
+-- second-level cache, into a table that is never cached.
+
+CREATE TABLE user_credentials (
+    user_id  uuid         NOT NULL,
+    password varchar(255) NOT NULL,
+    CONSTRAINT user_credentials_pkey PRIMARY KEY (user_id),
+    CONSTRAINT fk_user_credentials_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+INSERT INTO user_credentials (user_id, password)
+SELECT id, password FROM users WHERE password IS NOT NULL;
+
+ALTER TABLE users DROP COLUMN password;
@@ -0,0 +1,134 @@
+package com.example.demo.cluster;
+
+import com.example.demo.enums.InvalidationTopic;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ClusterInvalidatorTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private AtomicLong clock;
+    private SimpleMeterRegistry meterRegistry;
+    private ClusterInvalidator invalidator;
+    private ClusterInvalidator.Handler posts;
+    private ClusterInvalidator.Handler users;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        clock = new AtomicLong(1_000);
+        meterRegistry = new SimpleMeterRegistry();
+        invalidator = new ClusterInvalidator(null, jdbcTemplate, meterRegistry, true, 3, 500, 2000, clock::get);
+        posts = mock(ClusterInvalidator.Handler.class);
+        users = mock(ClusterInvalidator.Handler.class);
+        invalidator.register(InvalidationTopic.POST, posts);
+        invalidator.register(InvalidationTopic.USER, users);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> sentPayloads() {
+        ArgumentCaptor<String> payloads = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, atLeast(0)).query(eq("SELECT pg_notify(?, ?)"), any(ResultSetExtractor.class),
+                eq(ClusterInvalidator.CHANNEL), payloads.capture());
+        return payloads.getAllValues();
+    }
+
+    @Test
+    void testRepeatedKeysCoalesceIntoOneNotification() {
+        UUID postId = UUID.randomUUID();
+        invalidator.invalidate(InvalidationTopic.POST, postId);
+        invalidator.invalidate(InvalidationTopic.POST, postId);
+        invalidator.invalidate(InvalidationTopic.POST, postId);
+
+        invalidator.flush();
+        invalidator.flush();
+
+        List<String> payloads = sentPayloads();
+        assertEquals(1, payloads.size());
+        assertTrue(payloads.get(0).endsWith(";P" + postId));
+    }
+
+    @Test
+    void testReceiverAppliesKeysAndSkipsOwnPayloads() {
+        UUID postId = UUID.randomUUID();
+
+        invalidator.handle(invalidator.getNodeId() + ";1;1000;P" + postId);
+        verify(posts, never()).invalidate(any());
+
+        clock.set(1_040);
+        invalidator.handle("other;1;1000;P" + postId + ",U*");
+        verify(posts).invalidate(postId);
+        verify(users).invalidateAll();
+        assertEquals(1, meterRegistry.timer("cluster.invalidation.lag").count());
+    }
+
+    @Test
+    void testSequenceGapFlushesEverything() {
+        invalidator.handle("other;1;1000;P" + UUID.randomUUID());
+        invalidator.handle("other;3;1000;P" + UUID.randomUUID());
+
+        verify(posts, times(1)).invalidate(any());
+        verify(posts).invalidateAll();
+        verify(users).invalidateAll();
+    }
+
+    @Test
+    void testTooManyKeysBecomeATopicFlush() {
+        for (int i = 0; i < 4; i++) {
+            invalidator.invalidate(InvalidationTopic.POST, UUID.randomUUID());
+        }
+
+        invalidator.flush();
+
+        List<String> payloads = sentPayloads();
+        assertEquals(1, payloads.size());
+        assertTrue(payloads.get(0).endsWith(";P*"));
+    }
+
+    @Test
+    void testFailedSendIsRetriedAsTopicFlush() {
+        doThrow(new RuntimeException("down")).doReturn(null)
+                .when(jdbcTemplate).query(anyString(), any(ResultSetExtractor.class), any(), any());
+        invalidator.invalidate(InvalidationTopic.USER, UUID.randomUUID());
+
+        invalidator.flush();
+        invalidator.flush();
+
+        List<String> payloads = sentPayloads();
+        assertEquals(2, payloads.size());
+        // the failed payload never consumed a sequence number
+        assertTrue(payloads.get(1).contains(";1;"));
+        assertTrue(payloads.get(1).endsWith(";U*"));
+    }
+
+    @Test
+    void testLargeBatchesSplitBelowPayloadLimit() {
+        Set<UUID> keys = IntStream.range(0, 400).mapToObj(i -> UUID.randomUUID()).collect(Collectors.toSet());
+
+        List<String> chunks = ClusterInvalidator.encode(Map.of(InvalidationTopic.POST, keys),
+                EnumSet.noneOf(InvalidationTopic.class));
+
+        assertTrue(chunks.size() > 1);
+        assertTrue(chunks.stream().allMatch(c -> c.length() < ClusterInvalidator.MAX_PAYLOAD));
+        assertEquals(400, chunks.stream().mapToInt(c -> c.split(",").length).sum());
+    }
+}
@@ -2,6 +2,7 @@ package com.example.demo.controller;
 
 import com.example.demo.AuthService;
 import com.example.demo.dto.login.LoginRequest;
+import com.example.demo.exception.TooManyRequestsException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,9 +14,13 @@ import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.concurrent.CompletableFuture;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -38,12 +43,16 @@ class AuthControllerTest {
         LoginRequest request = new LoginRequest("testuser", "password123");
         String mockToken = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9.test";
         
-        when(authService.verify(any(LoginRequest.class))).thenReturn(mockToken);
+        when(authService.verifyAsync(any(LoginRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(mockToken));
 
         // Act & Assert
-        MvcResult result = mockMvc.perform(post("/auth/login")
+        MvcResult pending = mockMvc.perform(post("/auth/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(pending))
                 .andExpect(status().isOk())
                 .andExpect(header().exists("Set-Cookie"))
                 .andExpect(jsonPath("$.token").isEmpty())
@@ -62,13 +71,16 @@ class AuthControllerTest {
         // Arrange
         LoginRequest request = new LoginRequest("testuser", "wrongpassword");
         
-        when(authService.verify(any(LoginRequest.class)))
-                .thenThrow(new BadCredentialsException("Invalid credentials"));
+        when(authService.verifyAsync(any(LoginRequest.class)))
+                .thenReturn(CompletableFuture.failedFuture(new BadCredentialsException("Invalid credentials")));
 
         // Act & Assert
-        mockMvc.perform(post("/auth/login")
+        MvcResult pending = mockMvc.perform(post("/auth/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(pending))
                 .andExpect(status().isUnauthorized());
     }
 
@@ -76,16 +88,32 @@ class AuthControllerTest {
     void login_TokenNotInResponseBody() throws Exception {
         // Arrange
         LoginRequest request = new LoginRequest("testuser", "password123");
-        when(authService.verify(any(LoginRequest.class))).thenReturn("some-jwt-token");
+        when(authService.verifyAsync(any(LoginRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture("some-jwt-token"));
 
         // Act & Assert
-        mockMvc.perform(post("/auth/login")
+        MvcResult pending = mockMvc.perform(post("/auth/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(pending))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.token").isEmpty());
     }
 
+    @Test
+    void login_WhenHashingPoolSaturated_ShouldReturn429() throws Exception {
+        LoginRequest request = new LoginRequest("testuser", "password123");
+        when(authService.verifyAsync(any(LoginRequest.class)))
+                .thenThrow(new TooManyRequestsException("Too many sign-in attempts, please retry shortly", 1));
+
+        mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
     @Test
     void logout_ShouldClearCookieAndReturn204() throws Exception {
         // Act & Assert
@@ -100,4 +128,12 @@ class AuthControllerTest {
         assertThat(setCookieHeader.toLowerCase()).contains("max-age=0");
         assertThat(setCookieHeader).contains("HttpOnly");
     }
+
+    @Test
+    void logout_WithBearerToken_ShouldRevokeIt() throws Exception {
+        mockMvc.perform(post("/auth/logout").header("Authorization", "Bearer header-token"))
+                .andExpect(status().isNoContent());
+
+        verify(authService).logout("header-token");
+    }
 }
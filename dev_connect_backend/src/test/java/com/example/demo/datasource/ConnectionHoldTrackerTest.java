@@ -0,0 +1,99 @@
+package com.example.demo.datasource;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConnectionHoldTrackerTest {
+
+    private AtomicLong clock;
+    private SimpleMeterRegistry meterRegistry;
+    private ConnectionHoldTracker tracker;
+    private Connection physical;
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        clock = new AtomicLong();
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = new ConnectionHoldTracker(meterRegistry, clock::get);
+        physical = mock(Connection.class);
+        DataSource pool = mock(DataSource.class);
+        when(pool.getConnection()).thenReturn(physical);
+        dataSource = tracker.wrap(pool);
+    }
+
+    private void request(FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts/public");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/posts/public");
+        tracker.doFilter(request, new MockHttpServletResponse(), chain);
+    }
+
+    private Timer holdTimer() {
+        return meterRegistry.find("db.connection.hold").tags("method", "GET", "uri", "/api/posts/public").timer();
+    }
+
+    @Test
+    void testHoldTimeSummedOverConnections() throws Exception {
+        request((req, res) -> {
+            try {
+                Connection first = dataSource.getConnection();
+                clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(3));
+                first.close();
+                // rendering the response does not count
+                clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(50));
+                Connection second = dataSource.getConnection();
+                clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(2));
+                second.close();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertEquals(5.0, holdTimer().totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(1, holdTimer().count());
+        assertEquals(2.0, meterRegistry.find("db.connections.per-request").summary().totalAmount());
+        verify(physical, times(2)).close();
+    }
+
+    @Test
+    void testConnectionStillOpenCountsUntilTheEnd() throws Exception {
+        request((req, res) -> {
+            try {
+                dataSource.getConnection();
+                clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(7));
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertEquals(7.0, holdTimer().totalTime(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testRequestWithoutConnectionsHasNoHoldTime() throws Exception {
+        request((req, res) -> { });
+
+        assertNull(holdTimer());
+        assertEquals(1, meterRegistry.find("db.connections.per-request").summary().count());
+    }
+
+    @Test
+    void testConnectionsOutsideRequestsAreNotWrapped() throws Exception {
+        assertSame(physical, dataSource.getConnection());
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.demo.datasource;
+
+import com.example.demo.cluster.ClusterInvalidator;
+import com.example.demo.enums.InvalidationTopic;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private ClusterInvalidator clusterInvalidator;
+    private AtomicReference<Optional<UUID>> user;
+    private AtomicLong clock;
+    private ReadYourWritesTracker tracker;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        clusterInvalidator = mock(ClusterInvalidator.class);
+        user = new AtomicReference<>(Optional.empty());
+        clock = new AtomicLong(1_000);
+        tracker = new ReadYourWritesTracker(clusterInvalidator, user::get, 5_000, clock::get);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    private static DataSource replicaWithLag(long lagMillis) throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(rs);
+        when(rs.next()).thenReturn(true);
+        when(rs.getLong(1)).thenReturn(lagMillis);
+        return dataSource;
+    }
+
+    private ReplicaRoutingDataSource routing(DataSource... replicas) {
+        List<ReplicaRoutingDataSource.Replica> list = new ArrayList<>();
+        for (int i = 0; i < replicas.length; i++) {
+            list.add(new ReplicaRoutingDataSource.Replica("replica-" + (i + 1), replicas[i]));
+        }
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(mock(DataSource.class), list, tracker,
+                2_000, 2, meterRegistry);
+        routing.checkReplicas();
+        return routing;
+    }
+
+    private static void inTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    @Test
+    void testReadOnlyTransactionsSpreadOverHealthyReplicas() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(replicaWithLag(0), replicaWithLag(100));
+        inTransaction(true);
+
+        Object first = routing.determineCurrentLookupKey();
+        Object second = routing.determineCurrentLookupKey();
+
+        assertNotEquals(first, second);
+        assertTrue(first.toString().startsWith("replica-"));
+        assertTrue(second.toString().startsWith("replica-"));
+    }
+
+    @Test
+    void testWritesAndNonTransactionalAccessUsePrimary() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(replicaWithLag(0));
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+        inTransaction(false);
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void testLaggingOrFailingReplicasAreSkipped() throws SQLException {
+        DataSource down = mock(DataSource.class);
+        when(down.getConnection()).thenThrow(new SQLException("down"));
+        ReplicaRoutingDataSource routing = routing(replicaWithLag(10_000), down);
+        inTransaction(true);
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+        assertFalse(routing.getReplicas().get(0).isHealthy());
+        assertFalse(routing.getReplicas().get(1).isHealthy());
+    }
+
+    @Test
+    void testWriterReadsFromPrimaryUntilWindowEnds() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(replicaWithLag(0));
+        UUID userId = UUID.randomUUID();
+        user.set(Optional.of(userId));
+
+        inTransaction(false);
+        routing.determineCurrentLookupKey();
+        verify(clusterInvalidator).invalidate(InvalidationTopic.RECENT_WRITER, userId);
+
+        inTransaction(true);
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+
+        user.set(Optional.of(UUID.randomUUID()));
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+
+        user.set(Optional.of(userId));
+        clock.addAndGet(5_000);
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void testPrimaryReadsSkipReplicas() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(replicaWithLag(0));
+        PrimaryReads primaryReads = new PrimaryReads(mock(PlatformTransactionManager.class));
+        inTransaction(true);
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, primaryReads.execute(routing::determineCurrentLookupKey));
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void testRepeatedWritesNotifyTheClusterOncePerHalfWindow() {
+        UUID userId = UUID.randomUUID();
+        user.set(Optional.of(userId));
+
+        tracker.recordWrite();
+        clock.addAndGet(1_000);
+        tracker.recordWrite();
+        clock.addAndGet(3_000);
+        tracker.recordWrite();
+
+        verify(clusterInvalidator, times(2)).invalidate(InvalidationTopic.RECENT_WRITER, userId);
+    }
+
+    @Test
+    void testRemoteWriterAndFullFlushPinToPrimary() {
+        UUID userId = UUID.randomUUID();
+        tracker.pin(userId);
+        user.set(Optional.of(userId));
+        assertTrue(tracker.isPinned());
+
+        user.set(Optional.empty());
+        assertFalse(tracker.isPinned());
+        tracker.pinAll();
+        assertTrue(tracker.isPinned());
+    }
+}
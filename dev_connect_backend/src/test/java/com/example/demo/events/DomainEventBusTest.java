@@ -0,0 +1,181 @@
+package com.example.demo.events;
+
+import com.example.demo.entity.EventCheckpoint;
+import com.example.demo.entity.OutboxEvent;
+import com.example.demo.enums.DomainEventType;
+import com.example.demo.repository.EventCheckpointRepository;
+import com.example.demo.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DomainEventBusTest {
+
+    private OutboxEventRepository outboxRepo;
+    private EventCheckpointRepository checkpointRepo;
+    private DomainEventBus bus;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepo = mock(OutboxEventRepository.class);
+        checkpointRepo = mock(EventCheckpointRepository.class);
+        when(outboxRepo.findAfter(anyLong(), any(), any())).thenReturn(List.of());
+        when(checkpointRepo.findById(any())).thenReturn(Optional.empty());
+        bus = bus(0);
+    }
+
+    private DomainEventBus bus(long settleMillis) {
+        return new DomainEventBus(outboxRepo, checkpointRepo, new SimpleMeterRegistry(), 2, 10, 7, settleMillis, "node-a");
+    }
+
+    @AfterEach
+    void tearDown() {
+        bus.stop();
+    }
+
+    private static DomainEvent event(long seq) {
+        UUID postId = UUID.randomUUID();
+        return new DomainEvent(seq, DomainEventType.POST_CREATED, postId, postId, LocalDateTime.now());
+    }
+
+    private static OutboxEvent row(long seq) {
+        UUID postId = UUID.randomUUID();
+        OutboxEvent row = new OutboxEvent(DomainEventType.POST_UPDATED, postId, postId);
+        ReflectionTestUtils.setField(row, "seq", seq);
+        return row;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void testEverySubscriberReceivesEvents() throws Exception {
+        List<DomainEvent> first = new CopyOnWriteArrayList<>();
+        List<DomainEvent> second = new CopyOnWriteArrayList<>();
+        bus.subscribe("first", false, first::addAll);
+        bus.subscribe("second", false, second::addAll);
+        Thread.sleep(50);
+
+        bus.offer(event(1));
+        bus.offer(event(2));
+
+        await(() -> first.size() == 2 && second.size() == 2);
+        await(() -> bus.lag("first") == 0);
+    }
+
+    @Test
+    void testDuplicateNameRejected() {
+        bus.subscribe("dup", false, events -> { });
+
+        assertThrows(IllegalStateException.class, () -> bus.subscribe("dup", false, events -> { }));
+    }
+
+    @Test
+    void testOverflowCatchesUpFromOutbox() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> seen = new CopyOnWriteArrayList<>();
+        bus.subscribe("slow", false, events -> {
+            events.forEach(e -> seen.add(e.seq()));
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Thread.sleep(50);
+
+        bus.offer(event(1));
+        await(() -> seen.contains(1L));
+        // queue holds two, the third overflows
+        bus.offer(event(2));
+        bus.offer(event(3));
+        bus.offer(event(4));
+        assertEquals(4, bus.lag("slow"));
+        // event 1 had settled by the time the subscriber last drained its queue
+        when(outboxRepo.findSettledHead(any())).thenReturn(1L);
+        when(outboxRepo.findAfter(eq(1L), any(), any())).thenReturn(List.of(row(2), row(3), row(4)));
+
+        release.countDown();
+
+        await(() -> seen.containsAll(List.of(2L, 3L, 4L)));
+        await(() -> bus.lag("slow") == 0);
+    }
+
+    @Test
+    void testDurableSubscriberResumesAfterCheckpoint() throws Exception {
+        when(outboxRepo.findHead()).thenReturn(7L);
+        when(outboxRepo.findSettledHead(any())).thenReturn(7L);
+        when(checkpointRepo.findById(new EventCheckpoint.Key("index", "node-a")))
+                .thenReturn(Optional.of(new EventCheckpoint("index", "node-a", 5)));
+        when(outboxRepo.findAfter(eq(5L), any(), any())).thenReturn(List.of(row(6), row(7)));
+        List<Long> seen = new CopyOnWriteArrayList<>();
+
+        bus.subscribe("index", true, events -> events.forEach(e -> seen.add(e.seq())));
+
+        await(() -> seen.equals(List.of(6L, 7L)));
+        bus.checkpoint();
+        ArgumentCaptor<EventCheckpoint> saved = ArgumentCaptor.forClass(EventCheckpoint.class);
+        verify(checkpointRepo).save(saved.capture());
+        assertEquals(7L, saved.getValue().getLastSeq());
+        assertEquals("node-a", saved.getValue().getId().getNode());
+    }
+
+    @Test
+    void testCatchUpWaitsOutTheSettleWindow() throws Exception {
+        bus.stop();
+        bus = bus(300);
+        when(outboxRepo.findHead()).thenReturn(6L);
+        when(outboxRepo.findSettledHead(any())).thenReturn(5L);
+        when(checkpointRepo.findById(any())).thenReturn(Optional.of(new EventCheckpoint("index", "node-a", 5)));
+        when(outboxRepo.findAfter(eq(5L), any(), any())).thenReturn(List.of(row(6)));
+        // 7 is still inside the settle window when the catch-up starts
+        when(outboxRepo.findAfter(eq(6L), any(), any())).thenReturn(List.of(row(7)), List.of());
+        List<Long> seen = new CopyOnWriteArrayList<>();
+
+        bus.subscribe("index", true, events -> events.forEach(e -> seen.add(e.seq())));
+
+        await(() -> seen.equals(List.of(6L, 7L)));
+        ArgumentCaptor<LocalDateTime> settledBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxRepo).findAfter(eq(5L), settledBefore.capture(), any());
+        assertTrue(settledBefore.getValue().isBefore(LocalDateTime.now().minusNanos(300_000_000)));
+    }
+
+    @Test
+    void testCheckpointHoldsBackUnsettledSeqs() throws Exception {
+        when(outboxRepo.findSettledHead(any())).thenReturn(3L);
+        List<Long> seen = new CopyOnWriteArrayList<>();
+        bus.subscribe("index", true, events -> events.forEach(e -> seen.add(e.seq())));
+        Thread.sleep(50);
+
+        bus.offer(event(5));
+        await(() -> seen.contains(5L));
+        bus.checkpoint();
+
+        ArgumentCaptor<EventCheckpoint> saved = ArgumentCaptor.forClass(EventCheckpoint.class);
+        verify(checkpointRepo).save(saved.capture());
+        assertEquals(3L, saved.getValue().getLastSeq());
+    }
+}
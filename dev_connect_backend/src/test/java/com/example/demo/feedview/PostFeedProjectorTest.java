@@ -0,0 +1,141 @@
+package com.example.demo.feedview;
+
+import com.example.demo.dto.comment.PostCommentCount;
+import com.example.demo.dto.post.PostTag;
+import com.example.demo.dto.reaction.TargetReactionCount;
+import com.example.demo.entity.Post;
+import com.example.demo.entity.PostFeedView;
+import com.example.demo.entity.User;
+import com.example.demo.enums.DomainEventType;
+import com.example.demo.enums.PostVisibility;
+import com.example.demo.enums.ReactionType;
+import com.example.demo.events.DomainEvent;
+import com.example.demo.events.DomainEventBus;
+import com.example.demo.repository.CommentRepository;
+import com.example.demo.repository.PostFeedViewRepository;
+import com.example.demo.repository.PostRepository;
+import com.example.demo.repository.ReactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PostFeedProjectorTest {
+
+    private PostRepository postRepo;
+    private CommentRepository commentRepo;
+    private ReactionRepository reactionRepo;
+    private PostFeedViewRepository viewRepo;
+    private PostFeedProjector projector;
+
+    @BeforeEach
+    void setUp() {
+        postRepo = mock(PostRepository.class);
+        commentRepo = mock(CommentRepository.class);
+        reactionRepo = mock(ReactionRepository.class);
+        viewRepo = mock(PostFeedViewRepository.class);
+        TransactionTemplate transactions = mock(TransactionTemplate.class);
+        when(transactions.execute(any())).thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        projector = new PostFeedProjector(postRepo, commentRepo, reactionRepo, viewRepo,
+                mock(DomainEventBus.class), transactions, new SimpleMeterRegistry(), true);
+    }
+
+    private static Post post(UUID id) {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername("alice");
+        Post post = new Post();
+        post.setId(id);
+        post.setUser(user);
+        post.setTitle("Hello Java");
+        post.setVisibility(PostVisibility.PUBLIC);
+        return post;
+    }
+
+    private static DomainEvent event(DomainEventType type, UUID postId) {
+        return new DomainEvent(1, type, UUID.randomUUID(), postId, LocalDateTime.now());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBatchRebuildsEachTouchedPostOnce() {
+        UUID postId = UUID.randomUUID();
+        when(postRepo.findWithUserByIdIn(any())).thenReturn(List.of(post(postId)));
+        when(postRepo.findTagsByPostIds(any())).thenReturn(List.of(new PostTag(postId, "Spring")));
+        when(commentRepo.countByPostIds(any())).thenReturn(List.of(new PostCommentCount(postId, 2L)));
+        when(reactionRepo.countByTypeForPosts(any())).thenReturn(List.of(
+                new TargetReactionCount(postId, ReactionType.LIKE, 3L),
+                new TargetReactionCount(postId, ReactionType.FUNNY, 1L)));
+
+        projector.onDomainEvents(List.of(
+                event(DomainEventType.COMMENT_ADDED, postId),
+                event(DomainEventType.COMMENT_ADDED, postId),
+                event(DomainEventType.POST_REACTION_CHANGED, postId)));
+
+        verify(postRepo, times(1)).findWithUserByIdIn(any());
+        ArgumentCaptor<List<PostFeedView>> saved = ArgumentCaptor.forClass(List.class);
+        verify(viewRepo).saveAll(saved.capture());
+        PostFeedView row = saved.getValue().get(0);
+        assertEquals("alice", row.getAuthorUsername());
+        assertEquals(List.of("Spring"), row.getTags());
+        assertEquals(2, row.getCommentCount());
+        assertEquals(4, row.getReactionCount());
+    }
+
+    @Test
+    void testRowOfDeletedPostIsRemoved() {
+        UUID postId = UUID.randomUUID();
+        PostFeedView stale = new PostFeedView(post(postId), List.of(), 0, Map.of());
+        when(viewRepo.findAllById(any())).thenReturn(List.of(stale));
+
+        int written = projector.refresh(List.of(postId));
+
+        assertEquals(1, written);
+        verify(viewRepo).deleteAllInBatch(List.of(stale));
+    }
+
+    @Test
+    void testUnchangedRowIsNotRewritten() {
+        UUID postId = UUID.randomUUID();
+        Post post = post(postId);
+        PostFeedView row = new PostFeedView(post, List.of(), 0, Map.of());
+        when(postRepo.findWithUserByIdIn(any())).thenReturn(List.of(post));
+        when(viewRepo.findAllById(any())).thenReturn(List.of(row));
+
+        assertEquals(0, projector.refresh(List.of(postId)));
+
+        post.setTitle("Edited");
+        assertEquals(1, projector.refresh(List.of(postId)));
+        assertEquals("Edited", row.getTitle());
+    }
+
+    @Test
+    void testReconcilerCoversOrphansAndMarksReadyAfterSweep() {
+        UUID postId = UUID.randomUUID();
+        UUID orphanId = UUID.randomUUID();
+        when(postRepo.findIdsAfter(eq(FeedViewReconciler.START), any(Pageable.class))).thenReturn(List.of(postId));
+        when(viewRepo.findIdsAfter(eq(FeedViewReconciler.START), any(Pageable.class))).thenReturn(List.of(orphanId));
+        PostFeedProjector spied = spy(projector);
+        FeedViewReconciler reconciler = new FeedViewReconciler(postRepo, viewRepo, spied,
+                new SimpleMeterRegistry(), 500, 10);
+
+        reconciler.start();
+        verify(spied, timeout(2000)).markReady();
+
+        verify(spied).refresh(argThat(ids -> ids.containsAll(List.of(postId, orphanId))));
+        assertTrue(spied.isReady());
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.demo.hotkey;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotKeyDetectorTest {
+
+    @Test
+    void testSketchNeverUndercounts() {
+        CountMinSketch sketch = new CountMinSketch(4, 256);
+        UUID key = UUID.randomUUID();
+        for (int i = 0; i < 50; i++) {
+            sketch.add(key);
+        }
+        for (int i = 0; i < 1000; i++) {
+            sketch.add(UUID.randomUUID());
+        }
+
+        assertTrue(sketch.estimate(key) >= 50);
+    }
+
+    @Test
+    void testKeyBecomesHotAfterThreshold() {
+        HotKeyDetector detector = new HotKeyDetector(4, 10, new SimpleMeterRegistry());
+        UUID viral = UUID.randomUUID();
+
+        for (int i = 0; i < 9; i++) {
+            assertFalse(detector.record(viral));
+        }
+
+        assertTrue(detector.record(viral));
+        assertEquals(viral, detector.snapshot().get(0).postId());
+    }
+
+    @Test
+    void testTopKKeepsOnlyTheHottest() {
+        HotKeyDetector detector = new HotKeyDetector(1, 5, new SimpleMeterRegistry());
+        UUID warm = UUID.randomUUID();
+        UUID viral = UUID.randomUUID();
+
+        for (int i = 0; i < 5; i++) detector.record(warm);
+        for (int i = 0; i < 20; i++) detector.record(viral);
+
+        assertTrue(detector.isHot(viral));
+        assertFalse(detector.isHot(warm));
+    }
+
+    @Test
+    void testDecayCoolsKeysDown() {
+        HotKeyDetector detector = new HotKeyDetector(4, 10, new SimpleMeterRegistry());
+        UUID post = UUID.randomUUID();
+        for (int i = 0; i < 12; i++) detector.record(post);
+        assertTrue(detector.isHot(post));
+
+        detector.decay();
+
+        assertFalse(detector.isHot(post));
+        assertTrue(detector.snapshot().isEmpty());
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.demo.post;
+
+import com.example.demo.dto.comment.PostCommentCount;
+import com.example.demo.dto.post.PostResponse;
+import com.example.demo.dto.reaction.TargetReactionCount;
+import com.example.demo.enums.ReactionType;
+import com.example.demo.repository.CommentRepository;
+import com.example.demo.repository.ReactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FeedHeadRingTest {
+
+    private final LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+    private CommentRepository commentRepo;
+    private ReactionRepository reactionRepo;
+    private FeedHeadRing ring;
+
+    @BeforeEach
+    void setUp() {
+        commentRepo = mock(CommentRepository.class);
+        reactionRepo = mock(ReactionRepository.class);
+        ring = new FeedHeadRing(commentRepo, reactionRepo, 3, new SimpleMeterRegistry());
+    }
+
+    private PostResponse post(int minutes) {
+        return new PostResponse(UUID.randomUUID(), "T" + minutes, "C", List.of(), "PUBLIC", "u",
+                base.plusMinutes(minutes), base.plusMinutes(minutes), 0, 0, null);
+    }
+
+    @Test
+    void testNotServedUntilLoaded() {
+        assertNull(ring.slice(0, 2));
+
+        PostResponse p = post(1);
+        ring.reset(List.of(p), 1, ring.loadVersion());
+
+        assertEquals(List.of(p), ring.slice(0, 2));
+    }
+
+    @Test
+    void testNewPostGoesToHeadAndOldestFallsOff() {
+        PostResponse p1 = post(1);
+        PostResponse p2 = post(2);
+        PostResponse p3 = post(3);
+        ring.reset(List.of(p3, p2, p1), 3, ring.loadVersion());
+
+        PostResponse p4 = post(4);
+        ring.upsert(p4, false);
+
+        assertEquals(List.of(p4, p3, p2), ring.slice(0, 3));
+        assertEquals(4, ring.publicCount());
+        // p1 is no longer in memory
+        assertNull(ring.slice(2, 2));
+    }
+
+    @Test
+    void testRemovedPostShortensTheRing() {
+        PostResponse p1 = post(1);
+        PostResponse p2 = post(2);
+        PostResponse p3 = post(3);
+        ring.reset(List.of(p3, p2, p1), 10, ring.loadVersion());
+
+        ring.remove(p2.id(), true);
+
+        assertEquals(List.of(p3, p1), ring.slice(0, 2));
+        assertNull(ring.slice(0, 3));
+        assertEquals(9, ring.publicCount());
+    }
+
+    @Test
+    void testOlderPostMadePublicOnlyInsertedWhenRingHoldsWholeFeed() {
+        PostResponse p2 = post(2);
+        PostResponse p3 = post(3);
+        ring.reset(List.of(p3, p2), 2, ring.loadVersion());
+
+        PostResponse older = post(1);
+        ring.upsert(older, false);
+        assertEquals(List.of(p3, p2, older), ring.slice(0, 3));
+
+        ring.remove(p3.id(), true);
+        PostResponse middle = post(2);
+        ring.upsert(new PostResponse(middle.id(), "m", "C", List.of(), "PUBLIC", "u",
+                p2.createdAt().minusSeconds(1), base, 0, 0, ReactionType.LIKE), false);
+
+        List<PostResponse> head = ring.slice(0, 3);
+        assertEquals(middle.id(), head.get(1).id());
+        assertNull(head.get(1).myReaction());
+    }
+
+    @Test
+    void testReloadRacingAWriteIsDiscarded() {
+        long version = ring.loadVersion();
+        ring.invalidate();
+
+        ring.reset(List.of(post(1)), 1, version);
+
+        assertFalse(ring.isLoaded());
+    }
+
+    @Test
+    void testCountsRefreshedInBatch() {
+        PostResponse p = post(1);
+        ring.reset(List.of(p), 1, ring.loadVersion());
+        when(commentRepo.countByPostIds(any())).thenReturn(List.of(new PostCommentCount(p.id(), 4L)));
+        when(reactionRepo.countByTypeForPosts(any())).thenReturn(List.of(
+                new TargetReactionCount(p.id(), ReactionType.LIKE, 2L),
+                new TargetReactionCount(p.id(), ReactionType.CELEBRATE, 3L)));
+
+        ring.refreshCounts();
+
+        PostResponse refreshed = ring.slice(0, 1).get(0);
+        assertEquals(4, refreshed.commentCount());
+        assertEquals(5, refreshed.reactionCount());
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.demo.post;
+
+import com.example.demo.datasource.PrimaryReads;
+import com.example.demo.dto.post.PostAccessRow;
+import com.example.demo.enums.PostVisibility;
+import com.example.demo.repository.PostRepository;
+import com.example.demo.utils.UuidIntMap;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PostAccessIndexTest {
+
+    // transactions are no-ops against a mocked manager
+    private static PrimaryReads primaryReads() {
+        return new PrimaryReads(mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void testMapSurvivesResizeAndRemoval() {
+        UuidIntMap map = new UuidIntMap(4);
+        List<UUID> keys = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            UUID key = UUID.randomUUID();
+            keys.add(key);
+            map.put(key, i);
+        }
+        for (int i = 0; i < keys.size(); i += 2) {
+            assertTrue(map.remove(keys.get(i)));
+        }
+
+        assertEquals(2500, map.size());
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(i % 2 == 0 ? UuidIntMap.MISSING : i, map.get(keys.get(i)));
+        }
+        assertFalse(map.remove(UUID.randomUUID()));
+    }
+
+    @Test
+    void testDisabledUntilRebuilt() {
+        PostRepository postRepo = mock(PostRepository.class);
+        UUID postId = UUID.randomUUID();
+        UUID ownerId = UUID.randomUUID();
+        when(postRepo.streamAccessRows())
+                .thenReturn(Stream.of(new PostAccessRow(postId, PostVisibility.PUBLIC, ownerId)));
+        PostAccessIndex index = new PostAccessIndex(postRepo, primaryReads(), new SimpleMeterRegistry());
+
+        assertEquals(PostAccessIndex.UNKNOWN, index.find(postId));
+
+        index.rebuild();
+        int access = index.find(postId);
+
+        assertTrue(PostAccessIndex.isPublic(access));
+        assertTrue(index.isOwnedBy(access, ownerId));
+        assertFalse(index.isOwnedBy(access, UUID.randomUUID()));
+    }
+
+    @Test
+    void testPutAndRemove() {
+        PostRepository postRepo = mock(PostRepository.class);
+        when(postRepo.streamAccessRows()).thenReturn(Stream.empty());
+        PostAccessIndex index = new PostAccessIndex(postRepo, primaryReads(), new SimpleMeterRegistry());
+        index.rebuild();
+        UUID postId = UUID.randomUUID();
+
+        index.put(postId, PostVisibility.PRIVATE, UUID.randomUUID());
+        assertFalse(PostAccessIndex.isPublic(index.find(postId)));
+
+        index.remove(postId);
+        assertEquals(PostAccessIndex.UNKNOWN, index.find(postId));
+
+        index.put(postId, PostVisibility.PUBLIC, UUID.randomUUID());
+        index.disable();
+        assertEquals(PostAccessIndex.UNKNOWN, index.find(postId));
+    }
+
+    @Test
+    void testWriteDuringRebuildIsNotOverwritten() {
+        PostRepository postRepo = mock(PostRepository.class);
+        UUID postId = UUID.randomUUID();
+        UUID ownerId = UUID.randomUUID();
+        PostAccessIndex index = new PostAccessIndex(postRepo, primaryReads(), new SimpleMeterRegistry());
+        // the stream still carries the old PUBLIC row while the post is made private
+        when(postRepo.streamAccessRows()).thenAnswer(inv -> {
+            index.put(postId, PostVisibility.PRIVATE, ownerId);
+            return Stream.of(new PostAccessRow(postId, PostVisibility.PUBLIC, ownerId));
+        });
+
+        index.rebuild();
+
+        assertEquals(PostAccessIndex.UNKNOWN, index.find(postId));
+    }
+}
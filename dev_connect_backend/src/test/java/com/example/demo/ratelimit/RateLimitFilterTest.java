@@ -0,0 +1,114 @@
+package com.example.demo.ratelimit;
+
+import com.example.demo.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RateLimitFilterTest {
+
+    private JwtUtil jwtUtil;
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicLong clock;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = mock(JwtUtil.class);
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new AtomicLong();
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("security.rate-limit.search.capacity", "2")
+                .withProperty("security.rate-limit.search.refill-per-minute", "60");
+        filter = new RateLimitFilter(jwtUtil, env, true, false, 1_000, meterRegistry, clock::get);
+    }
+
+    private MockHttpServletResponse search(String remoteAddr, String token) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/search");
+        request.setServletPath("/api/search");
+        request.setRemoteAddr(remoteAddr);
+        if (token != null) {
+            request.setCookies(new Cookie("DEVCONNECT_JWT", token));
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, mock(FilterChain.class));
+        return response;
+    }
+
+    @Test
+    void testSearch_RejectsOverLimitWithHeaders() throws ServletException, IOException {
+        assertEquals(200, search("10.0.0.1", null).getStatus());
+        MockHttpServletResponse second = search("10.0.0.1", null);
+        assertEquals("2", second.getHeader("X-RateLimit-Limit"));
+        assertEquals("0", second.getHeader("X-RateLimit-Remaining"));
+
+        MockHttpServletResponse rejected = search("10.0.0.1", null);
+        assertEquals(429, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertEquals(1.0, meterRegistry.counter("ratelimit.rejected", "group", "search").count());
+    }
+
+    @Test
+    void testBucketsAreSeparatePerIp() throws ServletException, IOException {
+        search("10.0.0.1", null);
+        search("10.0.0.1", null);
+
+        assertEquals(200, search("10.0.0.2", null).getStatus());
+    }
+
+    @Test
+    void testAuthenticatedRequests_KeyedByUserNotIp() throws ServletException, IOException {
+        Claims claims = mock(Claims.class);
+        when(claims.get(JwtUtil.USER_ID_CLAIM, String.class)).thenReturn(UUID.randomUUID().toString());
+        when(jwtUtil.parseVerified("token")).thenReturn(claims);
+
+        search("10.0.0.1", "token");
+        search("10.0.0.2", "token");
+
+        assertEquals(429, search("10.0.0.3", "token").getStatus());
+        assertEquals(200, search("10.0.0.3", null).getStatus());
+    }
+
+    @Test
+    void testRefilledBucketsAreEvicted() throws ServletException, IOException {
+        search("10.0.0.1", null);
+        assertEquals(1, filter.bucketCount());
+
+        clock.addAndGet(2_000_000_000L);
+        filter.evictIdleBuckets();
+
+        assertEquals(0, filter.bucketCount());
+    }
+
+    @Test
+    void testFullestSampledBucketIsDroppedAtCapacity() throws ServletException, IOException {
+        RateLimitFilter bounded = new RateLimitFilter(jwtUtil, new MockEnvironment()
+                .withProperty("security.rate-limit.search.capacity", "1")
+                .withProperty("security.rate-limit.search.refill-per-minute", "60"),
+                true, false, 2, meterRegistry, clock::get);
+        filter = bounded;
+        search("10.0.0.1", null);
+        clock.addAndGet(500_000_000L);
+        // .1 has refilled half a token, .2 none
+        search("10.0.0.2", null);
+
+        search("10.0.0.3", null);
+
+        assertEquals(2, bounded.bucketCount());
+        assertEquals(429, search("10.0.0.2", null).getStatus());
+    }
+}
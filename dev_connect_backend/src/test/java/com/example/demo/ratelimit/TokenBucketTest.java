@@ -0,0 +1,74 @@
+package com.example.demo.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void testTryConsume_AllowsBurstUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(3, 60, 0);
+
+        assertTrue(bucket.tryConsume(0).consumed());
+        assertTrue(bucket.tryConsume(0).consumed());
+        TokenBucket.Probe last = bucket.tryConsume(0);
+        assertTrue(last.consumed());
+        assertEquals(0, last.remaining());
+
+        TokenBucket.Probe rejected = bucket.tryConsume(0);
+        assertFalse(rejected.consumed());
+        // 60 per minute is one token per second
+        assertEquals(SECOND, rejected.nanosToWait());
+    }
+
+    @Test
+    void testTryConsume_RefillsOverTime() {
+        TokenBucket bucket = new TokenBucket(1, 60, 0);
+        assertTrue(bucket.tryConsume(0).consumed());
+        assertFalse(bucket.tryConsume(SECOND / 2).consumed());
+
+        assertTrue(bucket.tryConsume(SECOND).consumed());
+    }
+
+    @Test
+    void testIsFull_OnlyAfterCompleteRefill() {
+        TokenBucket bucket = new TokenBucket(2, 60, 0);
+        bucket.tryConsume(0);
+
+        assertFalse(bucket.isFull(SECOND / 2));
+        assertTrue(bucket.isFull(SECOND));
+    }
+
+    @Test
+    void testTryConsume_NeverOvergrantsUnderContention() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1_000, 1, 0);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 500; i++) {
+                    if (bucket.tryConsume(0).consumed()) {
+                        granted.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1_000, granted.get());
+    }
+}
@@ -0,0 +1,276 @@
+package com.example.demo.realtime;
+
+import com.example.demo.dto.comment.PostCommentCount;
+import com.example.demo.dto.post.PostResponse;
+import com.example.demo.dto.post.PostTag;
+import com.example.demo.dto.reaction.TargetReactionCount;
+import com.example.demo.entity.Post;
+import com.example.demo.entity.User;
+import com.example.demo.enums.DomainEventType;
+import com.example.demo.enums.PostVisibility;
+import com.example.demo.enums.ReactionType;
+import com.example.demo.events.DomainEvent;
+import com.example.demo.exception.TooManyRequestsException;
+import com.example.demo.repository.CommentRepository;
+import com.example.demo.repository.PostRepository;
+import com.example.demo.repository.ReactionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class FeedEventGatewayTest {
+
+    private PostRepository postRepo;
+    private CommentRepository commentRepo;
+    private ReactionRepository reactionRepo;
+    private List<Runnable> sendTasks;
+    private RecordingEmitter emitter;
+    private AtomicLong clock;
+    private FeedEventGateway gateway;
+
+    /** Captures frames instead of writing to a response. */
+    static class RecordingEmitter extends SseEmitter {
+        final List<String> sent = new ArrayList<>();
+
+        @Override
+        public synchronized void send(Set<DataWithMediaType> items) {
+            sent.add(items.stream().map(d -> String.valueOf(d.getData())).collect(Collectors.joining()));
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        postRepo = mock(PostRepository.class);
+        commentRepo = mock(CommentRepository.class);
+        reactionRepo = mock(ReactionRepository.class);
+        sendTasks = new ArrayList<>();
+        emitter = new RecordingEmitter();
+        clock = new AtomicLong();
+        // sends only happen when the test runs the queued tasks, like a busy pool would
+        gateway = new FeedEventGateway(postRepo, commentRepo, reactionRepo, new ObjectMapper().findAndRegisterModules(),
+                2, 10, sendTasks::add, () -> emitter, 1_000, clock::get, new SimpleMeterRegistry());
+    }
+
+    private PostResponse post(UUID id) {
+        return new PostResponse(id, "T", "C", List.of(), "PUBLIC", "u",
+                LocalDateTime.now(), LocalDateTime.now(), 0, 0, ReactionType.LIKE);
+    }
+
+    private void runSends() {
+        List<Runnable> tasks = new ArrayList<>(sendTasks);
+        sendTasks.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    @Test
+    void testUpdatesForSamePostMergeIntoOneEvent() {
+        gateway.subscribe();
+        UUID postId = UUID.randomUUID();
+        gateway.postPublished(post(postId));
+        gateway.countsChanged(postId);
+        gateway.countsChanged(postId);
+        when(commentRepo.countByPostIds(any())).thenReturn(List.of(new PostCommentCount(postId, 2L)));
+        when(reactionRepo.countByTypeForPosts(any())).thenReturn(List.of(
+                new TargetReactionCount(postId, ReactionType.LIKE, 3L)));
+
+        List<FeedEventGateway.FeedEvent> events = gateway.coalesce();
+
+        assertEquals(1, events.size());
+        assertEquals(FeedEventGateway.POST_EVENT, events.get(0).name());
+        PostResponse sent = (PostResponse) events.get(0).data();
+        assertEquals(2, sent.commentCount());
+        assertEquals(3, sent.reactionCount());
+        // the author's reaction is not broadcast
+        assertNull(sent.myReaction());
+    }
+
+    @Test
+    void testRemovalWinsOverEarlierUpdates() {
+        gateway.subscribe();
+        UUID postId = UUID.randomUUID();
+        gateway.postPublished(post(postId));
+        gateway.postRemoved(postId);
+        gateway.countsChanged(postId);
+
+        List<FeedEventGateway.FeedEvent> events = gateway.coalesce();
+
+        assertEquals(1, events.size());
+        assertEquals(FeedEventGateway.REMOVED_EVENT, events.get(0).name());
+        verifyNoInteractions(commentRepo, reactionRepo);
+    }
+
+    @Test
+    void testPostChangedOnAnotherNodeIsLoadedWithCounts() {
+        gateway.subscribe();
+        UUID postId = UUID.randomUUID();
+        User author = new User();
+        author.setUsername("alice");
+        Post post = new Post();
+        post.setId(postId);
+        post.setTitle("T");
+        post.setVisibility(PostVisibility.PUBLIC);
+        post.setUser(author);
+        gateway.postChanged(postId);
+        when(postRepo.findWithUserByIdIn(any())).thenReturn(List.of(post));
+        when(postRepo.findTagsByPostIds(any())).thenReturn(List.of(new PostTag(postId, "java")));
+        when(commentRepo.countByPostIds(any())).thenReturn(List.of(new PostCommentCount(postId, 4L)));
+
+        List<FeedEventGateway.FeedEvent> events = gateway.coalesce();
+
+        assertEquals(1, events.size());
+        assertEquals(FeedEventGateway.POST_EVENT, events.get(0).name());
+        PostResponse sent = (PostResponse) events.get(0).data();
+        assertEquals("alice", sent.username());
+        assertEquals(List.of("java"), sent.tags());
+        assertEquals(4, sent.commentCount());
+    }
+
+    @Test
+    void testPostGoneOnAnotherNodeIsRemoved() {
+        gateway.subscribe();
+        UUID postId = UUID.randomUUID();
+        gateway.postChanged(postId);
+        when(postRepo.findWithUserByIdIn(any())).thenReturn(List.of());
+
+        List<FeedEventGateway.FeedEvent> events = gateway.coalesce();
+
+        assertEquals(1, events.size());
+        assertEquals(FeedEventGateway.REMOVED_EVENT, events.get(0).name());
+        verifyNoInteractions(commentRepo, reactionRepo);
+    }
+
+    @Test
+    void testCountsOfPrivatePostsAreNotBroadcast() {
+        gateway.subscribe();
+        UUID postId = UUID.randomUUID();
+        gateway.countsChanged(postId);
+        when(postRepo.findIdsByIdInAndVisibility(any(), eq(PostVisibility.PUBLIC))).thenReturn(List.of());
+
+        assertTrue(gateway.coalesce().isEmpty());
+    }
+
+    @Test
+    void testNoSubscribersSkipsQueries() {
+        gateway.countsChanged(UUID.randomUUID());
+
+        assertTrue(gateway.coalesce().isEmpty());
+        verifyNoInteractions(postRepo, commentRepo, reactionRepo);
+    }
+
+    @Test
+    void testEventsDeliveredOnTick() {
+        gateway.subscribe();
+        gateway.postRemoved(UUID.randomUUID());
+
+        gateway.tick();
+        runSends();
+
+        assertEquals(1, emitter.sent.size());
+        assertTrue(emitter.sent.get(0).contains("event:" + FeedEventGateway.REMOVED_EVENT));
+    }
+
+    @Test
+    void testSlowSubscriberGetsOneResyncInsteadOfBacklog() {
+        gateway.subscribe();
+        for (int i = 0; i < 3; i++) {
+            gateway.postRemoved(UUID.randomUUID());
+            gateway.tick();
+        }
+        gateway.postRemoved(UUID.randomUUID());
+        gateway.tick();
+
+        runSends();
+
+        assertEquals(2, emitter.sent.size());
+        assertTrue(emitter.sent.get(0).contains("event:" + FeedEventGateway.RESYNC_EVENT));
+        assertTrue(emitter.sent.get(1).contains("event:" + FeedEventGateway.REMOVED_EVENT));
+    }
+
+    @Test
+    void testStalledSendDropsSubscriberAndFreesSender() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        List<Throwable> completedWith = new ArrayList<>();
+        // a client whose socket buffer never drains
+        SseEmitter blocked = new SseEmitter() {
+            @Override
+            public void send(Set<DataWithMediaType> items) throws IOException {
+                writing.countDown();
+                try {
+                    Thread.sleep(Long.MAX_VALUE);
+                } catch (InterruptedException ex) {
+                    throw new InterruptedIOException();
+                }
+            }
+
+            @Override
+            public void completeWithError(Throwable ex) {
+                completedWith.add(ex);
+            }
+        };
+        gateway = new FeedEventGateway(postRepo, commentRepo, reactionRepo, new ObjectMapper(),
+                2, 10, sendTasks::add, () -> blocked, 1_000, clock::get, new SimpleMeterRegistry());
+        gateway.subscribe();
+        gateway.postRemoved(UUID.randomUUID());
+        gateway.tick();
+        Thread sender = new Thread(this::runSends);
+        sender.start();
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+        gateway.expireStalledSends();
+        assertEquals(1, gateway.subscriberCount());
+        clock.addAndGet(1_001);
+        gateway.expireStalledSends();
+
+        sender.join(5_000);
+        assertFalse(sender.isAlive());
+        assertEquals(0, gateway.subscriberCount());
+        assertEquals(1, completedWith.size());
+    }
+
+    @Test
+    void testCommentAndReactionEventsMarkCounts() {
+        gateway.subscribe();
+        UUID postId = UUID.randomUUID();
+        gateway.onDomainEvents(List.of(
+                new DomainEvent(1, DomainEventType.COMMENT_ADDED, UUID.randomUUID(), postId, LocalDateTime.now()),
+                new DomainEvent(2, DomainEventType.POST_REACTION_CHANGED, postId, postId, LocalDateTime.now()),
+                new DomainEvent(3, DomainEventType.COMMENT_REACTION_CHANGED, UUID.randomUUID(), UUID.randomUUID(), LocalDateTime.now())));
+        when(postRepo.findIdsByIdInAndVisibility(any(), eq(PostVisibility.PUBLIC))).thenReturn(List.of(postId));
+
+        List<FeedEventGateway.FeedEvent> events = gateway.coalesce();
+
+        assertEquals(1, events.size());
+        assertEquals(FeedEventGateway.COUNTS_EVENT, events.get(0).name());
+        assertEquals(postId, events.get(0).postId());
+    }
+
+    @Test
+    void testSubscriberLimit() {
+        for (int i = 0; i < 10; i++) {
+            gateway.subscribe();
+        }
+
+        assertThrows(TooManyRequestsException.class, () -> gateway.subscribe());
+        assertEquals(10, gateway.subscriberCount());
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Post;
+import com.example.demo.entity.User;
+import com.example.demo.entity.UserCredential;
+import com.example.demo.enums.PostVisibility;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// every repository call runs in its own session, so hits can only come from the second-level cache;
+// the migrations are Postgres-only, so the embedded database gets its schema from the entities
+@DataJpaTest(properties = {"spring.flyway.enabled=false", "spring.jpa.hibernate.ddl-auto=create-drop"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private PostRepository postRepo;
+
+    @Autowired
+    private UserCredentialRepository credentialRepo;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        user = new User();
+        user.setUsername("cache-" + UUID.randomUUID());
+        user.setEmail(user.getUsername() + "@email.com");
+        user = userRepo.save(user);
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        postRepo.deleteAll();
+        credentialRepo.deleteAll();
+        userRepo.deleteAll();
+    }
+
+    @Test
+    void testRepeatedUserLookupsById_HitCache() {
+        userRepo.findById(user.getId());
+        statistics.clear();
+
+        userRepo.findById(user.getId());
+        userRepo.findById(user.getId());
+
+        assertEquals(2, statistics.getSecondLevelCacheHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testCachedUserCarriesNoPasswordHash() {
+        credentialRepo.save(new UserCredential(user, "{bcrypt}hash"));
+        userRepo.findById(user.getId());
+        statistics.clear();
+
+        User cached = userRepo.findById(user.getId()).orElseThrow();
+
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+        assertNull(cached.getPassword());
+        assertEquals("{bcrypt}hash", credentialRepo.findPasswordByUserId(user.getId()).orElseThrow());
+    }
+
+    @Test
+    void testRepeatedUserLookupsByUsername_HitNaturalIdCache() {
+        userRepo.findByUsername(user.getUsername());
+        statistics.clear();
+
+        assertTrue(userRepo.findByUsername(user.getUsername()).isPresent());
+        assertTrue(userRepo.findByUsername(user.getUsername()).isPresent());
+
+        assertEquals(2, statistics.getNaturalIdCacheHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testRepeatedPostLookups_HitEntityAndTagsCache() {
+        Post post = new Post();
+        post.setTitle("cached");
+        post.setContent("content");
+        post.setTags(List.of("java", "spring"));
+        post.setVisibility(PostVisibility.PUBLIC);
+        post.setUser(user);
+        UUID postId = postRepo.save(post).getId();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        // first read puts the tags collection into its region
+        tx.executeWithoutResult(status -> postRepo.findById(postId).orElseThrow().getTags().size());
+        statistics.clear();
+
+        List<String> tags = tx.execute(status -> List.copyOf(postRepo.findById(postId).orElseThrow().getTags()));
+
+        assertEquals(List.of("java", "spring"), tags);
+        assertEquals(1, statistics.getDomainDataRegionStatistics("posts").getHitCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics("post-tags").getHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.demo.responsecache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ETagFilterTest {
+
+    private DataVersions versions;
+    private AtomicLong clock;
+    private AtomicInteger renders;
+    private SimpleMeterRegistry meterRegistry;
+    private ETagFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        versions = new DataVersions();
+        clock = new AtomicLong();
+        renders = new AtomicInteger();
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new ETagFilter(versions, true, 10_000, meterRegistry, clock::get);
+    }
+
+    private MockHttpServletResponse get(String path, String ifNoneMatch, int status)
+            throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> {
+            renders.incrementAndGet();
+            ((HttpServletResponse) res).setStatus(status);
+            res.getWriter().write("{}");
+        };
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    void testMatchingTagAnswered304WithoutRendering() throws Exception {
+        String etag = get("/api/posts/public", null, 200).getHeader("ETag");
+        assertNotNull(etag);
+
+        MockHttpServletResponse revalidated = get("/api/posts/public", etag, 200);
+
+        assertEquals(304, revalidated.getStatus());
+        assertEquals(etag, revalidated.getHeader("ETag"));
+        assertEquals(1, renders.get());
+        assertEquals(1.0, meterRegistry.counter("response.etag.not-modified", "route", "public_feed").count());
+    }
+
+    @Test
+    void testWriteChangesTheTag() throws Exception {
+        String etag = get("/api/posts/public", null, 200).getHeader("ETag");
+        versions.bump(DataVersions.Domain.REACTIONS);
+
+        MockHttpServletResponse response = get("/api/posts/public", etag, 200);
+
+        assertEquals(200, response.getStatus());
+        assertNotEquals(etag, response.getHeader("ETag"));
+    }
+
+    @Test
+    void testCommentThreadVersionedPerPost() throws Exception {
+        UUID postId = UUID.randomUUID();
+        String path = "/api/posts/" + postId + "/comments";
+        String etag = get(path, null, 200).getHeader("ETag");
+
+        versions.bump(DataVersions.Domain.COMMENTS);
+        assertEquals(304, get(path, etag, 200).getStatus());
+
+        versions.bumpPost(postId);
+        assertEquals(200, get(path, etag, 200).getStatus());
+    }
+
+    @Test
+    void testWindowForcesRevalidation() throws Exception {
+        String etag = get("/api/users", null, 200).getHeader("ETag");
+        clock.addAndGet(10_000);
+
+        assertEquals(200, get("/api/users", etag, 200).getStatus());
+    }
+
+    @Test
+    void testErrorResponsesCarryNoTag() throws Exception {
+        MockHttpServletResponse response = get("/api/posts/" + UUID.randomUUID() + "/reactions", null, 403);
+
+        assertNull(response.getHeader("ETag"));
+    }
+
+    @Test
+    void testWeakAndListMatching() {
+        assertTrue(ETagFilter.matches("\"a\", W/\"b\"", "\"b\""));
+        assertFalse(ETagFilter.matches("*", "\"b\""));
+        assertFalse(ETagFilter.matches("\"a\"", "\"b\""));
+    }
+}
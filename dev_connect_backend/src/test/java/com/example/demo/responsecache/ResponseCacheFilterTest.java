@@ -0,0 +1,124 @@
+package com.example.demo.responsecache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheFilterTest {
+
+    private static final String BODY = "{\"content\":[" + "{\"title\":\"post\"},".repeat(50) + "{}]}";
+
+    private DataVersions versions;
+    private AtomicLong clock;
+    private AtomicInteger renders;
+    private ResponseCacheFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        versions = new DataVersions();
+        clock = new AtomicLong();
+        renders = new AtomicInteger();
+        filter = new ResponseCacheFilter(versions, true, 10_000, 100, 1 << 20, new SimpleMeterRegistry(), clock::get);
+    }
+
+    private MockHttpServletResponse get(String path, String query, String acceptEncoding)
+            throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                String[] kv = pair.split("=");
+                request.addParameter(kv[0], kv[1]);
+            }
+        }
+        if (acceptEncoding != null) {
+            request.addHeader("Accept-Encoding", acceptEncoding);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> {
+            renders.incrementAndGet();
+            res.setContentType("application/json");
+            res.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+        };
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    void testSecondRequestServedFromCache() throws Exception {
+        MockHttpServletResponse first = get("/api/posts/public", "page=0&size=5", null);
+        MockHttpServletResponse second = get("/api/posts/public", "size=5&page=0", null);
+
+        assertEquals("MISS", first.getHeader(ResponseCacheFilter.CACHE_HEADER));
+        assertEquals("HIT", second.getHeader(ResponseCacheFilter.CACHE_HEADER));
+        assertEquals(BODY, second.getContentAsString());
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    void testGzipVariantServedWhenAccepted() throws Exception {
+        get("/api/search", "keyword=java", null);
+        MockHttpServletResponse hit = get("/api/search", "keyword=java", "deflate, gzip");
+
+        assertEquals("gzip", hit.getHeader("Content-Encoding"));
+        assertTrue(hit.getContentAsByteArray().length < BODY.length());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(hit.getContentAsByteArray()))) {
+            assertEquals(BODY, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testWriteInDomainInvalidates() throws Exception {
+        String path = "/api/posts/0b6c4a52-8f1e-4d0b-9a8e-6f7f8d2c1e11/reactions";
+        get(path, null, null);
+        versions.bump(DataVersions.Domain.COMMENTS);
+        get(path, null, null);
+        assertEquals(1, renders.get());
+
+        versions.bump(DataVersions.Domain.REACTIONS);
+        get(path, null, null);
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    void testExpiredEntryIsRendered() throws Exception {
+        get("/api/posts/public", null, null);
+        clock.addAndGet(10_000);
+        get("/api/posts/public", null, null);
+
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    void testAuthorizationHeaderBypasses() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts/public");
+        request.setServletPath("/api/posts/public");
+        request.addHeader("Authorization", "Basic YWRtaW46YWRtaW4=");
+        for (int i = 0; i < 2; i++) {
+            filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> renders.incrementAndGet());
+        }
+
+        assertEquals(2, renders.get());
+        assertEquals(0, filter.size());
+    }
+
+    @Test
+    void testAcceptEncodingQZeroIsRefused() {
+        assertTrue(ResponseCacheFilter.accepts("gzip;q=0.5, br", "br"));
+        assertFalse(ResponseCacheFilter.accepts("br;q=0, gzip", "br"));
+        assertFalse(ResponseCacheFilter.accepts(null, "gzip"));
+    }
+}
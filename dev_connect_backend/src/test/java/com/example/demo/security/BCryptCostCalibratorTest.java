@@ -0,0 +1,41 @@
+package com.example.demo.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BCryptCostCalibratorTest {
+
+    // cost 10 takes 60ms here, each step doubles
+    private static long simulatedNanos(int cost) {
+        return 60_000_000L << (cost - 10);
+    }
+
+    @Test
+    void testCalibrate_PicksHighestCostWithinTarget() {
+        BCryptCostCalibrator calibrator =
+                new BCryptCostCalibrator(250, 10, 16, BCryptCostCalibratorTest::simulatedNanos);
+
+        // 10 -> 60ms, 11 -> 120ms, 12 -> 240ms, 13 -> 480ms
+        assertEquals(12, calibrator.calibrate());
+    }
+
+    @Test
+    void testCalibrate_NeverGoesBelowMinimum() {
+        BCryptCostCalibrator calibrator = new BCryptCostCalibrator(10, 10, 16, cost -> 1_000_000_000L);
+
+        assertEquals(10, calibrator.calibrate());
+    }
+
+    @Test
+    void testCalibrate_CapsAtMaximum() {
+        BCryptCostCalibrator calibrator = new BCryptCostCalibrator(250, 10, 13, cost -> 1L);
+
+        assertEquals(13, calibrator.calibrate());
+    }
+
+    @Test
+    void testCalibrate_RejectsInvalidRange() {
+        assertThrows(IllegalArgumentException.class, () -> new BCryptCostCalibrator(250, 12, 10));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.demo.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CalibratedBCryptPasswordEncoderTest {
+
+    private final CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(5);
+
+    @Test
+    void testUpgradeEncoding_SameCostIsKept() {
+        assertFalse(encoder.upgradeEncoding(encoder.encode("password")));
+    }
+
+    @Test
+    void testUpgradeEncoding_LowerCostIsRehashed() {
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password")));
+    }
+
+    @Test
+    void testUpgradeEncoding_HigherCostIsKept() {
+        assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("password")));
+    }
+
+    @Test
+    void testMatches_AcceptsHashesMadeWithOtherCosts() {
+        assertTrue(encoder.matches("password", new BCryptPasswordEncoder(4).encode("password")));
+    }
+
+    @Test
+    void testUpgradeEncoding_IgnoresMalformedHash() {
+        assertFalse(encoder.upgradeEncoding("not-a-hash"));
+        assertFalse(encoder.upgradeEncoding(null));
+    }
+}
@@ -1,9 +1,9 @@
 package com.example.demo.security;
 
-import com.example.demo.CustomUserService;
 import com.example.demo.entity.User;
 import com.example.demo.model.UserPrincipal;
-import com.example.demo.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -12,12 +12,15 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.context.ApplicationContext;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.IOException;
+import java.util.Set;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -29,13 +32,13 @@ class JwtFilterTest {
     private JwtUtil jwtUtil;
 
     @Mock
-    private UserRepository userRepo;
+    private PrincipalCache principalCache;
 
     @Mock
-    private ApplicationContext context;
+    private TokenVersionRegistry tokenVersions;
 
     @Mock
-    private CustomUserService customUserService;
+    private TokenRevocationService revocations;
 
     @Mock
     private FilterChain filterChain;
@@ -43,6 +46,12 @@ class JwtFilterTest {
     @InjectMocks
     private JwtFilter jwtFilter;
 
+    private Claims claimsFor(String username) {
+        Claims claims = mock(Claims.class);
+        when(claims.getSubject()).thenReturn(username);
+        return claims;
+    }
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -63,10 +72,8 @@ class JwtFilterTest {
         user.setUsername("testuser");
         UserPrincipal userPrincipal = new UserPrincipal(user);
         
-        when(jwtUtil.extractUsername("valid-token")).thenReturn("testuser");
-        when(context.getBean(CustomUserService.class)).thenReturn(customUserService);
-        when(customUserService.loadUserByUsername("testuser")).thenReturn(userPrincipal);
-        when(jwtUtil.IsTokenValid("valid-token", userPrincipal)).thenReturn(true);
+        when(jwtUtil.parseVerified("valid-token")).thenReturn(claimsFor("testuser"));
+        when(principalCache.get("testuser")).thenReturn(userPrincipal);
 
         // Act
         jwtFilter.doFilterInternal(request, response, filterChain);
@@ -90,10 +97,8 @@ class JwtFilterTest {
         user.setUsername("testuser");
         UserPrincipal userPrincipal = new UserPrincipal(user);
         
-        when(jwtUtil.extractUsername("valid-token")).thenReturn("testuser");
-        when(context.getBean(CustomUserService.class)).thenReturn(customUserService);
-        when(customUserService.loadUserByUsername("testuser")).thenReturn(userPrincipal);
-        when(jwtUtil.IsTokenValid("valid-token", userPrincipal)).thenReturn(true);
+        when(jwtUtil.parseVerified("valid-token")).thenReturn(claimsFor("testuser"));
+        when(principalCache.get("testuser")).thenReturn(userPrincipal);
 
         // Act
         jwtFilter.doFilterInternal(request, response, filterChain);
@@ -103,6 +108,25 @@ class JwtFilterTest {
         verify(filterChain).doFilter(request, response);
     }
 
+    @Test
+    void doFilterInternal_AdminUsername_ShouldGrantAdminRole() throws ServletException, IOException {
+        ReflectionTestUtils.setField(jwtFilter, "adminUsernames", Set.of("ops"));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setServletPath("/actuator/hotkeys");
+        request.addHeader("Authorization", "Bearer valid-token");
+
+        User user = new User();
+        user.setUsername("ops");
+        when(jwtUtil.parseVerified("valid-token")).thenReturn(claimsFor("ops"));
+        when(principalCache.get("ops")).thenReturn(new UserPrincipal(user));
+
+        jwtFilter.doFilterInternal(request, new MockHttpServletResponse(), filterChain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getAuthorities())
+                .extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_ADMIN");
+    }
+
     @Test
     void doFilterInternal_WithNoCookie_ShouldNotSetAuthentication() throws ServletException, IOException {
         // Arrange
@@ -116,7 +140,7 @@ class JwtFilterTest {
         // Assert
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtil, never()).extractUsername(anyString());
+        verify(jwtUtil, never()).parseVerified(anyString());
     }
 
     @Test
@@ -129,14 +153,7 @@ class JwtFilterTest {
         Cookie jwtCookie = new Cookie("DEVCONNECT_JWT", "invalid-token");
         request.setCookies(jwtCookie);
         
-        User user = new User();
-        user.setUsername("testuser");
-        UserPrincipal userPrincipal = new UserPrincipal(user);
-        
-        when(jwtUtil.extractUsername("invalid-token")).thenReturn("testuser");
-        when(context.getBean(CustomUserService.class)).thenReturn(customUserService);
-        when(customUserService.loadUserByUsername("testuser")).thenReturn(userPrincipal);
-        when(jwtUtil.IsTokenValid("invalid-token", userPrincipal)).thenReturn(false);
+        when(jwtUtil.parseVerified("invalid-token")).thenThrow(new JwtException("bad signature"));
 
         // Act
         jwtFilter.doFilterInternal(request, response, filterChain);
@@ -144,6 +161,69 @@ class JwtFilterTest {
         // Assert
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
         verify(filterChain).doFilter(request, response);
+        verify(principalCache, never()).get(anyString());
+    }
+
+    @Test
+    void doFilterInternal_StatelessToken_ShouldNotLoadUser() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        request.setServletPath("/api/posts/my-post");
+        request.setCookies(new Cookie("DEVCONNECT_JWT", "stateless-token"));
+
+        UUID userId = UUID.randomUUID();
+        Claims claims = claimsFor("testuser");
+        when(claims.get(JwtUtil.USER_ID_CLAIM, String.class)).thenReturn(userId.toString());
+        when(claims.get(JwtUtil.TOKEN_VERSION_CLAIM, Number.class)).thenReturn(3L);
+        when(jwtUtil.parseVerified("stateless-token")).thenReturn(claims);
+        when(tokenVersions.isCurrent(userId, 3L)).thenReturn(true);
+
+        jwtFilter.doFilterInternal(request, response, filterChain);
+
+        UserPrincipal principal = (UserPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        assertThat(principal.getId()).isEqualTo(userId);
+        assertThat(principal.getUsername()).isEqualTo("testuser");
+        verify(principalCache, never()).get(anyString());
+    }
+
+    @Test
+    void doFilterInternal_StaleTokenVersion_ShouldNotSetAuthentication() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        request.setServletPath("/api/posts/my-post");
+        request.setCookies(new Cookie("DEVCONNECT_JWT", "stale-token"));
+
+        UUID userId = UUID.randomUUID();
+        Claims claims = claimsFor("testuser");
+        when(claims.get(JwtUtil.USER_ID_CLAIM, String.class)).thenReturn(userId.toString());
+        when(claims.get(JwtUtil.TOKEN_VERSION_CLAIM, Number.class)).thenReturn(1L);
+        when(jwtUtil.parseVerified("stale-token")).thenReturn(claims);
+        when(tokenVersions.isCurrent(userId, 1L)).thenReturn(false);
+
+        jwtFilter.doFilterInternal(request, response, filterChain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void doFilterInternal_RevokedToken_ShouldNotSetAuthentication() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        request.setServletPath("/api/posts/my-post");
+        request.setCookies(new Cookie("DEVCONNECT_JWT", "revoked-token"));
+
+        UUID jti = UUID.randomUUID();
+        Claims claims = claimsFor("testuser");
+        when(claims.getId()).thenReturn(jti.toString());
+        when(jwtUtil.parseVerified("revoked-token")).thenReturn(claims);
+        when(revocations.isRevoked(jti)).thenReturn(true);
+
+        jwtFilter.doFilterInternal(request, response, filterChain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verify(principalCache, never()).get(anyString());
+        verify(filterChain).doFilter(request, response);
     }
 
     @Test
@@ -169,7 +249,7 @@ class JwtFilterTest {
 
             // Assert
             verify(filterChain).doFilter(request, response);
-            verify(jwtUtil, never()).extractUsername(anyString());
+            verify(jwtUtil, never()).parseVerified(anyString());
         }
     }
 
@@ -188,16 +268,14 @@ class JwtFilterTest {
         user.setUsername("testuser");
         UserPrincipal userPrincipal = new UserPrincipal(user);
         
-        when(jwtUtil.extractUsername("cookie-token")).thenReturn("testuser");
-        when(context.getBean(CustomUserService.class)).thenReturn(customUserService);
-        when(customUserService.loadUserByUsername("testuser")).thenReturn(userPrincipal);
-        when(jwtUtil.IsTokenValid("cookie-token", userPrincipal)).thenReturn(true);
+        when(jwtUtil.parseVerified("cookie-token")).thenReturn(claimsFor("testuser"));
+        when(principalCache.get("testuser")).thenReturn(userPrincipal);
 
         // Act
         jwtFilter.doFilterInternal(request, response, filterChain);
 
         // Assert
-        verify(jwtUtil).extractUsername("cookie-token");
-        verify(jwtUtil, never()).extractUsername("header-token");
+        verify(jwtUtil).parseVerified("cookie-token");
+        verify(jwtUtil, never()).parseVerified("header-token");
     }
 }
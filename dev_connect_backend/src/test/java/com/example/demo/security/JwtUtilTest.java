@@ -0,0 +1,88 @@
+package com.example.demo.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private static final String SECRET =
+            Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes());
+
+    private final JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000, 100);
+
+    @Test
+    void testParseVerified_ReturnsClaims() {
+        String token = jwtUtil.generateToken("testuser");
+
+        Claims claims = jwtUtil.parseVerified(token);
+
+        assertEquals("testuser", claims.getSubject());
+    }
+
+    @Test
+    void testParseVerified_RepeatedTokenServedFromCache() {
+        String token = jwtUtil.generateToken("testuser");
+
+        Claims first = jwtUtil.parseVerified(token);
+        Claims second = jwtUtil.parseVerified(token);
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void testParseVerified_ForeignSignatureRejected() {
+        String otherSecret = Base64.getEncoder().encodeToString("fedcba9876543210fedcba9876543210".getBytes());
+        String forged = new JwtUtil(otherSecret, 60_000, 100).generateToken("testuser");
+
+        assertThrows(JwtException.class, () -> jwtUtil.parseVerified(forged));
+    }
+
+    @Test
+    void testParseVerified_ExpiredTokenRejected() {
+        JwtUtil expiring = new JwtUtil(SECRET, -1_000, 100);
+        String token = expiring.generateToken("testuser");
+
+        assertThrows(JwtException.class, () -> expiring.parseVerified(token));
+    }
+
+    @Test
+    void testExtractUsername_UsesVerifiedClaims() {
+        String token = jwtUtil.generateToken("testuser");
+
+        assertEquals("testuser", jwtUtil.extractUsername(token));
+        assertFalse(jwtUtil.isExpired(token));
+    }
+
+    @Test
+    void testGenerateToken_CarriesUserIdAndVersion() {
+        UUID userId = UUID.randomUUID();
+        String token = jwtUtil.generateToken("testuser", userId, 7);
+
+        Claims claims = jwtUtil.parseVerified(token);
+
+        assertEquals(userId, JwtUtil.extractUserId(claims));
+        assertEquals(7, JwtUtil.extractTokenVersion(claims));
+    }
+
+    @Test
+    void testLegacyToken_HasNoUserId() {
+        Claims claims = jwtUtil.parseVerified(jwtUtil.generateToken("testuser"));
+
+        assertNull(JwtUtil.extractUserId(claims));
+    }
+
+    @Test
+    void testGenerateToken_AssignsUniqueTokenIds() {
+        UUID first = JwtUtil.extractTokenId(jwtUtil.parseVerified(jwtUtil.generateToken("testuser")));
+        UUID second = JwtUtil.extractTokenId(jwtUtil.parseVerified(jwtUtil.generateToken("testuser")));
+
+        assertNotNull(first);
+        assertNotEquals(first, second);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.demo.security;
+
+import com.example.demo.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Feed latency with and without a login storm. Request threads stand in for
+ * Tomcat's pool; logins hand the hash to PasswordHashingExecutor and return.
+ * Latency runs from submission, so time spent queued behind busy request
+ * threads counts. The inline variant hashes on the request threads, as
+ * before the executor, and must break the same bound.
+ * Excluded from the default build, run with ./gradlew loadTest.
+ */
+@Tag("load")
+class LoginStormLoadTest {
+
+    private static final int REQUEST_THREADS = 32;
+    private static final int FEED_REQUESTS = 2_000;
+    private static final int LOGIN_REQUESTS = 2_000;
+
+    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(10);
+    private final String storedHash = encoder.encode("password123");
+
+    @Test
+    void feedLatencyStaysStableDuringLoginStorm() throws Exception {
+        PasswordHashingExecutor hashingExecutor = new PasswordHashingExecutor(0, 64, 1, new SimpleMeterRegistry());
+        ExecutorService requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+        try {
+            long baselineP99 = p99(runFeed(requestThreads));
+
+            AtomicInteger rejected = new AtomicInteger();
+            long stormP99 = p99DuringStorm(requestThreads, () -> {
+                try {
+                    hashingExecutor.submit(() -> encoder.matches("password123", storedHash));
+                } catch (TooManyRequestsException ex) {
+                    rejected.incrementAndGet();
+                }
+            });
+
+            assertTrue(rejected.get() > 0, "storm should overflow the hashing queue");
+            assertTrue(withinBound(baselineP99, stormP99),
+                    "feed p99 degraded during login storm: " + stormP99 + " ns vs " + baselineP99 + " ns");
+        } finally {
+            requestThreads.shutdownNow();
+            hashingExecutor.shutdown();
+        }
+    }
+
+    // without this the bound above could pass whatever the executor does
+    @Test
+    void inlineHashingBreaksTheBound() throws Exception {
+        ExecutorService requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+        try {
+            long baselineP99 = p99(runFeed(requestThreads));
+
+            long stormP99 = p99DuringStorm(requestThreads, () -> encoder.matches("password123", storedHash));
+
+            assertFalse(withinBound(baselineP99, stormP99),
+                    "hashing on request threads did not degrade the feed, the bound detects nothing");
+        } finally {
+            requestThreads.shutdownNow();
+        }
+    }
+
+    private long p99DuringStorm(ExecutorService requestThreads, Runnable login) throws Exception {
+        List<Future<?>> logins = new ArrayList<>();
+        for (int i = 0; i < LOGIN_REQUESTS; i++) {
+            logins.add(requestThreads.submit(login));
+        }
+        long stormP99 = p99(runFeed(requestThreads));
+        for (Future<?> f : logins) {
+            f.get();
+        }
+        return stormP99;
+    }
+
+    private static boolean withinBound(long baselineP99, long stormP99) {
+        return stormP99 < Math.max(baselineP99 * 5, baselineP99 + TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    // a cheap request: build and sort a page of ids
+    private long[] runFeed(ExecutorService requestThreads) throws Exception {
+        List<Future<Long>> timings = new ArrayList<>();
+        for (int i = 0; i < FEED_REQUESTS; i++) {
+            long submitted = System.nanoTime();
+            timings.add(requestThreads.submit(() -> {
+                List<String> page = new ArrayList<>();
+                for (int j = 0; j < 50; j++) {
+                    page.add(UUID.randomUUID().toString());
+                }
+                page.sort(String::compareTo);
+                return System.nanoTime() - submitted;
+            }));
+        }
+        long[] latencies = new long[FEED_REQUESTS];
+        for (int i = 0; i < FEED_REQUESTS; i++) {
+            latencies[i] = timings.get(i).get();
+        }
+        return latencies;
+    }
+
+    private static long p99(long[] latencies) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) (sorted.length * 0.99) - 1];
+    }
+}
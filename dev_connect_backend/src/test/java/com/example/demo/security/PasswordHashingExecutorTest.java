@@ -0,0 +1,67 @@
+package com.example.demo.security;
+
+import com.example.demo.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHashingExecutor hashingExecutor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        hashingExecutor = new PasswordHashingExecutor(1, 1, 2, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hashingExecutor.shutdown();
+    }
+
+    @Test
+    void testSubmit_ReturnsResultFromPool() {
+        String thread = hashingExecutor.submit(() -> Thread.currentThread().getName()).join();
+
+        assertTrue(thread.startsWith("password-hashing-"));
+        assertEquals(1, meterRegistry.timer("password.hashing.duration").count());
+    }
+
+    @Test
+    void testSubmit_RejectsWhenPoolAndQueueAreFull() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> running = hashingExecutor.submit(() -> {
+            started.countDown();
+            await(release);
+            return "first";
+        });
+        started.await();
+        CompletableFuture<String> queued = hashingExecutor.submit(() -> "second");
+
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+                () -> hashingExecutor.submit(() -> "third"));
+        assertEquals(2, ex.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.counter("password.hashing.rejected").count());
+
+        release.countDown();
+        assertEquals("first", running.join());
+        assertEquals("second", queued.join());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.demo.security;
+
+import com.example.demo.CustomUserService;
+import com.example.demo.entity.User;
+import com.example.demo.model.UserPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PrincipalCacheTest {
+
+    private CustomUserService customUserService;
+    private SimpleMeterRegistry meterRegistry;
+    private PrincipalCache principalCache;
+
+    @BeforeEach
+    void setUp() {
+        customUserService = mock(CustomUserService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        principalCache = new PrincipalCache(customUserService, 60_000, 100, meterRegistry);
+
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername("testuser");
+        user.setPassword("$2a$12$hash");
+        when(customUserService.loadUserByUsername("testuser")).thenReturn(new UserPrincipal(user));
+    }
+
+    @Test
+    void testRepeatedLookups_HitDatabaseOnce() {
+        principalCache.get("testuser");
+        principalCache.get("testuser");
+        UserPrincipal principal = principalCache.get("testuser");
+
+        assertEquals("testuser", principal.getUsername());
+        verify(customUserService, times(1)).loadUserByUsername("testuser");
+        assertEquals(2.0, meterRegistry.counter("principal.cache.hits").count());
+    }
+
+    @Test
+    void testCachedPrincipal_HasNoPasswordHash() {
+        assertNull(principalCache.get("testuser").getPassword());
+    }
+
+    @Test
+    void testInvalidate_ForcesReload() {
+        principalCache.get("testuser");
+        principalCache.invalidate("testuser");
+        principalCache.get("testuser");
+
+        verify(customUserService, times(2)).loadUserByUsername("testuser");
+    }
+
+    @Test
+    void testExpiredEntry_IsReloaded() {
+        PrincipalCache noTtl = new PrincipalCache(customUserService, 0, 100, meterRegistry);
+        noTtl.get("testuser");
+        noTtl.get("testuser");
+
+        verify(customUserService, times(2)).loadUserByUsername("testuser");
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.demo.security;
+
+import com.example.demo.entity.RevokedToken;
+import com.example.demo.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationServiceTest {
+
+    private RevokedTokenRepository revokedTokenRepo;
+    private SimpleMeterRegistry meterRegistry;
+    private TokenRevocationService revocations;
+
+    @BeforeEach
+    void setUp() {
+        revokedTokenRepo = mock(RevokedTokenRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        revocations = new TokenRevocationService(revokedTokenRepo, 1_000, 0.001, meterRegistry);
+    }
+
+    @Test
+    void testIsRevoked_FilterMissSkipsDatabase() {
+        when(revokedTokenRepo.findActiveJtis(any(LocalDateTime.class))).thenReturn(List.of());
+        revocations.rebuild();
+
+        for (int i = 0; i < 100; i++) {
+            assertFalse(revocations.isRevoked(UUID.randomUUID()));
+        }
+
+        verify(revokedTokenRepo, never()).existsById(any());
+        assertEquals(100.0, meterRegistry.counter("token.revocation.filter.negatives").count());
+    }
+
+    @Test
+    void testIsRevoked_RevokedTokenConfirmedByDatabase() {
+        UUID jti = UUID.randomUUID();
+        when(revokedTokenRepo.findActiveJtis(any(LocalDateTime.class))).thenReturn(List.of(jti));
+        when(revokedTokenRepo.existsById(jti)).thenReturn(true);
+        revocations.rebuild();
+
+        assertTrue(revocations.isRevoked(jti));
+        verify(revokedTokenRepo).existsById(jti);
+    }
+
+    @Test
+    void testRevoke_PersistsAndUpdatesFilter() {
+        when(revokedTokenRepo.findActiveJtis(any(LocalDateTime.class))).thenReturn(List.of());
+        revocations.rebuild();
+        UUID jti = UUID.randomUUID();
+        when(revokedTokenRepo.existsById(jti)).thenReturn(true);
+
+        revocations.revoke(jti, new Date(System.currentTimeMillis() + 60_000));
+
+        verify(revokedTokenRepo).save(any(RevokedToken.class));
+        assertTrue(revocations.isRevoked(jti));
+    }
+
+    @Test
+    void testRevoke_ExpiredTokenIsIgnored() {
+        revocations.revoke(UUID.randomUUID(), new Date(System.currentTimeMillis() - 1_000));
+
+        verify(revokedTokenRepo, never()).save(any());
+    }
+
+    @Test
+    void testIsRevoked_BeforeFirstRebuildUsesDatabase() {
+        UUID jti = UUID.randomUUID();
+
+        assertFalse(revocations.isRevoked(jti));
+        verify(revokedTokenRepo).existsById(jti);
+    }
+
+    @Test
+    void testSyncRecent_AddsRevocationsFromOtherNodes() {
+        UUID jti = UUID.randomUUID();
+        when(revokedTokenRepo.findActiveJtis(any(LocalDateTime.class))).thenReturn(List.of());
+        when(revokedTokenRepo.findJtisRevokedSince(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(jti));
+        when(revokedTokenRepo.existsById(jti)).thenReturn(true);
+        revocations.rebuild();
+
+        revocations.syncRecent();
+
+        assertTrue(revocations.isRevoked(jti));
+    }
+}
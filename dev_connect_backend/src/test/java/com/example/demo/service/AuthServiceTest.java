@@ -2,7 +2,15 @@ package com.example.demo.service;
 
 import com.example.demo.AuthService;
 import com.example.demo.dto.login.LoginRequest;
+import com.example.demo.entity.User;
+import com.example.demo.model.UserPrincipal;
+import com.example.demo.exception.TooManyRequestsException;
 import com.example.demo.security.JwtUtil;
+import com.example.demo.security.PasswordHashingExecutor;
+import com.example.demo.security.TokenRevocationService;
+import com.example.demo.security.TokenVersionRegistry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -15,6 +23,11 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -26,6 +39,15 @@ class AuthServiceTest {
     @Mock
     private JwtUtil jwtUtil;
 
+    @Mock
+    private TokenVersionRegistry tokenVersions;
+
+    @Mock
+    private TokenRevocationService revocations;
+
+    @Mock
+    private PasswordHashingExecutor hashingExecutor;
+
     @InjectMocks
     private AuthService authService;
 
@@ -114,4 +136,79 @@ class AuthServiceTest {
         assertEquals("jwt2", token);
         verify(jwtUtil, times(1)).generateToken("user2");
     }
+
+    @Test
+    void testVerify_EmbedsUserIdWhenPrincipalAvailable() {
+        LoginRequest loginRequest = new LoginRequest("user3", "pass789");
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername("user3");
+        UserPrincipal principal = new UserPrincipal(user);
+        Authentication auth = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenReturn(auth);
+        when(jwtUtil.generateToken(principal)).thenReturn("stateless-jwt");
+
+        assertEquals("stateless-jwt", authService.verify(loginRequest));
+        verify(jwtUtil, never()).generateToken(anyString());
+    }
+
+    @Test
+    void testRevokeSessions_BumpsTokenVersion() {
+        UUID userId = UUID.randomUUID();
+
+        authService.revokeSessions(userId);
+
+        verify(tokenVersions).bump(userId);
+    }
+
+    @Test
+    void testLogout_RevokesTokenId() {
+        UUID jti = UUID.randomUUID();
+        Date expiresAt = new Date(System.currentTimeMillis() + 60_000);
+        Claims claims = mock(Claims.class);
+        when(claims.getId()).thenReturn(jti.toString());
+        when(claims.getExpiration()).thenReturn(expiresAt);
+        when(jwtUtil.parseVerified("session-jwt")).thenReturn(claims);
+
+        authService.logout("session-jwt");
+
+        verify(revocations).revoke(jti, expiresAt);
+    }
+
+    @Test
+    void testLogout_InvalidTokenIsIgnored() {
+        when(jwtUtil.parseVerified("garbage")).thenThrow(new JwtException("bad"));
+
+        authService.logout("garbage");
+        authService.logout(null);
+
+        verifyNoInteractions(revocations);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testVerifyAsync_RunsOnHashingPool() {
+        LoginRequest loginRequest = new LoginRequest("user1", "pass123");
+        Authentication mockAuth = mock(Authentication.class);
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenReturn(mockAuth);
+        when(mockAuth.getName()).thenReturn("user1");
+        when(jwtUtil.generateToken("user1")).thenReturn("mocked-jwt-token");
+        when(hashingExecutor.submit(any(Supplier.class)))
+                .thenAnswer(inv -> CompletableFuture.completedFuture(((Supplier<String>) inv.getArgument(0)).get()));
+
+        assertEquals("mocked-jwt-token", authService.verifyAsync(loginRequest).join());
+        verify(hashingExecutor).submit(any(Supplier.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testVerifyAsync_SaturatedPoolFailsFast() {
+        when(hashingExecutor.submit(any(Supplier.class)))
+                .thenThrow(new TooManyRequestsException("busy", 1));
+
+        assertThrows(TooManyRequestsException.class,
+                () -> authService.verifyAsync(new LoginRequest("user1", "pass123")));
+        verifyNoInteractions(authenticationManager);
+    }
 }
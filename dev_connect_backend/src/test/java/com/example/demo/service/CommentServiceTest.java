@@ -2,24 +2,36 @@ package com.example.demo.service;
 
 import com.example.demo.CommentService;
 import com.example.demo.UserService;
+import com.example.demo.datasource.PrimaryReads;
 import com.example.demo.dto.comment.CommentResponse;
 import com.example.demo.entity.Comment;
 import com.example.demo.entity.Post;
 import com.example.demo.entity.User;
+import com.example.demo.enums.DomainEventType;
 import com.example.demo.enums.PostVisibility;
 import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.repository.CommentRepository;
+import com.example.demo.responsecache.DataVersions;
 import com.example.demo.security.AuthUtil;
+import com.example.demo.sync.ChangeLog;
 import com.example.demo.post.PostService;
 import com.example.demo.reaction.ReactionService;
+import com.example.demo.reaction.ViewerReactionResolver;
+import com.example.demo.events.DomainEventPublisher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.security.access.AccessDeniedException;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -31,6 +43,12 @@ class CommentServiceTest {
     @Mock private CommentRepository commentRepo;
     @Mock private ReactionService reactionService;
     @Mock private AuthUtil authUtil;
+    @Mock private ViewerReactionResolver viewerReactions;
+    @Mock private DataVersions dataVersions;
+    @Mock private DomainEventPublisher domainEvents;
+    @Mock private TransactionTemplate transactions;
+    @Mock private ChangeLog changeLog;
+    @Mock private PrimaryReads primaryReads;
 
     @InjectMocks
     private CommentService commentService;
@@ -38,6 +56,13 @@ class CommentServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        // run transaction callbacks inline
+        when(transactions.execute(any())).thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactions).executeWithoutResult(any());
+        when(primaryReads.execute(any())).thenAnswer(inv -> inv.<Supplier<?>>getArgument(0).get());
     }
 
     @Test
@@ -60,19 +85,23 @@ class CommentServiceTest {
         savedComment.setPost(post);
 
         when(userService.getByUsername(username)).thenReturn(user);
-        when(postService.getById(postId)).thenReturn(post);
+        when(postService.getReference(postId)).thenReturn(post);
         when(commentRepo.save(any(Comment.class))).thenReturn(savedComment);
         when(reactionService.getCountByCommentId(savedComment.getId())).thenReturn(0L);
 
         CommentResponse response = commentService.addComment(postId, content, username);
 
         assertNotNull(response);
+        verify(postService).checkPrivatePost(postId);
+        verify(postService, never()).getById(any());
         assertEquals(savedComment.getId(), response.id());
         assertEquals(content, response.content());
         assertEquals(username, response.username());
         assertEquals(0L, response.reactionsCount());
 
         verify(commentRepo).save(any(Comment.class));
+        verify(dataVersions).bump(DataVersions.Domain.COMMENTS);
+        verify(domainEvents).publish(DomainEventType.COMMENT_ADDED, savedComment.getId(), postId);
     }
 
     @Test
@@ -82,11 +111,9 @@ class CommentServiceTest {
         String content = "Hello";
 
         User user = new User();
-        Post post = new Post();
-        post.setVisibility(PostVisibility.PRIVATE);
 
         when(userService.getByUsername(username)).thenReturn(user);
-        when(postService.getById(postId)).thenReturn(post);
+        doThrow(new AccessDeniedException("Access Denied")).when(postService).checkPrivatePost(postId);
 
         assertThrows(AccessDeniedException.class, () ->
                 commentService.addComment(postId, content, username)
@@ -102,6 +129,9 @@ class CommentServiceTest {
         User user = new User();
         user.setUsername("user1");
         comment.setUser(user);
+        Post post = new Post();
+        post.setId(UUID.randomUUID());
+        comment.setPost(post);
 
         when(commentRepo.findById(commentId)).thenReturn(Optional.of(comment));
         doNothing().when(authUtil).verifyUserAccess("user1");
@@ -109,6 +139,7 @@ class CommentServiceTest {
         commentService.deleteComment(commentId);
 
         verify(commentRepo).delete(comment);
+        verify(dataVersions).bumpPost(post.getId());
         verify(authUtil).verifyUserAccess("user1");
     }
 
@@ -151,8 +182,8 @@ class CommentServiceTest {
         when(postService.getById(postId)).thenReturn(post);
         doNothing().when(postService).checkPrivatePost(postId);
         when(commentRepo.findAllByPostId(postId)).thenReturn(List.of(comment1, comment2));
-        when(reactionService.getCountByCommentId(comment1.getId())).thenReturn(2L);
-        when(reactionService.getCountByCommentId(comment2.getId())).thenReturn(5L);
+        when(reactionService.getCountsByCommentIds(List.of(comment1.getId(), comment2.getId())))
+                .thenReturn(Map.of(comment1.getId(), 2L, comment2.getId(), 5L));
 
         // Call the method
         List<CommentResponse> responses = commentService.getCommentByPostId(postId);
@@ -3,6 +3,7 @@ package com.example.demo.service;
 import com.example.demo.CustomUserService;
 import com.example.demo.entity.User;
 import com.example.demo.model.UserPrincipal;
+import com.example.demo.repository.UserCredentialRepository;
 import com.example.demo.repository.UserRepository;
 
 import org.junit.jupiter.api.Test;
@@ -16,9 +17,11 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,20 +30,27 @@ class CustomUserServiceTest {
     @Mock
     private UserRepository userRepo;
 
+    @Mock
+    private UserCredentialRepository credentialRepo;
+
     @InjectMocks
     private CustomUserService customUserService;
 
     @Test
     void loadUserByUsername_success() {
         User user = new User();
+        user.setId(UUID.randomUUID());
         user.setUsername("john");
 
         when(userRepo.findByUsername("john"))
                 .thenReturn(Optional.of(user));
+        when(credentialRepo.findPasswordByUserId(user.getId()))
+                .thenReturn(Optional.of("{bcrypt}$2a$12$hash"));
 
         UserDetails result = customUserService.loadUserByUsername("john");
 
         assertEquals("john", result.getUsername());
+        assertEquals("{bcrypt}$2a$12$hash", result.getPassword());
         assertEquals(UserPrincipal.class, result.getClass());
     }
 
@@ -54,4 +64,16 @@ class CustomUserServiceTest {
                 () -> customUserService.loadUserByUsername("missing")
         );
     }
+
+    @Test
+    void updatePassword_storesRehashedPassword() {
+        User user = new User();
+        user.setUsername("john");
+        user.setPassword("$2a$10$old");
+
+        UserDetails result = customUserService.updatePassword(new UserPrincipal(user), "{bcrypt}$2a$12$new");
+
+        verify(credentialRepo).updatePassword("john", "{bcrypt}$2a$12$new");
+        assertEquals("{bcrypt}$2a$12$new", result.getPassword());
+    }
 }
@@ -1,31 +1,57 @@
 package com.example.demo.service;
 
 import com.example.demo.UserService;
+import com.example.demo.datasource.PrimaryReads;
+import com.example.demo.dto.post.PostAccessRow;
 import com.example.demo.dto.post.PostRequest;
 import com.example.demo.dto.post.PostResponse;
+import com.example.demo.dto.sync.DeltaResponse;
 import com.example.demo.entity.Post;
+import com.example.demo.entity.PostFeedView;
 import com.example.demo.entity.User;
+import com.example.demo.enums.ChangeKind;
 import com.example.demo.enums.PostVisibility;
 import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.feedview.PostFeedProjector;
+import com.example.demo.hotkey.HotKeyDetector;
+import com.example.demo.hotkey.HotPostCache;
+import com.example.demo.enums.ReactionType;
+import com.example.demo.post.FeedHeadRing;
+import com.example.demo.post.PostAccessIndex;
 import com.example.demo.post.PostService;
+import com.example.demo.reaction.ViewerReactionResolver;
 import com.example.demo.repository.CommentRepository;
+import com.example.demo.repository.PostFeedViewRepository;
 import com.example.demo.repository.PostRepository;
 import com.example.demo.repository.ReactionRepository;
+import com.example.demo.realtime.FeedEventGateway;
+import com.example.demo.responsecache.DataVersions;
+import com.example.demo.security.AuthUtil;
+import com.example.demo.sync.ChangeLog;
 import com.example.demo.utils.PostMapper;
+import com.example.demo.events.DomainEventPublisher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.access.AccessDeniedException;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -37,6 +63,19 @@ class PostServiceTest {
     @Mock private PostMapper postMapper;
     @Mock private CommentRepository commentRepo;
     @Mock private ReactionRepository reactionRepo;
+    @Mock private ViewerReactionResolver viewerReactions;
+    @Mock private HotKeyDetector hotKeys;
+    @Mock private HotPostCache hotPosts;
+    @Mock private PostAccessIndex accessIndex;
+    @Mock private FeedHeadRing feedHead;
+    @Mock private DataVersions dataVersions;
+    @Mock private FeedEventGateway feedEvents;
+    @Mock private DomainEventPublisher domainEvents;
+    @Mock private TransactionTemplate transactions;
+    @Mock private ChangeLog changeLog;
+    @Mock private PostFeedViewRepository feedViewRepo;
+    @Mock private PostFeedProjector feedView;
+    @Mock private PrimaryReads primaryReads;
 
     @InjectMocks
     private PostService postService;
@@ -44,6 +83,14 @@ class PostServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        // run transaction callbacks inline
+        when(transactions.execute(any())).thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactions).executeWithoutResult(any());
+        when(accessIndex.find(any())).thenReturn(PostAccessIndex.UNKNOWN);
+        when(primaryReads.execute(any())).thenAnswer(inv -> inv.<Supplier<?>>getArgument(0).get());
     }
 
     @Test
@@ -61,13 +108,13 @@ class PostServiceTest {
         savedPost.setTags(List.of("Java"));
         savedPost.setVisibility(PostVisibility.PUBLIC);
 
-        PostResponse response = new PostResponse(savedPost.getId(), "Title", "Content", List.of("Java"), "PUBLIC", "user", LocalDateTime.now(),LocalDateTime.now(),0,0);
+        PostResponse response = new PostResponse(savedPost.getId(), "Title", "Content", List.of("Java"), "PUBLIC", "user", LocalDateTime.now(),LocalDateTime.now(),0,0, null);
 
         when(userService.getById(userId)).thenReturn(user);
         when(postRepo.save(any(Post.class))).thenReturn(savedPost);
         when(commentRepo.countByPostId(savedPost.getId())).thenReturn(0L);
         when(reactionRepo.countByPostId(savedPost.getId())).thenReturn(0L);
-        when(postMapper.toResponse(savedPost,0,0)).thenReturn(response);
+        when(postMapper.toResponse(savedPost,0,0, null)).thenReturn(response);
 
         PostResponse result = postService.createPost(request, userId);
 
@@ -75,6 +122,7 @@ class PostServiceTest {
         assertEquals(savedPost.getId(), result.id());
         assertEquals("Title", result.title());
         verify(postRepo).save(any(Post.class));
+        verify(feedEvents).postPublished(response);
     }
 
     @Test
@@ -87,13 +135,13 @@ class PostServiceTest {
         PostResponse resp1 = new PostResponse(
                 post1.getId(), "T1", "C1", List.of(),
                 "PUBLIC", "U1",
-                LocalDateTime.now(), LocalDateTime.now(), 0, 0
+                LocalDateTime.now(), LocalDateTime.now(), 0, 0, null
         );
 
         PostResponse resp2 = new PostResponse(
                 post2.getId(), "T2", "C2", List.of(),
                 "PUBLIC", "U2",
-                LocalDateTime.now(), LocalDateTime.now(), 0, 0
+                LocalDateTime.now(), LocalDateTime.now(), 0, 0, null
         );
 
         Pageable pageable = PageRequest.of(0, 10);
@@ -104,8 +152,8 @@ class PostServiceTest {
 
         when(commentRepo.countByPostId(any())).thenReturn(0L);
         when(reactionRepo.countByPostId(any())).thenReturn(0L);
-        when(postMapper.toResponse(post1, 0, 0)).thenReturn(resp1);
-        when(postMapper.toResponse(post2, 0, 0)).thenReturn(resp2);
+        when(postMapper.toResponse(post1, 0, 0, null)).thenReturn(resp1);
+        when(postMapper.toResponse(post2, 0, 0, null)).thenReturn(resp2);
 
         Page<PostResponse> results = postService.getPublicPosts(0, 10);
 
@@ -114,6 +162,80 @@ class PostServiceTest {
         assertEquals(resp2, results.getContent().get(1));
     }
 
+    @Test
+    void testGetPublicPosts_FirstPageServedFromRing() {
+        PostResponse cached = new PostResponse(UUID.randomUUID(), "T1", "C1", List.of(), "PUBLIC", "U1",
+                LocalDateTime.now(), LocalDateTime.now(), 3, 7, null);
+        when(feedHead.capacity()).thenReturn(100);
+        when(feedHead.isLoaded()).thenReturn(true);
+        when(feedHead.slice(0, 10)).thenReturn(List.of(cached));
+        when(feedHead.publicCount()).thenReturn(1L);
+        when(viewerReactions.forPosts(List.of(cached.id()))).thenReturn(Map.of(cached.id(), ReactionType.LIKE));
+
+        Page<PostResponse> results = postService.getPublicPosts(0, 10);
+
+        assertEquals(1, results.getTotalElements());
+        assertEquals(ReactionType.LIKE, results.getContent().get(0).myReaction());
+        assertEquals(7, results.getContent().get(0).reactionCount());
+        verify(postRepo, never()).findByVisibility(any(), any());
+    }
+
+    @Test
+    void testGetPublicPosts_BeyondRingQueriesDatabase() {
+        when(feedHead.capacity()).thenReturn(100);
+        when(postRepo.findByVisibility(eq(PostVisibility.PUBLIC), any(Pageable.class)))
+                .thenReturn(Page.empty());
+
+        postService.getPublicPosts(10, 10);
+
+        verify(feedHead, never()).slice(anyInt(), anyInt());
+        verify(postRepo).findByVisibility(eq(PostVisibility.PUBLIC), eq(PageRequest.of(10, 10,
+                Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id")))));
+    }
+
+    @Test
+    void testGetPublicPosts_ResolvesViewerReactionsInOneLookup() {
+        Post post1 = new Post();
+        post1.setId(UUID.randomUUID());
+        Post post2 = new Post();
+        post2.setId(UUID.randomUUID());
+
+        Page<Post> postPage = new PageImpl<>(List.of(post1, post2), PageRequest.of(0, 10), 2);
+
+        when(postRepo.findByVisibility(eq(PostVisibility.PUBLIC), any(Pageable.class)))
+                .thenReturn(postPage);
+        when(viewerReactions.forPosts(List.of(post1.getId(), post2.getId())))
+                .thenReturn(Map.of(post1.getId(), ReactionType.LIKE));
+
+        postService.getPublicPosts(0, 10);
+
+        verify(viewerReactions, times(1)).forPosts(any());
+        verify(postMapper).toResponse(post1, 0, 0, ReactionType.LIKE);
+        verify(postMapper).toResponse(post2, 0, 0, null);
+    }
+
+    @Test
+    void testGetPublicPosts_BeyondRingReadsViewWhenReady() {
+        User user = new User();
+        user.setUsername("U1");
+        Post post = new Post();
+        post.setId(UUID.randomUUID());
+        post.setUser(user);
+        post.setVisibility(PostVisibility.PUBLIC);
+        PostFeedView row = new PostFeedView(post, List.of("java"), 3, Map.of(ReactionType.LIKE, 2L));
+        when(feedHead.capacity()).thenReturn(100);
+        when(feedView.isReady()).thenReturn(true);
+        when(feedViewRepo.findByVisibility(eq(PostVisibility.PUBLIC), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(row), PageRequest.of(10, 10), 101));
+
+        Page<PostResponse> results = postService.getPublicPosts(10, 10);
+
+        assertEquals(101, results.getTotalElements());
+        verify(postMapper).toResponse(row, null);
+        verify(postRepo, never()).findByVisibility(any(), any());
+        verify(commentRepo, never()).countByPostId(any());
+    }
+
 
     @Test
     void testGetById_Found() {
@@ -155,13 +277,13 @@ class PostServiceTest {
         updatedPost.setVisibility(req.visibility());
         updatedPost.setUser(user);
 
-        PostResponse response = new PostResponse(postId, req.title(), req.content(), req.techStack(), "PUBLIC" ,"user1", LocalDateTime.now(), LocalDateTime.now(), 0, 0);
+        PostResponse response = new PostResponse(postId, req.title(), req.content(), req.techStack(), "PUBLIC" ,"user1", LocalDateTime.now(), LocalDateTime.now(), 0, 0, null);
 
         when(postRepo.findByIdAndUser_Username(postId, username)).thenReturn(Optional.of(existingPost));
         when(postRepo.save(existingPost)).thenReturn(updatedPost);
         when(commentRepo.countByPostId(postId)).thenReturn(0L);
         when(reactionRepo.countByPostId(postId)).thenReturn(0L);
-        when(postMapper.toResponse(updatedPost,0,0)).thenReturn(response);
+        when(postMapper.toResponse(updatedPost,0,0, null)).thenReturn(response);
 
         PostResponse result = postService.updatePost(req, username, postId);
 
@@ -185,6 +307,10 @@ class PostServiceTest {
         postService.deletePost(postId, username);
 
         verify(postRepo).delete(post);
+        verify(hotPosts).evict(postId);
+        verify(accessIndex).remove(postId);
+        verify(feedHead).remove(postId, false);
+        verify(dataVersions).bump(DataVersions.Domain.POSTS);
     }
 
     @Test
@@ -198,13 +324,27 @@ class PostServiceTest {
         verify(postRepo, never()).delete(any());
     }
 
+    @Test
+    void testDeletePost_OtherOwnerRejectedFromIndex() {
+        UUID postId = UUID.randomUUID();
+        UUID viewerId = UUID.randomUUID();
+        when(accessIndex.find(postId)).thenReturn(2);
+        when(accessIndex.isOwnedBy(2, viewerId)).thenReturn(false);
+
+        try (MockedStatic<AuthUtil> auth = mockStatic(AuthUtil.class)) {
+            auth.when(AuthUtil::currentUserId).thenReturn(Optional.of(viewerId));
+
+            assertThrows(AccessDeniedException.class, () -> postService.deletePost(postId, "user1"));
+        }
+        verify(postRepo, never()).findByIdAndUser_Username(any(), any());
+    }
+
     @Test
     void testCheckPrivatePost_AccessDenied() {
         UUID postId = UUID.randomUUID();
-        Post post = new Post();
-        post.setVisibility(PostVisibility.PRIVATE);
 
-        when(postRepo.findById(postId)).thenReturn(Optional.of(post));
+        when(postRepo.findAccessRow(postId))
+                .thenReturn(Optional.of(new PostAccessRow(postId, PostVisibility.PRIVATE, UUID.randomUUID())));
 
         assertThrows(AccessDeniedException.class, () -> postService.checkPrivatePost(postId));
     }
@@ -212,11 +352,77 @@ class PostServiceTest {
     @Test
     void testCheckPrivatePost_Public() {
         UUID postId = UUID.randomUUID();
-        Post post = new Post();
-        post.setVisibility(PostVisibility.PUBLIC);
+        UUID ownerId = UUID.randomUUID();
 
-        when(postRepo.findById(postId)).thenReturn(Optional.of(post));
+        when(postRepo.findAccessRow(postId))
+                .thenReturn(Optional.of(new PostAccessRow(postId, PostVisibility.PUBLIC, ownerId)));
+
+        assertDoesNotThrow(() -> postService.checkPrivatePost(postId));
+        verify(primaryReads).execute(any());
+        verify(accessIndex).put(postId, PostVisibility.PUBLIC, ownerId);
+    }
+
+    @Test
+    void testCheckPrivatePost_HotPostServedFromNearCache() {
+        UUID postId = UUID.randomUUID();
+        UUID ownerId = UUID.randomUUID();
+        when(hotKeys.record(postId)).thenReturn(true);
+        when(hotPosts.get(eq(postId), any())).thenReturn(new PostAccessRow(postId, PostVisibility.PUBLIC, ownerId));
+
+        assertDoesNotThrow(() -> postService.checkPrivatePost(postId));
+        verify(postRepo, never()).findAccessRow(any());
+        verify(accessIndex).put(postId, PostVisibility.PUBLIC, ownerId);
+    }
+
+    @Test
+    void testCheckPrivatePost_IndexHitSkipsDatabase() {
+        UUID postId = UUID.randomUUID();
+        when(accessIndex.find(postId)).thenReturn(1);
 
         assertDoesNotThrow(() -> postService.checkPrivatePost(postId));
+        verify(postRepo, never()).findById(any());
+        verify(hotKeys).record(postId);
+    }
+
+    @Test
+    void testCheckPrivatePost_IndexedPrivatePost() {
+        UUID postId = UUID.randomUUID();
+        when(accessIndex.find(postId)).thenReturn(0);
+
+        assertThrows(AccessDeniedException.class, () -> postService.checkPrivatePost(postId));
+        verify(postRepo, never()).findById(any());
+    }
+
+    @Test
+    void testPublicPostChanges_PrivateAndDeletedBecomeTombstones() {
+        User owner = new User();
+        owner.setId(UUID.randomUUID());
+        Post stillPublic = new Post();
+        stillPublic.setId(UUID.randomUUID());
+        stillPublic.setUser(owner);
+        stillPublic.setVisibility(PostVisibility.PUBLIC);
+        Post madePrivate = new Post();
+        madePrivate.setId(UUID.randomUUID());
+        madePrivate.setUser(owner);
+        madePrivate.setVisibility(PostVisibility.PRIVATE);
+        UUID deletedId = UUID.randomUUID();
+
+        Map<UUID, ChangeKind> changes = new LinkedHashMap<>();
+        changes.put(stillPublic.getId(), ChangeKind.UPSERT);
+        changes.put(madePrivate.getId(), ChangeKind.UPSERT);
+        changes.put(deletedId, ChangeKind.DELETE);
+        when(changeLog.postChanges("c1", null)).thenReturn(new ChangeLog.Batch(changes, "c2", false, false));
+        when(postRepo.findAllById(List.of(stillPublic.getId(), madePrivate.getId())))
+                .thenReturn(List.of(stillPublic, madePrivate));
+        PostResponse resp = new PostResponse(stillPublic.getId(), "T", "C", List.of(), "PUBLIC", "u",
+                LocalDateTime.now(), LocalDateTime.now(), 0, 0, null);
+        when(postMapper.toResponse(eq(stillPublic), anyLong(), anyLong(), any())).thenReturn(resp);
+
+        DeltaResponse<PostResponse> delta = postService.getPublicPostChanges("c1", null);
+
+        assertEquals(List.of(resp), delta.changed());
+        assertEquals(List.of(madePrivate.getId(), deletedId), delta.deleted());
+        assertEquals("c2", delta.since());
+        verify(primaryReads).execute(any());
     }
 }
@@ -1,26 +1,47 @@
 package com.example.demo.service;
 
 import com.example.demo.UserService;
+import com.example.demo.dto.reaction.ReactionBatchResponse;
 import com.example.demo.dto.reaction.ReactionResponse;
 import com.example.demo.dto.reaction.ReactionSummary;
+import com.example.demo.dto.reaction.ReactionTypeCount;
+import com.example.demo.dto.reaction.ReactorPage;
+import com.example.demo.dto.reaction.ReactorResponse;
+import com.example.demo.dto.reaction.ReactorRow;
+import com.example.demo.dto.reaction.TargetReactionCount;
 import com.example.demo.entity.Comment;
 import com.example.demo.entity.Post;
 import com.example.demo.entity.Reaction;
 import com.example.demo.entity.User;
+import com.example.demo.enums.DomainEventType;
+import com.example.demo.enums.PostVisibility;
 import com.example.demo.enums.ReactionType;
+import com.example.demo.exception.BadRequestException;
 import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.hotkey.HotKeyDetector;
+import com.example.demo.hotkey.HotReactionBuffer;
 import com.example.demo.reaction.ReactionService;
 import com.example.demo.repository.CommentRepository;
 import com.example.demo.repository.ReactionRepository;
+import com.example.demo.responsecache.DataVersions;
 import com.example.demo.post.PostService;
+import com.example.demo.reaction.ReactionCursor;
 import com.example.demo.utils.ReactionMapper;
+import com.example.demo.events.DomainEventPublisher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -32,6 +53,11 @@ class ReactionServiceTest {
     @Mock private CommentRepository commentRepo;
     @Mock private UserService userService;
     @Mock private PostService postService;
+    @Mock private HotKeyDetector hotKeys;
+    @Mock private HotReactionBuffer hotReactions;
+    @Mock private DataVersions dataVersions;
+    @Mock private DomainEventPublisher domainEvents;
+    @Mock private TransactionTemplate transactions;
 
     @InjectMocks
     private ReactionService reactionService;
@@ -39,6 +65,12 @@ class ReactionServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        // run transaction callbacks inline
+        when(transactions.execute(any())).thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactions).executeWithoutResult(any());
     }
 
     @Test
@@ -46,18 +78,19 @@ class ReactionServiceTest {
         UUID postId = UUID.randomUUID();
         Post post = new Post();
 
-        List<Reaction> reactions = List.of(new Reaction(), new Reaction());
+        List<ReactionTypeCount> counts = List.of(new ReactionTypeCount(ReactionType.LIKE, 2L));
         List<ReactionSummary> summaries = List.of(mock(ReactionSummary.class));
 
         when(postService.getById(postId)).thenReturn(post);
         doNothing().when(postService).checkPrivatePost(postId);
-        when(reactionRepo.findAllByPostId(postId)).thenReturn(reactions);
-        when(reactionMapper.toReactionMap(reactions)).thenReturn(summaries);
+        when(reactionRepo.countByTypeForPost(postId)).thenReturn(counts);
+        when(reactionMapper.toSummaries(eq(counts), any())).thenReturn(summaries);
 
         List<ReactionSummary> result = reactionService.getReactionsByPostId(postId);
 
         assertEquals(summaries, result);
-        verify(reactionRepo).findAllByPostId(postId);
+        verify(reactionRepo).countByTypeForPost(postId);
+        verify(reactionRepo, never()).findAllByPostId(postId);
     }
 
     @Test
@@ -65,12 +98,12 @@ class ReactionServiceTest {
         UUID commentId = UUID.randomUUID();
         Comment comment = new Comment();
 
-        List<Reaction> reactions = List.of(new Reaction());
+        List<ReactionTypeCount> counts = List.of(new ReactionTypeCount(ReactionType.FUNNY, 1L));
         List<ReactionSummary> summaries = List.of(mock(ReactionSummary.class));
 
         when(commentRepo.findById(commentId)).thenReturn(Optional.of(comment));
-        when(reactionRepo.findAllByCommentId(commentId)).thenReturn(reactions);
-        when(reactionMapper.toReactionMap(reactions)).thenReturn(summaries);
+        when(reactionRepo.countByTypeForComment(commentId)).thenReturn(counts);
+        when(reactionMapper.toSummaries(eq(counts), any())).thenReturn(summaries);
 
         List<ReactionSummary> result = reactionService.getReactionsByCommentId(commentId);
 
@@ -95,7 +128,7 @@ class ReactionServiceTest {
         User user = new User();
         user.setId(userId);
 
-        when(postService.getById(postId)).thenReturn(post);
+        when(postService.getReference(postId)).thenReturn(post);
         doNothing().when(postService).checkPrivatePost(postId);
         when(userService.getById(userId)).thenReturn(user);
         when(reactionRepo.findByUserIdAndPostId(userId, postId))
@@ -108,6 +141,7 @@ class ReactionServiceTest {
 
         assertEquals(ReactionType.LIKE, response.type());
         assertEquals(userId, response.userId());
+        verify(postService, never()).getById(any());
     }
 
     @Test
@@ -122,7 +156,7 @@ class ReactionServiceTest {
         Reaction existing = new Reaction();
         existing.setType(ReactionType.LIKE);
 
-        when(postService.getById(postId)).thenReturn(post);
+        when(postService.getReference(postId)).thenReturn(post);
         doNothing().when(postService).checkPrivatePost(postId);
         when(userService.getById(userId)).thenReturn(user);
         when(reactionRepo.findByUserIdAndPostId(userId, postId))
@@ -135,12 +169,98 @@ class ReactionServiceTest {
         verify(reactionRepo).delete(existing);
     }
 
+    @Test
+    void testReactToPost_HotPostIsBuffered() {
+        UUID postId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+
+        when(postService.getReference(postId)).thenReturn(new Post());
+        when(hotKeys.isHot(postId)).thenReturn(true);
+        when(hotReactions.toggle(eq(userId), eq(postId), eq(ReactionType.LIKE), any()))
+                .thenReturn(ReactionType.LIKE);
+
+        ReactionResponse response =
+                reactionService.reactToPost(postId, ReactionType.LIKE, userId);
+
+        assertEquals(ReactionType.LIKE, response.type());
+        verify(reactionRepo, never()).save(any(Reaction.class));
+    }
+
+    @Test
+    void testFlushHotReactions_WritesBatch() {
+        UUID postId = UUID.randomUUID();
+        UUID keepUser = UUID.randomUUID();
+        UUID undoUser = UUID.randomUUID();
+        Reaction undone = new Reaction();
+
+        when(hotReactions.drain()).thenReturn(List.of(
+                new HotReactionBuffer.PendingReaction(keepUser, postId, ReactionType.FUNNY),
+                new HotReactionBuffer.PendingReaction(undoUser, postId, null)
+        ));
+        when(reactionRepo.findByUserIdAndPostId(keepUser, postId)).thenReturn(Optional.empty());
+        when(reactionRepo.findByUserIdAndPostId(undoUser, postId)).thenReturn(Optional.of(undone));
+        when(userService.getById(keepUser)).thenReturn(new User());
+        when(postService.filterExistingPostIds(any())).thenReturn(List.of(postId));
+        when(postService.getReference(postId)).thenReturn(new Post());
+
+        reactionService.flushHotReactions();
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        ArgumentCaptor<List<Reaction>> saved = ArgumentCaptor.forClass((Class) List.class);
+        verify(reactionRepo).saveAll(saved.capture());
+        assertEquals(ReactionType.FUNNY, saved.getValue().get(0).getType());
+        verify(reactionRepo).deleteAll(List.of(undone));
+        verify(hotReactions).completeFlush(2);
+    }
+
+    @Test
+    void testFlushHotReactions_SkipsDeletedPosts() {
+        UUID postId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+
+        when(hotReactions.drain()).thenReturn(List.of(
+                new HotReactionBuffer.PendingReaction(userId, postId, ReactionType.LIKE)
+        ));
+        when(reactionRepo.findByUserIdAndPostId(userId, postId)).thenReturn(Optional.empty());
+        when(postService.filterExistingPostIds(any())).thenReturn(List.of());
+
+        reactionService.flushHotReactions();
+
+        verify(reactionRepo).saveAll(List.of());
+        verify(postService, never()).getReference(any());
+        verify(postService, never()).getById(any());
+    }
+
+    @Test
+    void testFlushHotReactions_RequeuesOnFailure() {
+        UUID postId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+
+        when(hotReactions.drain()).thenReturn(List.of(
+                new HotReactionBuffer.PendingReaction(userId, postId, ReactionType.LIKE)
+        ));
+        when(reactionRepo.findByUserIdAndPostId(userId, postId)).thenReturn(Optional.empty());
+        when(userService.getById(userId)).thenReturn(new User());
+        when(postService.filterExistingPostIds(any())).thenReturn(List.of(postId));
+        when(postService.getReference(postId)).thenReturn(new Post());
+        when(reactionRepo.saveAll(any())).thenThrow(new IllegalStateException("connection lost"));
+
+        assertThrows(IllegalStateException.class, () -> reactionService.flushHotReactions());
+
+        verify(hotReactions).requeueFlush();
+        verify(hotReactions, never()).completeFlush(anyInt());
+        verify(dataVersions, never()).bumpPost(postId);
+    }
+
     @Test
     void testReactToComment_Success() {
         UUID commentId = UUID.randomUUID();
         UUID userId = UUID.randomUUID();
 
+        Post post = new Post();
+        post.setId(UUID.randomUUID());
         Comment comment = new Comment();
+        comment.setPost(post);
         User user = new User();
         user.setId(userId);
 
@@ -156,6 +276,9 @@ class ReactionServiceTest {
 
         assertEquals(ReactionType.LIKE, response.type());
         assertEquals(userId, response.userId());
+        verify(dataVersions).bump(DataVersions.Domain.REACTIONS);
+        verify(domainEvents).publish(eq(DomainEventType.COMMENT_REACTION_CHANGED), any(), eq(post.getId()));
+        verify(dataVersions).bumpPost(post.getId());
     }
 
     @Test
@@ -186,4 +309,101 @@ class ReactionServiceTest {
 
         assertEquals(3L, count);
     }
+
+    @Test
+    void testGetPostReactors_FirstPageReturnsCursorWhenMoreRowsExist() {
+        UUID postId = UUID.randomUUID();
+        ReactorRow first = new ReactorRow(UUID.randomUUID(), "alice", LocalDateTime.now());
+        ReactorRow second = new ReactorRow(UUID.randomUUID(), "bob", LocalDateTime.now().minusMinutes(1));
+        ReactorRow extra = new ReactorRow(UUID.randomUUID(), "carol", LocalDateTime.now().minusMinutes(2));
+
+        when(reactionRepo.findReactorsByPost(eq(postId), eq(ReactionType.LIKE), any()))
+                .thenReturn(List.of(first, second, extra));
+        when(reactionMapper.toReactor(any(ReactorRow.class)))
+                .thenAnswer(invocation -> {
+                    ReactorRow row = invocation.getArgument(0);
+                    return new ReactorResponse(row.username(), row.reactedAt());
+                });
+
+        ReactorPage page = reactionService.getPostReactors(postId, ReactionType.LIKE, null, 2);
+
+        assertEquals(2, page.reactors().size());
+        assertEquals("bob", page.reactors().get(1).username());
+        ReactionCursor next = ReactionCursor.decode(page.nextCursor());
+        assertEquals(second.reactionId(), next.id());
+        assertEquals(second.reactedAt(), next.createdAt());
+    }
+
+    @Test
+    void testGetPostReactors_LastPageHasNoCursor() {
+        UUID postId = UUID.randomUUID();
+        ReactionCursor cursor = new ReactionCursor(LocalDateTime.now(), UUID.randomUUID());
+        ReactorRow row = new ReactorRow(UUID.randomUUID(), "alice", LocalDateTime.now().minusHours(1));
+
+        when(reactionRepo.findReactorsByPostAfter(eq(postId), eq(ReactionType.LIKE),
+                eq(cursor.createdAt()), eq(cursor.id()), any()))
+                .thenReturn(List.of(row));
+
+        ReactorPage page = reactionService.getPostReactors(postId, ReactionType.LIKE, cursor.encode(), 20);
+
+        assertEquals(1, page.reactors().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void testGetPostReactors_InvalidCursor() {
+        UUID postId = UUID.randomUUID();
+
+        assertThrows(BadRequestException.class,
+                () -> reactionService.getPostReactors(postId, ReactionType.LIKE, "not-a-cursor", 20));
+    }
+
+    @Test
+    void testGetReactionCounts_OneAggregatePerTargetType() {
+        UUID visiblePost = UUID.randomUUID();
+        UUID privatePost = UUID.randomUUID();
+        UUID comment = UUID.randomUUID();
+
+        when(postService.filterPublicPostIds(any())).thenReturn(List.of(visiblePost));
+        when(commentRepo.findIdsByIdInAndPostVisibility(any(), eq(PostVisibility.PUBLIC)))
+                .thenReturn(List.of(comment));
+        when(reactionRepo.countByTypeForPosts(List.of(visiblePost)))
+                .thenReturn(List.of(new TargetReactionCount(visiblePost, ReactionType.LIKE, 4L)));
+        when(reactionRepo.countByTypeForComments(List.of(comment)))
+                .thenReturn(List.of());
+
+        ReactionBatchResponse response = reactionService.getReactionCounts(
+                List.of(visiblePost, privatePost), List.of(comment));
+
+        assertEquals(4L, response.posts().get(visiblePost).get(ReactionType.LIKE));
+        assertFalse(response.posts().containsKey(privatePost));
+        assertTrue(response.comments().get(comment).isEmpty());
+        verify(reactionRepo, times(1)).countByTypeForPosts(any());
+        verify(reactionRepo, times(1)).countByTypeForComments(any());
+        verify(postService, never()).getById(any());
+    }
+
+    @Test
+    void testGetReactionCounts_TooManyTargets() {
+        List<UUID> ids = Collections.nCopies(101, null).stream().map(i -> UUID.randomUUID()).toList();
+
+        assertThrows(BadRequestException.class,
+                () -> reactionService.getReactionCounts(ids, List.of()));
+        verifyNoInteractions(reactionRepo);
+    }
+
+    @Test
+    void testGetCountsByCommentIds_SumsTypesInOneQuery() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(reactionRepo.countByTypeForComments(List.of(first, second))).thenReturn(List.of(
+                new TargetReactionCount(first, ReactionType.LIKE, 2L),
+                new TargetReactionCount(first, ReactionType.FUNNY, 3L)));
+
+        Map<UUID, Long> counts = reactionService.getCountsByCommentIds(List.of(first, second));
+
+        assertEquals(5L, counts.get(first));
+        assertFalse(counts.containsKey(second));
+        verify(reactionRepo, never()).countByCommentId(any());
+    }
 }
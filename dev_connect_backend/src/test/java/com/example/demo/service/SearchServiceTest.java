@@ -4,8 +4,11 @@ import com.example.demo.CommentService;
 import com.example.demo.SearchService;
 import com.example.demo.dto.post.PostResponse;
 import com.example.demo.entity.Post;
+import com.example.demo.feedview.PostFeedProjector;
+import com.example.demo.repository.PostFeedViewRepository;
 import com.example.demo.repository.PostRepository;
 import com.example.demo.reaction.ReactionService;
+import com.example.demo.reaction.ViewerReactionResolver;
 import com.example.demo.utils.PostMapper;
 
 import org.junit.jupiter.api.Test;
@@ -44,6 +47,15 @@ class SearchServiceTest {
     @Mock
     private ReactionService reactionService;
 
+    @Mock
+    private ViewerReactionResolver viewerReactions;
+
+    @Mock
+    private PostFeedViewRepository feedViewRepo;
+
+    @Mock
+    private PostFeedProjector feedView;
+
     @InjectMocks
     private SearchService searchService;
 
@@ -63,13 +75,13 @@ class SearchServiceTest {
         PostResponse resp1 = new PostResponse(
                 post1.getId(), "T1", "C1", List.of(),
                 "PUBLIC", "U1",
-                LocalDateTime.now(), LocalDateTime.now(), 1, 2
+                LocalDateTime.now(), LocalDateTime.now(), 1, 2, null
         );
 
         PostResponse resp2 = new PostResponse(
                 post2.getId(), "T2", "C2", List.of(),
                 "PUBLIC", "U2",
-                LocalDateTime.now(), LocalDateTime.now(), 3, 4
+                LocalDateTime.now(), LocalDateTime.now(), 3, 4, null
         );
 
         when(postRepo.searchPublicPosts(eq(keyword), any(Pageable.class)))
@@ -80,8 +92,8 @@ class SearchServiceTest {
         when(commentService.getCountByPostId(post2.getId())).thenReturn(3L);
         when(reactionService.getCountByPostId(post2.getId())).thenReturn(4L);
 
-        when(postMapper.toResponse(post1, 1, 2)).thenReturn(resp1);
-        when(postMapper.toResponse(post2, 3, 4)).thenReturn(resp2);
+        when(postMapper.toResponse(post1, 1, 2, null)).thenReturn(resp1);
+        when(postMapper.toResponse(post2, 3, 4, null)).thenReturn(resp2);
 
         Page<PostResponse> result = searchService.searchPosts(keyword, 0, 10);
 
@@ -0,0 +1,108 @@
+package com.example.demo.service;
+
+import com.example.demo.UserAvailabilityService;
+import com.example.demo.cluster.ClusterInvalidator;
+import com.example.demo.datasource.PrimaryReads;
+import com.example.demo.dto.profile.UserIdentity;
+import com.example.demo.enums.InvalidationTopic;
+import com.example.demo.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class UserAvailabilityServiceTest {
+
+    private UserRepository userRepo;
+    private ClusterInvalidator invalidator;
+    private SimpleMeterRegistry meterRegistry;
+    private UserAvailabilityService availability;
+
+    @BeforeEach
+    void setUp() {
+        userRepo = mock(UserRepository.class);
+        invalidator = mock(ClusterInvalidator.class);
+        meterRegistry = new SimpleMeterRegistry();
+        PrimaryReads primaryReads = mock(PrimaryReads.class);
+        when(primaryReads.execute(any())).thenAnswer(inv -> inv.<Supplier<?>>getArgument(0).get());
+        availability = new UserAvailabilityService(userRepo, primaryReads, invalidator, 1_000, 0.01, meterRegistry);
+        when(userRepo.count()).thenReturn(2L);
+        when(userRepo.streamIdentities()).thenReturn(Stream.of(
+                new UserIdentity("john", "john@email.com"),
+                new UserIdentity("jane", "jane@email.com")));
+    }
+
+    @Test
+    void testUnknownUsername_AnsweredWithoutQuery() {
+        availability.load();
+
+        for (int i = 0; i < 50; i++) {
+            assertFalse(availability.isUsernameTaken("new-user-" + i));
+        }
+
+        verify(userRepo, never()).existsByUsername(anyString());
+        assertEquals(50.0, meterRegistry.counter("user.availability.filter.negatives").count());
+    }
+
+    @Test
+    void testExistingUsername_ConfirmedByIndexedLookup() {
+        availability.load();
+        when(userRepo.existsByUsername("john")).thenReturn(true);
+
+        assertTrue(availability.isUsernameTaken("john"));
+        verify(userRepo).existsByUsername("john");
+    }
+
+    @Test
+    void testMarkTaken_UpdatesFilterAfterRegistration() {
+        availability.load();
+        when(userRepo.existsByEmail("new@email.com")).thenReturn(true);
+
+        UUID userId = UUID.randomUUID();
+        availability.markTaken(userId, "newbie", "new@email.com");
+
+        assertTrue(availability.isEmailTaken("new@email.com"));
+        verify(userRepo).existsByEmail("new@email.com");
+        verify(invalidator).invalidate(InvalidationTopic.NEW_USER, userId);
+    }
+
+    @Test
+    void testRegistrationOnAnotherNode_UpdatesFilter() {
+        availability.load();
+        UUID userId = UUID.randomUUID();
+        when(userRepo.findIdentityById(userId)).thenReturn(Optional.of(new UserIdentity("remote", "remote@email.com")));
+        when(userRepo.existsByUsername("remote")).thenReturn(true);
+
+        availability.markTaken(userId);
+
+        assertTrue(availability.isUsernameTaken("remote"));
+        verify(userRepo).existsByUsername("remote");
+        verifyNoInteractions(invalidator);
+    }
+
+    @Test
+    void testSuspended_FallsBackToDatabase() {
+        availability.load();
+        availability.suspend();
+
+        availability.isUsernameTaken("new-user");
+
+        verify(userRepo).existsByUsername("new-user");
+    }
+
+    @Test
+    void testBeforeLoad_FallsBackToDatabase() {
+        availability.isUsernameTaken("john");
+
+        verify(userRepo).existsByUsername("john");
+    }
+}
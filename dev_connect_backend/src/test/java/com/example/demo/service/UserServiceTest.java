@@ -1,17 +1,28 @@
 package com.example.demo.service;
 
+import com.example.demo.UserAvailabilityService;
 import com.example.demo.UserService;
+import com.example.demo.dto.profile.AvailabilityResponse;
 import com.example.demo.dto.profile.PublicUserProfileResponse;
 import com.example.demo.dto.profile.UpdateProfileRequest;
 import com.example.demo.dto.profile.UserProfileRequest;
 import com.example.demo.dto.profile.UserProfileResponse;
 import com.example.demo.entity.User;
+import com.example.demo.entity.UserCredential;
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.exception.ConflictException;
+import com.example.demo.repository.UserCredentialRepository;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.responsecache.DataVersions;
+import com.example.demo.security.PasswordHashingExecutor;
+import com.example.demo.security.PrincipalCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Optional;
@@ -25,15 +36,35 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepo;
 
+    @Mock
+    private UserCredentialRepository credentialRepo;
+
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private PasswordHashingExecutor hashingExecutor;
+
+    @Mock
+    private UserAvailabilityService availability;
+
+    @Mock
+    private DataVersions dataVersions;
+
+    @Mock
+    private TransactionTemplate transactions;
+
     @InjectMocks
     private UserService userService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        // run transaction callbacks inline
+        when(transactions.execute(any())).thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
     }
 
     @Test
@@ -59,6 +90,40 @@ class UserServiceTest {
 
         verify(passwordEncoder).encode("password");
         verify(userRepo).save(any(User.class));
+        verify(credentialRepo).save(argThat((UserCredential c) -> c.getPassword().equals("encodedPassword")));
+        verify(availability).markTaken(any(), eq("john"), eq("john@email.com"));
+    }
+
+    @Test
+    void testRegister_TakenUsernameFailsBeforeHashing() {
+        UserProfileRequest request = new UserProfileRequest("password", List.of(), "bio", "john", "john@email.com");
+        when(availability.isUsernameTaken("john")).thenReturn(true);
+
+        ConflictException ex = assertThrows(ConflictException.class, () -> userService.register(request));
+
+        assertEquals("Username already exists", ex.getMessage());
+        verifyNoInteractions(passwordEncoder);
+        verify(userRepo, never()).save(any());
+    }
+
+    @Test
+    void testRegisterAsync_TakenEmailIsNotQueuedForHashing() {
+        UserProfileRequest request = new UserProfileRequest("password", List.of(), "bio", "john", "john@email.com");
+        when(availability.isEmailTaken("john@email.com")).thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> userService.registerAsync(request));
+        verifyNoInteractions(hashingExecutor);
+    }
+
+    @Test
+    void testCheckAvailability_ReportsOnlyRequestedValues() {
+        when(availability.isUsernameTaken("john")).thenReturn(true);
+
+        AvailabilityResponse response = userService.checkAvailability("john", null);
+
+        assertFalse(response.usernameAvailable());
+        assertNull(response.emailAvailable());
+        assertThrows(BadRequestException.class, () -> userService.checkAvailability(null, " "));
     }
 
     @Test
@@ -124,7 +189,8 @@ class UserServiceTest {
                 "new@email.com",
                 "new",
                 List.of("Java", "Spring"),
-                "new bio"
+                "new bio",
+                null
         );
 
         when(userRepo.findById(userId)).thenReturn(Optional.of(user));
@@ -140,6 +206,8 @@ class UserServiceTest {
         assertEquals(List.of("Java", "Spring"), response.skills());
 
         verify(userRepo).save(user);
+        verify(principalCache).invalidate("old");
+        verify(dataVersions).bump(DataVersions.Domain.USERS);
     }
 
     @Test
@@ -158,7 +226,8 @@ class UserServiceTest {
                 "hacker@evil.com",
                 "hacker",
                 List.of("Python"),
-                "Updated bio"
+                "Updated bio",
+                null
         );
 
         when(userRepo.findById(userId)).thenReturn(Optional.of(user));
@@ -188,6 +257,7 @@ class UserServiceTest {
                 "new",
                 null,
                 null,
+                null,
                 null
         );
 
@@ -195,6 +265,7 @@ class UserServiceTest {
 
         assertThrows(UsernameNotFoundException.class,
                 () -> userService.updateProfile(request, userId));
+        verify(principalCache, never()).invalidate(any());
     }
 
     @Test
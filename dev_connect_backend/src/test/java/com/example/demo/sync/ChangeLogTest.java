@@ -0,0 +1,109 @@
+package com.example.demo.sync;
+
+import com.example.demo.entity.ContentChange;
+import com.example.demo.enums.ChangeKind;
+import com.example.demo.enums.ChangeTarget;
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.repository.ContentChangeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ChangeLogTest {
+
+    private ContentChangeRepository changeRepo;
+    private ChangeLog changeLog;
+
+    @BeforeEach
+    void setUp() {
+        changeRepo = mock(ContentChangeRepository.class);
+        changeLog = new ChangeLog(changeRepo, 2000, 7);
+    }
+
+    private static ContentChange row(long seq, UUID targetId, ChangeKind kind) {
+        ContentChange change = new ContentChange(ChangeTarget.POST, targetId, targetId, kind);
+        ReflectionTestUtils.setField(change, "seq", seq);
+        return change;
+    }
+
+    private static String cursor(long seq) {
+        return new SyncCursor(seq, LocalDateTime.now()).encode();
+    }
+
+    @Test
+    void testBlankCursorReturnsHead() {
+        when(changeRepo.findSettledHead(any())).thenReturn(42L);
+
+        ChangeLog.Batch batch = changeLog.postChanges(null, null);
+
+        assertTrue(batch.changes().isEmpty());
+        assertFalse(batch.resync());
+        assertEquals(42L, SyncCursor.decode(batch.since()).seq());
+        verify(changeRepo, never()).findChanges(any(), anyLong(), any(), any());
+    }
+
+    @Test
+    void testLatestChangePerTargetWins() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        when(changeRepo.findChanges(eq(ChangeTarget.POST), eq(5L), any(), any())).thenReturn(List.of(
+                row(6, a, ChangeKind.UPSERT),
+                row(7, b, ChangeKind.UPSERT),
+                row(8, a, ChangeKind.DELETE)));
+
+        ChangeLog.Batch batch = changeLog.postChanges(cursor(5), 10);
+
+        assertEquals(Map.of(b, ChangeKind.UPSERT, a, ChangeKind.DELETE), batch.changes());
+        assertEquals(List.of(b, a), List.copyOf(batch.changes().keySet()));
+        assertEquals(8L, SyncCursor.decode(batch.since()).seq());
+        assertFalse(batch.hasMore());
+    }
+
+    @Test
+    void testExtraRowSignalsMore() {
+        when(changeRepo.findChanges(any(), anyLong(), any(), any(Pageable.class))).thenReturn(List.of(
+                row(1, UUID.randomUUID(), ChangeKind.UPSERT),
+                row(2, UUID.randomUUID(), ChangeKind.UPSERT),
+                row(3, UUID.randomUUID(), ChangeKind.UPSERT)));
+
+        ChangeLog.Batch batch = changeLog.postChanges(cursor(0), 2);
+
+        assertTrue(batch.hasMore());
+        assertEquals(2, batch.changes().size());
+        assertEquals(2L, SyncCursor.decode(batch.since()).seq());
+    }
+
+    @Test
+    void testEmptyBatchKeepsCursorPosition() {
+        when(changeRepo.findChangesForPost(any(), any(), anyLong(), any(), any())).thenReturn(List.of());
+
+        ChangeLog.Batch batch = changeLog.commentChanges(UUID.randomUUID(), cursor(9), null);
+
+        assertEquals(9L, SyncCursor.decode(batch.since()).seq());
+    }
+
+    @Test
+    void testCursorOlderThanRetentionResyncs() {
+        String stale = new SyncCursor(3, LocalDateTime.now().minusDays(8)).encode();
+
+        ChangeLog.Batch batch = changeLog.postChanges(stale, null);
+
+        assertTrue(batch.resync());
+        verify(changeRepo, never()).findChanges(any(), anyLong(), any(), any());
+    }
+
+    @Test
+    void testInvalidCursor() {
+        assertThrows(BadRequestException.class, () -> changeLog.postChanges("not-a-cursor", null));
+    }
+}